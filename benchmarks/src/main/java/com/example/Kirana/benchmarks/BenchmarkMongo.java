@@ -0,0 +1,117 @@
+package com.example.Kirana.benchmarks;
+
+import com.example.Kirana.models.Transaction;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Connects benchmarks to a MongoDB instance and seeds synthetic transactions.
+ * <p>
+ * The server is taken from the {@code kirana.bench.mongo-uri} system property (default
+ * {@code mongodb://localhost:27017}). Each data set size gets its own database so that seeded data is reused
+ * across runs instead of being re-inserted.
+ * </p>
+ */
+public final class BenchmarkMongo implements AutoCloseable {
+
+    /**
+     * The store every seeded transaction belongs to.
+     */
+    public static final String STORE_ID = "bench-store";
+
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    private final MongoClient client;
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Opens a connection to the benchmark database for the given data set name.
+     *
+     * @param database the database name, e.g. "kirana_bench_1000000".
+     */
+    public BenchmarkMongo(String database) {
+        String uri = System.getProperty("kirana.bench.mongo-uri", "mongodb://localhost:27017");
+        this.client = MongoClients.create(uri);
+        this.mongoTemplate = new MongoTemplate(client, database);
+    }
+
+    /**
+     * Returns the template bound to the benchmark database.
+     *
+     * @return the MongoTemplate.
+     */
+    public MongoTemplate template() {
+        return mongoTemplate;
+    }
+
+    /**
+     * Creates a Spring Data repository proxy backed by the benchmark database.
+     *
+     * @param repositoryInterface the repository interface, e.g. TransactionRepository.
+     * @param <T> the repository type.
+     * @return the repository instance.
+     */
+    public <T> T repository(Class<T> repositoryInterface) {
+        return new MongoRepositoryFactory(mongoTemplate).getRepository(repositoryInterface);
+    }
+
+    /**
+     * Ensures the "transactions" collection holds exactly the given number of synthetic documents of
+     * {@link #STORE_ID} spread over the last year, and that the indexes declared on {@link Transaction} exist.
+     * Data sets seeded before transactions carried a store are detected and re-seeded.
+     *
+     * @param documents the number of transactions to hold.
+     */
+    public void seedTransactions(int documents) {
+        MongoCollection<Document> collection = mongoTemplate.getCollection("transactions");
+        if (collection.countDocuments(new Document("storeId", STORE_ID)) != documents) {
+            collection.drop();
+            insertTransactions(collection, documents);
+        }
+        IndexOperations indexOps = mongoTemplate.indexOps(Transaction.class);
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        IndexResolver.create(mappingContext).resolveIndexFor(Transaction.class).forEach(indexOps::ensureIndex);
+    }
+
+    private static void insertTransactions(MongoCollection<Document> collection, int documents) {
+        SplittableRandom random = new SplittableRandom(42);
+        long end = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+        long span = 365L * 24 * 60 * 60;
+        List<Document> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < documents; i++) {
+            double amount = 1 + random.nextDouble() * 5_000;
+            batch.add(new Document("storeId", STORE_ID)
+                    .append("amount", amount)
+                    .append("type", random.nextBoolean() ? "credit" : "debit")
+                    .append("currency", "INR")
+                    .append("convertedAmount", amount / 83.0)
+                    .append("timestamp", new Date((end - random.nextLong(span)) * 1000)));
+            if (batch.size() == INSERT_BATCH_SIZE) {
+                collection.insertMany(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            collection.insertMany(batch);
+        }
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.Kirana.benchmarks;
+
+import com.example.Kirana.models.RateSnapshot;
+import com.example.Kirana.models.Transaction;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the currency conversion step of {@code recordTransactionWithConcurrencyControl} for one transaction.
+ * <p>
+ * {@code mapLookup} is the original conversion: a lookup in the {@code Map<String, Object>} deserialized from the
+ * rates JSON followed by a {@code Number} cast. {@code snapshotLookup} is the current conversion through
+ * {@link RateSnapshot}, which indexes a primitive array by currency code. Both use the bundled
+ * {@code fx/rates-snapshot.json} and cycle through a fixed set of incoming transactions.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CurrencyConversionBenchmark {
+
+    private static final int TRANSACTIONS = 1024;
+
+    private Map<String, Object> rateMap;
+    private RateSnapshot snapshot;
+    private Transaction[] transactions;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("fx/rates-snapshot.json")) {
+            JsonNode rates = objectMapper.readTree(in).get("rates");
+            rateMap = objectMapper.convertValue(rates, new TypeReference<Map<String, Object>>() { });
+        }
+        snapshot = RateSnapshot.fromMap(rateMap, Instant.now());
+        SplittableRandom random = new SplittableRandom(7);
+        transactions = new Transaction[TRANSACTIONS];
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            transactions[i] = SyntheticTransactions.incoming(random);
+        }
+    }
+
+    @Benchmark
+    public double mapLookup() {
+        Transaction transaction = nextTransaction();
+        Object rate = rateMap.get(transaction.getCurrency());
+        if (!(rate instanceof Number)) {
+            throw new IllegalStateException("Currency rate not found for: " + transaction.getCurrency());
+        }
+        return transaction.getAmount() / ((Number) rate).doubleValue();
+    }
+
+    @Benchmark
+    public double snapshotLookup() {
+        Transaction transaction = nextTransaction();
+        double rate = snapshot.rate(transaction.getCurrency());
+        if (Double.isNaN(rate) || rate <= 0) {
+            throw new IllegalStateException("Currency rate not found for: " + transaction.getCurrency());
+        }
+        return transaction.getAmount() / rate;
+    }
+
+    private Transaction nextTransaction() {
+        Transaction transaction = transactions[next];
+        next = (next + 1) & (TRANSACTIONS - 1);
+        return transaction;
+    }
+}
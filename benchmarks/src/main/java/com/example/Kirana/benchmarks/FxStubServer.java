@@ -0,0 +1,81 @@
+package com.example.Kirana.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal local stand-in for the FX rates API, for load tests of the write path.
+ * <p>
+ * Serves the rate snapshot bundled with the application ({@code fx/rates-snapshot.json}) on
+ * {@code GET /latest}. Run it and start the application with
+ * {@code --kirana.fx.url=http://localhost:<port>/latest}. An optional second argument adds artificial latency
+ * in milliseconds to each response.
+ * </p>
+ */
+public final class FxStubServer implements AutoCloseable {
+
+    private final HttpServer server;
+
+    /**
+     * Starts the stub on the given port.
+     *
+     * @param port the port to listen on; 0 picks a free port.
+     * @param latencyMillis artificial delay added to every response.
+     * @throws IOException if the server cannot be started or the snapshot cannot be read.
+     */
+    public FxStubServer(int port, long latencyMillis) throws IOException {
+        byte[] body;
+        try (InputStream in = FxStubServer.class.getClassLoader().getResourceAsStream("fx/rates-snapshot.json")) {
+            if (in == null) {
+                throw new IOException("fx/rates-snapshot.json not found on the classpath");
+            }
+            body = in.readAllBytes();
+        }
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/latest", exchange -> {
+            try {
+                if (latencyMillis > 0) {
+                    Thread.sleep(latencyMillis);
+                }
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exchange.sendResponseHeaders(503, -1);
+            } finally {
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    /**
+     * Returns the URL of the stubbed {@code latest} endpoint.
+     *
+     * @return the URL to configure as {@code kirana.fx.url}.
+     */
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort() + "/latest";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        long latencyMillis = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        FxStubServer stub = new FxStubServer(port, latencyMillis);
+        System.out.println("FX stub serving " + stub.url());
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.Kirana.benchmarks;
+
+import com.example.Kirana.dto.Report;
+import com.example.Kirana.models.Transaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Jackson serialization and deserialization of the request and response bodies of the API.
+ * <p>
+ * The mapper is built with {@link Jackson2ObjectMapperBuilder}, as Spring Boot does, so Java time types are
+ * written as ISO strings like in real responses.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Transaction transaction;
+    private byte[] transactionJson;
+    private Report report;
+    private byte[] reportJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        transaction = SyntheticTransactions.converted(1, 42).get(0);
+        transaction.setIdempotencyKey("6c1f0e0e-8f7a-4b1a-9d1e-1b2c3d4e5f60");
+        transactionJson = objectMapper.writeValueAsBytes(transaction);
+        report = new Report(152_340.25, 98_120.75, 54_219.50, "monthly");
+        reportJson = objectMapper.writeValueAsBytes(report);
+    }
+
+    @Benchmark
+    public byte[] writeTransaction() throws IOException {
+        return objectMapper.writeValueAsBytes(transaction);
+    }
+
+    @Benchmark
+    public Transaction readTransaction() throws IOException {
+        return objectMapper.readValue(transactionJson, Transaction.class);
+    }
+
+    @Benchmark
+    public byte[] writeReport() throws IOException {
+        return objectMapper.writeValueAsBytes(report);
+    }
+
+    @Benchmark
+    public Report readReport() throws IOException {
+        return objectMapper.readValue(reportJson, Report.class);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.Kirana.benchmarks;
+
+import com.example.Kirana.models.UserPrincipal;
+import com.example.Kirana.models.Users;
+import com.example.Kirana.serviceImpl.JWTService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link JWTService} token generation, subject extraction and validation.
+ * <p>
+ * The JwtFilter runs extraction and validation on every authenticated request that misses the verified token
+ * cache, so these costs bound the per-request authentication overhead.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtBenchmark {
+
+    private JWTService jwtService;
+    private String token;
+    private UserDetails userDetails;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = new JWTService();
+        token = jwtService.generateToken("shopkeeper");
+        Users user = new Users();
+        user.setUsername("shopkeeper");
+        user.setRole("ROLE_USER");
+        userDetails = new UserPrincipal(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("shopkeeper");
+    }
+
+    @Benchmark
+    public String extractUserName() {
+        return jwtService.extractUserName(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.validateToken(token, userDetails);
+    }
+
+    @Benchmark
+    public boolean extractThenValidate() {
+        return jwtService.extractUserName(token) != null && jwtService.validateToken(token, userDetails);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.Kirana.benchmarks;
+
+import com.example.Kirana.dto.ReportTotals;
+import com.example.Kirana.models.Transaction;
+import com.example.Kirana.serviceImpl.ReportAccumulator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the in-memory part of {@code ReportingServiceImpl.generateReport} over synthetic transaction lists.
+ * <p>
+ * {@code twoStreams} is the original aggregation, filtering the list once for credits and once for debits.
+ * {@code accumulator} is the single pass used by the {@code stream} report source. Database time is excluded;
+ * {@link ReportQueryBenchmark} covers the query paths.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReportAggregationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private List<Transaction> transactions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transactions = SyntheticTransactions.converted(size, 42);
+    }
+
+    @Benchmark
+    public double twoStreams() {
+        double totalCredits = transactions.stream()
+                .filter(transaction -> "credit".equals(transaction.getType()))
+                .mapToDouble(Transaction::getConvertedAmount)
+                .sum();
+        double totalDebits = transactions.stream()
+                .filter(transaction -> "debit".equals(transaction.getType()))
+                .mapToDouble(Transaction::getConvertedAmount)
+                .sum();
+        return totalCredits - totalDebits;
+    }
+
+    @Benchmark
+    public double accumulator() {
+        ReportAccumulator accumulator = new ReportAccumulator();
+        for (Transaction transaction : transactions) {
+            accumulator.accept(transaction);
+        }
+        ReportTotals totals = accumulator.toTotals();
+        return totals.getTotalCredits() - totals.getTotalDebits();
+    }
+}
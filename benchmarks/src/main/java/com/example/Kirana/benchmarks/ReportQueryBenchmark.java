@@ -0,0 +1,82 @@
+package com.example.Kirana.benchmarks;
+
+import com.example.Kirana.dto.ReportTotals;
+import com.example.Kirana.models.Transaction;
+import com.example.Kirana.repository.TransactionRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the yearly report query paths against a live MongoDB holding 10k, 1M and 10M transactions.
+ * <p>
+ * {@code javaStreamPath} is the original implementation: load every transaction in the window with
+ * {@link TransactionRepository#findAllByStoreIdAndTimestampBetween} and sum credits and debits with two Java streams.
+ * {@code aggregationPath} runs {@link TransactionRepository#sumConvertedAmountByType} so that only one row per
+ * type leaves the server. The 10M case needs a large heap for the Java path, hence the fork arguments.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ReportQueryBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    private int documents;
+
+    private BenchmarkMongo mongo;
+    private TransactionRepository transactionRepository;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mongo = new BenchmarkMongo("kirana_bench_" + documents);
+        mongo.seedTransactions(documents);
+        transactionRepository = mongo.repository(TransactionRepository.class);
+        end = LocalDateTime.now();
+        start = end.minusYears(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mongo.close();
+    }
+
+    @Benchmark
+    public double javaStreamPath() {
+        List<Transaction> transactions = transactionRepository.findAllByStoreIdAndTimestampBetween(BenchmarkMongo.STORE_ID, start, end);
+        double totalCredits = transactions.stream()
+                .filter(transaction -> "credit".equals(transaction.getType()))
+                .mapToDouble(Transaction::getConvertedAmount)
+                .sum();
+        double totalDebits = transactions.stream()
+                .filter(transaction -> "debit".equals(transaction.getType()))
+                .mapToDouble(Transaction::getConvertedAmount)
+                .sum();
+        return totalCredits - totalDebits;
+    }
+
+    @Benchmark
+    public double aggregationPath() {
+        ReportTotals totals = ReportTotals.fromTypeTotals(transactionRepository.sumConvertedAmountByType(BenchmarkMongo.STORE_ID, start, end));
+        return totals.getTotalCredits() - totals.getTotalDebits();
+    }
+}
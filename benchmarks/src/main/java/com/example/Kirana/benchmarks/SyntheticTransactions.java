@@ -0,0 +1,58 @@
+package com.example.Kirana.benchmarks;
+
+import com.example.Kirana.models.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Builds deterministic in-memory transactions for the benchmarks that do not need a database.
+ * <p>
+ * Transactions are a 60/40 mix of credits and debits in a handful of currencies, spread over the last year.
+ * The same seed always yields the same list so runs are comparable.
+ * </p>
+ */
+final class SyntheticTransactions {
+
+    static final String[] CURRENCIES = {"INR", "USD", "EUR", "GBP", "AED", "JPY", "SGD", "NPR"};
+
+    private SyntheticTransactions() {
+    }
+
+    /**
+     * Creates converted transactions, as they are stored after {@code recordTransactionWithConcurrencyControl}.
+     *
+     * @param count the number of transactions.
+     * @param seed the random seed.
+     * @return the transactions.
+     */
+    static List<Transaction> converted(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        LocalDateTime now = LocalDateTime.of(2024, 8, 1, 0, 0);
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Transaction transaction = incoming(random);
+            transaction.setId(Long.toHexString(seed) + "-" + i);
+            transaction.setConvertedAmount(transaction.getAmount() / 83.0);
+            transaction.setTimestamp(now.minusMinutes(random.nextInt(525_600)));
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+
+    /**
+     * Creates a transaction as it arrives from a client: amount, type and currency only.
+     *
+     * @param random the random source.
+     * @return the transaction.
+     */
+    static Transaction incoming(SplittableRandom random) {
+        Transaction transaction = new Transaction();
+        transaction.setAmount(1 + random.nextDouble() * 5_000);
+        transaction.setType(random.nextInt(10) < 6 ? "credit" : "debit");
+        transaction.setCurrency(CURRENCIES[random.nextInt(CURRENCIES.length)]);
+        return transaction;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.Kirana.benchmarks;
+
+import com.example.Kirana.models.Transaction;
+import com.example.Kirana.serviceImpl.StripedLocks;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Measures write latency of a single transaction under each deduplication mode of
+ * {@code TransactionServiceImpl.recordTransactionWithConcurrencyControl}.
+ * <p>
+ * Only the persistence and deduplication steps are measured; currency conversion is excluded so that the
+ * external rate API does not dominate. Needs MongoDB ({@code kirana.bench.mongo-uri}) and Redis
+ * ({@code kirana.bench.redis-host}, {@code kirana.bench.redis-port}).
+ * </p>
+ * <ul>
+ *     <li>{@code redisLock}: SETNX with TTL, Mongo save, DEL (the original path plus the TTL fix).</li>
+ *     <li>{@code idempotencyKey}: a single Mongo insert guarded by the unique idempotency key index.</li>
+ *     <li>{@code localLock}: an in-process striped lock around the Mongo save.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+public class TransactionWriteBenchmark {
+
+    private BenchmarkMongo mongo;
+    private MongoTemplate mongoTemplate;
+    private LettuceConnectionFactory redisConnectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private final StripedLocks localLocks = new StripedLocks(256);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mongo = new BenchmarkMongo("kirana_bench_writes");
+        mongoTemplate = mongo.template();
+        mongoTemplate.dropCollection(Transaction.class);
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        IndexResolver.create(mappingContext).resolveIndexFor(Transaction.class)
+                .forEach(mongoTemplate.indexOps(Transaction.class)::ensureIndex);
+
+        redisConnectionFactory = new LettuceConnectionFactory(
+                System.getProperty("kirana.bench.redis-host", "localhost"),
+                Integer.getInteger("kirana.bench.redis-port", 6379));
+        redisConnectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(redisConnectionFactory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        redisConnectionFactory.destroy();
+        mongo.close();
+    }
+
+    @Benchmark
+    public Transaction redisLock() {
+        Transaction transaction = newTransaction();
+        String lockKey = "lock::transaction::" + transaction.getId();
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, "locked", Duration.ofSeconds(30)))) {
+            throw new IllegalStateException("Lock unexpectedly held: " + lockKey);
+        }
+        try {
+            return mongoTemplate.save(transaction);
+        } finally {
+            redisTemplate.delete(lockKey);
+        }
+    }
+
+    @Benchmark
+    public Transaction idempotencyKey() {
+        Transaction transaction = newTransaction();
+        transaction.setIdempotencyKey(transaction.getId());
+        return mongoTemplate.insert(transaction);
+    }
+
+    @Benchmark
+    public Transaction localLock() {
+        Transaction transaction = newTransaction();
+        ReentrantLock lock = localLocks.lockFor(transaction.getId());
+        lock.lock();
+        try {
+            return mongoTemplate.save(transaction);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Transaction newTransaction() {
+        Transaction transaction = new Transaction();
+        transaction.setId(new ObjectId().toHexString());
+        transaction.setStoreId(BenchmarkMongo.STORE_ID);
+        transaction.setAmount(500.0);
+        transaction.setType("credit");
+        transaction.setCurrency("INR");
+        transaction.setConvertedAmount(6.0);
+        transaction.setTimestamp(LocalDateTime.now());
+        return transaction;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.Kirana.benchmarks.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and status code statistics of one endpoint, safe for concurrent recording.
+ * <p>
+ * Latencies are recorded in microseconds up to one minute with three significant digits. Failures at the
+ * transport level (timeouts, refused connections) are counted under status 0.
+ * </p>
+ */
+final class EndpointStats {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final String name;
+    private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    /**
+     * Records one request.
+     *
+     * @param status the HTTP status, or 0 if no response was received.
+     * @param latencyNanos the time from sending the request to reading the whole response.
+     */
+    void record(int status, long latencyNanos) {
+        latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Returns the number of requests recorded.
+     *
+     * @return the request count.
+     */
+    long count() {
+        return latencies.getTotalCount();
+    }
+
+    /**
+     * Returns the number of requests recorded with a status.
+     *
+     * @param status the HTTP status, or 0 for transport failures.
+     * @return the request count.
+     */
+    long count(int status) {
+        LongAdder adder = statuses.get(status);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * Returns a latency percentile.
+     *
+     * @param percentile the percentile, e.g. 99.9.
+     * @return the latency in milliseconds.
+     */
+    double percentileMillis(double percentile) {
+        return millis(latencies.getValueAtPercentile(percentile));
+    }
+
+    /**
+     * Discards everything recorded so far, at the end of the warm-up.
+     */
+    void reset() {
+        latencies.reset();
+        statuses.clear();
+    }
+
+    /**
+     * Formats one report line: request count, throughput, latency percentiles in milliseconds and status codes.
+     *
+     * @param elapsedSeconds the length of the measured phase.
+     * @return the report line.
+     */
+    String summary(double elapsedSeconds) {
+        long count = latencies.getTotalCount();
+        Map<Integer, Long> statusCounts = new TreeMap<>();
+        statuses.forEach((status, adder) -> statusCounts.put(status, adder.sum()));
+        return String.format("%-14s %9d %10.1f %9.2f %9.2f %9.2f %9.2f  %s",
+                name, count, count / elapsedSeconds,
+                millis(latencies.getValueAtPercentile(50)),
+                millis(latencies.getValueAtPercentile(99)),
+                millis(latencies.getValueAtPercentile(99.9)),
+                millis(latencies.getMaxValue()),
+                statusCounts);
+    }
+
+    static String header() {
+        return String.format("%-14s %9s %10s %9s %9s %9s %9s  %s",
+                "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "statuses");
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.Kirana.benchmarks.load;
+
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds how many transactions one node keeps in flight before latency or errors degrade.
+ * <p>
+ * The test boots the application against the {@link StandIns} in this JVM, so the heap given with {@code -Xmx}
+ * bounds the application and the driver together. For each level of {@code kirana.load.levels} it keeps exactly
+ * that many {@code POST /api/transactions} requests outstanding with the asynchronous HTTP client, then reports
+ * throughput, p50/p99 latency, errors, peak live threads and used heap. The ceiling is the highest level whose p99
+ * stays under {@code kirana.load.slo-p99-ms} without errors.
+ * </p>
+ * <p>
+ * Run it twice with the same heap, once with the platform-thread default and once with
+ * {@code -Dkirana.load.app.spring.threads.virtual.enabled=true} on Java 21, to compare the two modes. On Java 21
+ * the test also subscribes to the JFR {@code jdk.VirtualThreadPinned} event and prints every distinct frame that
+ * pinned a carrier thread, so blocking calls made while holding a monitor show up in the report.
+ * </p>
+ */
+public final class InFlightCeilingTest {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final String CREDENTIALS = "{\"username\":\"ceiling-user\",\"password\":\"ceiling-password\"}";
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final String baseUrl;
+    private final Map<String, LongAdder> pinnedFrames = new ConcurrentHashMap<>();
+
+    private InFlightCeilingTest(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] levels = System.getProperty("kirana.load.levels", "50,100,200,400,800,1600,3200").split(",");
+        Duration step = Duration.parse(System.getProperty("kirana.load.step", "PT20S"));
+        long sloMillis = Long.getLong("kirana.load.slo-p99-ms", 500L);
+
+        try (StandIns standIns = new StandIns(0);
+             ConfigurableApplicationContext application = LoadTest.bootApplication(standIns);
+             RecordingStream pinning = new RecordingStream()) {
+            Integer port = application.getEnvironment().getProperty("local.server.port", Integer.class);
+            String threads = application.getEnvironment().getProperty("spring.threads.virtual.enabled", "false");
+            InFlightCeilingTest test = new InFlightCeilingTest("http://localhost:" + port);
+            test.watchPinning(pinning);
+
+            String token = test.login();
+            System.out.printf("Virtual threads: %s, max heap %d MB, step %s, p99 SLO %d ms%n",
+                    threads, Runtime.getRuntime().maxMemory() >> 20, step, sloMillis);
+            System.out.printf("%9s %10s %9s %9s %8s %9s %9s%n",
+                    "in-flight", "req/s", "p50 ms", "p99 ms", "errors", "threads", "heap MB");
+            int ceiling = 0;
+            for (String level : levels) {
+                int inFlight = Integer.parseInt(level.trim());
+                boolean withinSlo = test.runLevel(token, inFlight, step, sloMillis);
+                if (!withinSlo) {
+                    break;
+                }
+                ceiling = inFlight;
+            }
+            System.out.println("Ceiling: " + ceiling + " transactions in flight");
+            test.pinnedFrames.forEach((frame, count) -> System.out.println("Pinned " + count.sum() + "x at " + frame));
+        }
+    }
+
+    /**
+     * Subscribes to carrier pinning events. The event only exists on Java 21 and later; on older runtimes the
+     * subscription is a no-op.
+     */
+    private void watchPinning(RecordingStream pinning) {
+        pinning.enable("jdk.VirtualThreadPinned").withStackTrace().withThreshold(Duration.ofMillis(1));
+        pinning.onEvent("jdk.VirtualThreadPinned", event -> {
+            String frame = event.getStackTrace() == null ? "unknown" : event.getStackTrace().getFrames().stream()
+                    .filter(RecordedFrame::isJavaFrame)
+                    .map(f -> f.getMethod().getType().getName() + "." + f.getMethod().getName() + ":" + f.getLineNumber())
+                    .filter(name -> !name.startsWith("java.") && !name.startsWith("jdk."))
+                    .findFirst()
+                    .orElse("jdk internal");
+            pinnedFrames.computeIfAbsent(frame, key -> new LongAdder()).increment();
+        });
+        pinning.startAsync();
+    }
+
+    private String login() throws Exception {
+        httpClient.send(post("/api/auth/register", CREDENTIALS, null), HttpResponse.BodyHandlers.ofString());
+        String body = httpClient.send(post("/api/auth/login", CREDENTIALS, null), HttpResponse.BodyHandlers.ofString()).body();
+        Matcher matcher = TOKEN.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Login failed: " + body);
+        }
+        return matcher.group(1);
+    }
+
+    /**
+     * Keeps {@code inFlight} transactions outstanding for one step and prints the result line.
+     *
+     * @return true if the level met the latency objective without errors.
+     */
+    private boolean runLevel(String token, int inFlight, Duration step, long sloMillis) throws InterruptedException {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        threadBean.resetPeakThreadCount();
+        EndpointStats stats = new EndpointStats("transaction");
+        Semaphore permits = new Semaphore(inFlight);
+        long end = System.nanoTime() + step.toNanos();
+        long start = System.nanoTime();
+        long maxHeap = 0;
+        int sent = 0;
+
+        while (System.nanoTime() < end) {
+            if (!permits.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                continue;
+            }
+            long requestStart = System.nanoTime();
+            httpClient.sendAsync(transactionRequest(token), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        stats.record(error != null ? 0 : response.statusCode(), System.nanoTime() - requestStart);
+                        permits.release();
+                    });
+            if (++sent % 1000 == 0) {
+                maxHeap = Math.max(maxHeap, memoryBean.getHeapMemoryUsage().getUsed());
+            }
+        }
+        permits.acquire(inFlight);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        maxHeap = Math.max(maxHeap, memoryBean.getHeapMemoryUsage().getUsed());
+
+        long errors = stats.count() - stats.count(200);
+        double p99 = stats.percentileMillis(99);
+        System.out.printf("%9d %10.1f %9.2f %9.2f %8d %9d %9d%n",
+                inFlight, stats.count() / elapsedSeconds, stats.percentileMillis(50), p99, errors,
+                threadBean.getPeakThreadCount(), maxHeap >> 20);
+        return errors == 0 && p99 <= sloMillis;
+    }
+
+    private HttpRequest transactionRequest(String token) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return post("/api/transactions", String.format(
+                "{\"id\":\"%s\",\"amount\":%.2f,\"type\":\"%s\",\"currency\":\"INR\"}",
+                UUID.randomUUID(), 1 + random.nextDouble() * 5_000, random.nextBoolean() ? "credit" : "debit"), token);
+    }
+
+    private HttpRequest post(String path, String json, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.Kirana.benchmarks.load;
+
+import com.example.Kirana.KiranaRegisterApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * End-to-end load test of one application node.
+ * <p>
+ * Unless {@code kirana.load.base-url} is set, the test starts the {@link StandIns} and boots the application
+ * against them on a free port. It then registers a pool of users, logs them in, and drives
+ * {@code /api/auth/login}, {@code /api/transactions} and {@code /api/reports/{period}} from
+ * {@code kirana.load.concurrency} closed-loop workers in the proportions of {@code kirana.load.mix}. After a
+ * warm-up, it prints throughput and p50/p99/p999 latency per endpoint.
+ * </p>
+ * <p>
+ * Settings are system properties:
+ * </p>
+ * <ul>
+ *     <li>{@code kirana.load.base-url}: target an already running node instead of booting one.</li>
+ *     <li>{@code kirana.load.concurrency} (32): number of workers, each with one request in flight.</li>
+ *     <li>{@code kirana.load.warmup} (PT15S) and {@code kirana.load.duration} (PT60S): phase lengths.</li>
+ *     <li>{@code kirana.load.users} (20): users registered and used for authenticated requests.</li>
+ *     <li>{@code kirana.load.mix} (login=5,transaction=80,report=15): relative weights of the endpoints.</li>
+ *     <li>{@code kirana.load.fx-latency-ms} (0): artificial latency of the FX stub.</li>
+ *     <li>{@code kirana.load.app.<property>}: passed to the booted application as {@code <property>}, e.g.
+ *     {@code -Dkirana.load.app.kirana.transactions.dedup-mode=idempotency-key}.</li>
+ * </ul>
+ */
+public final class LoadTest {
+
+    private static final String PASSWORD = "load-test-password";
+    private static final String[] PERIODS = {"weekly", "monthly", "yearly"};
+    private static final String[] CURRENCIES = {"INR", "USD", "EUR", "GBP", "AED"};
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final String APP_PROPERTY_PREFIX = "kirana.load.app.";
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+    private final Duration requestTimeout = Duration.ofSeconds(30);
+    private final List<String> usernames = new ArrayList<>();
+    private final List<String> tokens = new ArrayList<>();
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private final String[] operations;
+
+    private LoadTest(String baseUrl, Map<String, Integer> mix) {
+        this.baseUrl = baseUrl;
+        List<String> weighted = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            if (!List.of("login", "transaction", "report").contains(operation)) {
+                throw new IllegalArgumentException("Unknown operation in kirana.load.mix: " + operation);
+            }
+            stats.put(operation, new EndpointStats(operation));
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        this.operations = weighted.toArray(new String[0]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = Integer.getInteger("kirana.load.concurrency", 32);
+        Duration warmup = Duration.parse(System.getProperty("kirana.load.warmup", "PT15S"));
+        Duration duration = Duration.parse(System.getProperty("kirana.load.duration", "PT60S"));
+        int users = Integer.getInteger("kirana.load.users", 20);
+        Map<String, Integer> mix = parseMix(System.getProperty("kirana.load.mix", "login=5,transaction=80,report=15"));
+        String baseUrl = System.getProperty("kirana.load.base-url");
+
+        if (baseUrl != null) {
+            new LoadTest(baseUrl, mix).run(users, concurrency, warmup, duration);
+            return;
+        }
+        try (StandIns standIns = new StandIns(Long.getLong("kirana.load.fx-latency-ms", 0L));
+             ConfigurableApplicationContext application = bootApplication(standIns)) {
+            Integer port = application.getEnvironment().getProperty("local.server.port", Integer.class);
+            new LoadTest("http://localhost:" + port, mix).run(users, concurrency, warmup, duration);
+        }
+    }
+
+    /**
+     * Boots the application against the stand-ins. Properties are passed as command line arguments so they
+     * take precedence over {@code application.yml}. Rate limits are lifted unless overridden, since the test
+     * measures capacity rather than the limiter.
+     */
+    static ConfigurableApplicationContext bootApplication(StandIns standIns) {
+        Map<String, Object> properties = new LinkedHashMap<>(standIns.applicationProperties());
+        properties.put("server.port", 0);
+        properties.put("kirana.rate-limit.tiers.USER.capacity", Integer.MAX_VALUE);
+        properties.put("kirana.rate-limit.tiers.ADMIN.capacity", Integer.MAX_VALUE);
+        properties.put("logging.level.com.example.Kirana", "WARN");
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith(APP_PROPERTY_PREFIX))
+                .forEach(name -> properties.put(name.substring(APP_PROPERTY_PREFIX.length()), System.getProperty(name)));
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(KiranaRegisterApplication.class).run(args);
+    }
+
+    private void run(int users, int concurrency, Duration warmup, Duration duration) throws InterruptedException {
+        prepareUsers(users);
+        System.out.printf("Target %s, %d workers, %d users, warm-up %s, measuring %s%n",
+                baseUrl, concurrency, users, warmup, duration);
+
+        long warmupEnd = System.nanoTime() + warmup.toNanos();
+        long measureEnd = warmupEnd + duration.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> {
+                while (System.nanoTime() < measureEnd) {
+                    execute(operations[ThreadLocalRandom.current().nextInt(operations.length)]);
+                }
+            });
+        }
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, warmupEnd - System.nanoTime()));
+        stats.values().forEach(EndpointStats::reset);
+        long measureStart = System.nanoTime();
+
+        workers.shutdown();
+        workers.awaitTermination(duration.toMillis() + requestTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        double elapsedSeconds = (System.nanoTime() - measureStart) / 1e9;
+
+        System.out.println(EndpointStats.header());
+        stats.values().forEach(endpoint -> System.out.println(endpoint.summary(elapsedSeconds)));
+    }
+
+    private void prepareUsers(int users) {
+        for (int i = 0; i < users; i++) {
+            String username = "load-user-" + i;
+            String credentials = "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}";
+            send(post("/api/auth/register", credentials, null));
+            HttpResponse<String> response = send(post("/api/auth/login", credentials, null));
+            Matcher token = TOKEN.matcher(response == null ? "" : response.body());
+            if (!token.find()) {
+                throw new IllegalStateException("Could not log in " + username + ": "
+                        + (response == null ? "no response" : response.statusCode() + " " + response.body()));
+            }
+            usernames.add(username);
+            tokens.add(token.group(1));
+        }
+    }
+
+    private void execute(String operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int user = random.nextInt(tokens.size());
+        HttpRequest request;
+        switch (operation) {
+            case "login":
+                request = post("/api/auth/login",
+                        "{\"username\":\"" + usernames.get(user) + "\",\"password\":\"" + PASSWORD + "\"}", null);
+                break;
+            case "transaction":
+                request = post("/api/transactions", String.format(
+                        "{\"id\":\"%s\",\"amount\":%.2f,\"type\":\"%s\",\"currency\":\"%s\"}",
+                        UUID.randomUUID(), 1 + random.nextDouble() * 5_000,
+                        random.nextInt(10) < 6 ? "credit" : "debit",
+                        CURRENCIES[random.nextInt(CURRENCIES.length)]), tokens.get(user));
+                break;
+            case "report":
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/reports/" + PERIODS[random.nextInt(PERIODS.length)]))
+                        .timeout(requestTimeout)
+                        .header("Authorization", "Bearer " + tokens.get(user))
+                        .GET()
+                        .build();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown operation in kirana.load.mix: " + operation);
+        }
+        long start = System.nanoTime();
+        HttpResponse<String> response = send(request);
+        stats.get(operation).record(response == null ? 0 : response.statusCode(), System.nanoTime() - start);
+    }
+
+    private HttpRequest post(String path, String json, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(pair[0].trim(), weight);
+            }
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.Kirana.benchmarks.load;
+
+import com.example.Kirana.benchmarks.FxStubServer;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Local stand-ins for the external services of the application: an embedded MongoDB, an embedded Redis and the
+ * {@link FxStubServer}.
+ * <p>
+ * All three listen on free ports, so several runs can share a machine. {@link #applicationProperties()} returns
+ * the properties that point the application at them.
+ * </p>
+ */
+final class StandIns implements AutoCloseable {
+
+    private final TransitionWalker.ReachedState<RunningMongodProcess> mongo;
+    private final RedisServer redis;
+    private final int redisPort;
+    private final FxStubServer fxStub;
+
+    /**
+     * Starts the stand-ins. The first run downloads the MongoDB binaries into {@code ~/.embedmongo}.
+     *
+     * @param fxLatencyMillis artificial latency of the FX stub, to mimic the real API.
+     * @throws IOException if a stand-in cannot be started.
+     */
+    StandIns(long fxLatencyMillis) throws IOException {
+        mongo = Mongod.instance().start(Version.Main.V7_0);
+        redisPort = freePort();
+        redis = new RedisServer(redisPort);
+        redis.start();
+        fxStub = new FxStubServer(0, fxLatencyMillis);
+    }
+
+    /**
+     * Returns the application properties that point at the stand-ins.
+     *
+     * @return the properties, keyed by property name.
+     */
+    Map<String, Object> applicationProperties() {
+        ServerAddress address = mongo.current().getServerAddress();
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.data.mongodb.uri",
+                "mongodb://" + address.getHost() + ":" + address.getPort() + "/kirana_load");
+        properties.put("spring.data.redis.host", "localhost");
+        properties.put("spring.data.redis.port", redisPort);
+        properties.put("kirana.fx.source", "http");
+        properties.put("kirana.fx.url", fxStub.url());
+        return properties;
+    }
+
+    @Override
+    public void close() throws IOException {
+        fxStub.close();
+        redis.stop();
+        mongo.close();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
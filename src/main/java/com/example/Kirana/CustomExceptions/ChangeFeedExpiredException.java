@@ -0,0 +1,17 @@
+package com.example.Kirana.CustomExceptions;
+
+/**
+ * Custom exception to be thrown when a change feed cannot resume because its token has fallen out of the oplog.
+ */
+public class ChangeFeedExpiredException extends RuntimeException {
+
+    /**
+     * Constructs a new ChangeFeedExpiredException with the specified detail message and cause.
+     *
+     * @param message the detail message.
+     * @param cause the cause of the exception.
+     */
+    public ChangeFeedExpiredException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.Kirana.CustomExceptions;
+
+/**
+ * Exception thrown when the password hashing executor is saturated and cannot accept more work.
+ * Callers should answer with 503 so clients back off instead of piling up behind the queue.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
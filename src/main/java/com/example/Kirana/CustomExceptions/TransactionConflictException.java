@@ -0,0 +1,17 @@
+package com.example.Kirana.CustomExceptions;
+
+
+/**
+ * Custom exception to be thrown when a client-supplied transaction id is already used by another store.
+ */
+public class TransactionConflictException extends RuntimeException {
+
+    /**
+     * Constructs a new TransactionConflictException with the specified detail message.
+     *
+     * @param message the detail message.
+     */
+    public TransactionConflictException(String message) {
+        super(message);
+    }
+}
@@ -1,28 +1,69 @@
 package com.example.Kirana.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.Timeout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 /**
  * Configuration class for setting up application-wide beans.
  * This class provides bean definitions for application components.
  */
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(AppConfig.class);
 
+    @Value("${kirana.http.connect-timeout:PT2S}")
+    private Duration connectTimeout;
+
+    @Value("${kirana.http.read-timeout:PT5S}")
+    private Duration readTimeout;
+
+    @Value("${kirana.http.max-connections:20}")
+    private int maxConnections;
+
     /**
-     * Creates a new RestTemplate bean.
+     * Creates a new RestTemplate bean backed by a pooled Apache HttpClient.
+     * <p>
+     * Connections are reused across calls, and connect, read and pool-acquire timeouts bound how long a caller
+     * can be held up by a slow or unreachable upstream.
+     * </p>
      *
      * @return A RestTemplate instance configured for making HTTP requests.
      */
     @Bean
     public RestTemplate restTemplate() {
-        logger.info("Creating RestTemplate bean");
-        return new RestTemplate();
+        logger.info("Creating RestTemplate bean with {} pooled connections", maxConnections);
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .build())
+                .build();
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(connectTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .build();
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
     }
 }
@@ -0,0 +1,56 @@
+package com.example.Kirana.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for the Redis-backed Spring Cache ({@code spring.cache.type=redis}).
+ * Declares the caches the application uses, so they exist, and publish statistics, from startup.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Cache of generated reports, keyed by store and period, e.g. "store-17:weekly".
+     */
+    public static final String REPORTS_CACHE = "reports";
+
+    /**
+     * Cache of the closed buckets of report time series, keyed by store, series version, granularity and range.
+     */
+    public static final String REPORT_SERIES_CACHE = "reportSeries";
+
+    /**
+     * Configures the reports cache. Entries live for at most {@code kirana.reports.cache.ttl}; writes evict them
+     * earlier, so the TTL bounds how long a report computed concurrently with a write can stay stale, and how far
+     * the start of a cached rolling window can lag behind when the store records nothing.
+     *
+     * <p>
+     * Closed series buckets lie entirely in the past and only change when transactions reach their rollups late,
+     * which evicts the store's series, so they are kept for {@code kirana.reports.series.closed-ttl}, which only
+     * bounds memory.
+     * </p>
+     *
+     * @param reportTtl the time-to-live of a cached report.
+     * @param seriesTtl the time-to-live of cached closed series buckets.
+     * @return A customizer registering the report caches with the Redis cache manager.
+     */
+    @Bean
+    public RedisCacheManagerBuilderCustomizer reportCacheCustomizer(@Value("${kirana.reports.cache.ttl:PT5M}") Duration reportTtl,
+                                                                    @Value("${kirana.reports.series.closed-ttl:P1D}") Duration seriesTtl) {
+        return builder -> builder
+                .withCacheConfiguration(REPORTS_CACHE, RedisCacheConfiguration.defaultCacheConfig()
+                        .entryTtl(reportTtl)
+                        .disableCachingNullValues())
+                .withCacheConfiguration(REPORT_SERIES_CACHE, RedisCacheConfiguration.defaultCacheConfig()
+                        .entryTtl(seriesTtl)
+                        .disableCachingNullValues());
+    }
+}
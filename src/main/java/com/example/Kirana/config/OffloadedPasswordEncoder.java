@@ -0,0 +1,104 @@
+package com.example.Kirana.config;
+
+import com.example.Kirana.CustomExceptions.PasswordHashingRejectedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link PasswordEncoder} that runs the expensive hashing of its delegate on a dedicated, bounded executor.
+ * <p>
+ * BCrypt at a high work factor costs hundreds of milliseconds of CPU per call. Running it on request threads lets
+ * a login storm occupy every Tomcat thread and starve unrelated endpoints such as transaction writes. Here at most
+ * {@code threads} hashes run at once and at most {@code queueCapacity} wait; anything beyond that fails immediately
+ * with {@link PasswordHashingRejectedException}, which the API turns into a 503.
+ * </p>
+ */
+public class OffloadedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Creates the encoder and its executor.
+     *
+     * @param delegate the encoder doing the actual hashing.
+     * @param threads the number of hashing threads.
+     * @param queueCapacity the number of hashing requests allowed to wait for a thread.
+     */
+    public OffloadedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity) {
+        this.delegate = delegate;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Delegates the upgrade check, which only inspects the stored hash and is cheap enough for the caller's thread.
+     *
+     * @param encodedPassword the stored hash.
+     * @return true if the hash was made with a weaker configuration than the delegate's and should be re-encoded.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Returns the number of hashing requests currently waiting for a thread.
+     *
+     * @return the queue depth.
+     */
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingRejectedException("Too many concurrent login or registration requests. Try again shortly.", e);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Interrupted while waiting for password hashing.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -1,41 +1,42 @@
 package com.example.Kirana.config;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Bucket4j;
-import io.github.bucket4j.Refill;
+import com.example.Kirana.serviceImpl.LocalRateLimiter;
+import com.example.Kirana.serviceImpl.RedisRateLimiter;
+import com.example.Kirana.services.RateLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-
-import java.time.Duration;
+import org.springframework.data.redis.core.RedisTemplate;
 
 /**
- * Configuration class for setting up rate limiting using Bucket4j.
- * This class defines a rate limit bucket to control the rate of requests.
+ * Configuration class for setting up per-user rate limiting.
+ * This class creates the {@link RateLimiter} selected by {@code kirana.rate-limit.mode}, with per-role
+ * allowances taken from {@link RateLimitProperties}.
  */
 @Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class RateLimitConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(RateLimitConfig.class);
 
     /**
-     * Creates a Bucket bean with a rate limit of 10 requests per minute.
+     * Creates the rate limiter for transaction requests.
      *
-     * @return A Bucket instance configured with the specified rate limits.
+     * @param properties the rate limit settings.
+     * @param redisTemplate the Redis template, used in "redis" mode.
+     * @return A RateLimiter keeping buckets locally or in Redis.
      */
     @Bean
-    public Bucket createTransactionBucket() {
-        try {
-            // Define a rate limit of 10 requests per minute
-            Bandwidth limit = Bandwidth.classic(10, Refill.intervally(10, Duration.ofMinutes(1)));
-            Bucket bucket = Bucket4j.builder().addLimit(limit).build();
-            logger.info("Rate limit bucket created with limit: 10 requests per minute");
-            return bucket;
-        } catch (Exception e) {
-            logger.error("Failed to create rate limit bucket", e);
-            throw new RuntimeException("Error creating rate limit bucket", e);
+    public RateLimiter transactionRateLimiter(RateLimitProperties properties, RedisTemplate<String, String> redisTemplate) {
+        properties.getTiers().forEach((role, tier) ->
+                logger.info("Rate limit tier {}: {} requests per {}", role, tier.getCapacity(), tier.getPeriod()));
+        if ("redis".equals(properties.getMode())) {
+            logger.info("Using Redis-backed rate limiting shared across nodes");
+            return new RedisRateLimiter(properties, redisTemplate);
         }
+        logger.info("Using local rate limiting for up to {} users", properties.getMaxTrackedKeys());
+        return new LocalRateLimiter(properties);
     }
 }
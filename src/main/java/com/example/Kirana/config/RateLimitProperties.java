@@ -0,0 +1,68 @@
+package com.example.Kirana.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rate limiting settings bound from {@code kirana.rate-limit.*}.
+ * Limits are applied per authenticated user, with the allowance chosen by the user's role.
+ */
+@Data
+@ConfigurationProperties(prefix = "kirana.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Where buckets live: "local" for per-node buckets, "redis" for limits shared by all nodes.
+     */
+    private String mode = "local";
+
+    /**
+     * Maximum number of users whose buckets are kept in memory in local mode; least recently used are evicted.
+     */
+    private long maxTrackedKeys = 100_000;
+
+    /**
+     * How long an idle user's bucket is kept in local mode before it is evicted.
+     */
+    private Duration idleExpiry = Duration.ofHours(1);
+
+    /**
+     * Tier used for roles without their own entry in {@link #tiers}.
+     */
+    private String defaultTier = "USER";
+
+    /**
+     * Allowance per role, keyed by role name without the "ROLE_" prefix, e.g. "USER" or "ADMIN".
+     */
+    private Map<String, Tier> tiers = new HashMap<>(Map.of("USER", new Tier()));
+
+    /**
+     * Allowance of one tier: {@code capacity} requests per {@code period}.
+     */
+    @Data
+    public static class Tier {
+
+        private long capacity = 60;
+
+        private Duration period = Duration.ofMinutes(1);
+    }
+
+    /**
+     * Returns the tier for a role, falling back to the default tier.
+     *
+     * @param role the role, with or without the "ROLE_" prefix.
+     * @return the tier to apply.
+     */
+    public Tier tierFor(String role) {
+        String name = role != null && role.startsWith("ROLE_") ? role.substring(5) : role;
+        Tier tier = name != null ? tiers.get(name) : null;
+        if (tier == null) {
+            tier = tiers.getOrDefault(defaultTier, new Tier());
+        }
+        return tier;
+    }
+}
@@ -4,6 +4,8 @@ import com.example.Kirana.jwtConfig.JwtFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -12,67 +14,69 @@ import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.annotation.authentication.configuration.EnableGlobalAuthentication;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 /**
  * Security configuration class for setting up Spring Security.
  * This configuration includes JWT-based authentication, role-based access control, and custom filter setup.
+ * The password encoder and authentication manager are shared by both web stacks; the servlet filter chain is only
+ * set up when running on Spring MVC, and {@link ReactiveSecurityConfig} takes its place on WebFlux.
  */
 @Configuration
-@EnableWebSecurity
+@EnableGlobalAuthentication
 public class SecurityConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
 
-    @Autowired
-    private JwtFilter jwtFilter;
-
     @Autowired
     private UserDetailsService userDetailsService;
 
     /**
-     * Configures the security filter chain, including authorization rules and JWT filter setup.
+     * Provides the PasswordEncoder bean shared by registration and login.
+     * <p>
+     * BCrypt runs on a dedicated bounded executor (see {@link OffloadedPasswordEncoder}) instead of request threads.
+     * The work factor comes from {@code kirana.security.bcrypt.strength}; existing hashes keep verifying after it
+     * is changed, and weaker hashes are upgraded on the user's next successful login.
+     * </p>
      *
-     * @param http the HttpSecurity object to configure
-     * @return a configured SecurityFilterChain instance
-     * @throws Exception if an error occurs during configuration
+     * @param strength the BCrypt work factor
+     * @param threads the number of hashing threads
+     * @param queueCapacity the number of hashing requests allowed to wait before new ones are rejected
+     * @return a configured PasswordEncoder instance
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
-        try {
-            return http
-                    .csrf(AbstractHttpConfigurer::disable)
-                    .authorizeHttpRequests(request -> request
-                            .requestMatchers("api/auth/**").permitAll()
-                            .requestMatchers(HttpMethod.GET, "api/transactions/**", "api/records/**").hasAnyRole("ADMIN", "USER")
-                            .anyRequest().authenticated())
-                    .httpBasic(Customizer.withDefaults())
-                    .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                    .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
-                    .build();
-        } catch (Exception e) {
-            logger.error("Error configuring security filter chain", e);
-            throw e;
-        }
+    public OffloadedPasswordEncoder passwordEncoder(@Value("${kirana.security.bcrypt.strength:12}") int strength,
+                                                    @Value("${kirana.security.bcrypt.threads:2}") int threads,
+                                                    @Value("${kirana.security.bcrypt.queue-capacity:50}") int queueCapacity) {
+        logger.info("Password hashing: BCrypt strength {}, {} threads, queue capacity {}", strength, threads, queueCapacity);
+        return new OffloadedPasswordEncoder(new BCryptPasswordEncoder(strength), threads, queueCapacity);
     }
 
     /**
-     * Provides an AuthenticationProvider bean with BCryptPasswordEncoder and UserDetailsService.
+     * Provides an AuthenticationProvider bean with the shared PasswordEncoder and UserDetailsService.
+     * Passwords hashed with a weaker configuration are re-encoded after a successful login.
      *
+     * @param passwordEncoder the shared password encoder
      * @return a configured AuthenticationProvider instance
      */
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
-        provider.setPasswordEncoder(new BCryptPasswordEncoder(12));
+        provider.setPasswordEncoder(passwordEncoder);
         provider.setUserDetailsService(userDetailsService);
+        if (userDetailsService instanceof UserDetailsPasswordService) {
+            provider.setUserDetailsPasswordService((UserDetailsPasswordService) userDetailsService);
+        }
         return provider;
     }
 
@@ -92,4 +96,45 @@ public class SecurityConfig {
             throw e;
         }
     }
+
+    /**
+     * Servlet filter chain, used unless the application runs as a reactive web application.
+     */
+    @Configuration
+    @EnableWebSecurity
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class ServletSecurityConfig {
+
+        /**
+         * Configures the security filter chain, including authorization rules and JWT filter setup.
+         * Only the health endpoint is open; metrics and the Prometheus scrape endpoint expose per-store timings
+         * and JVM internals and require the ADMIN role, with a bearer token or HTTP basic credentials.
+         *
+         * @param http the HttpSecurity object to configure
+         * @param jwtFilter the filter authenticating bearer tokens
+         * @return a configured SecurityFilterChain instance
+         * @throws Exception if an error occurs during configuration
+         */
+        @Bean
+        public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtFilter jwtFilter) throws Exception {
+            try {
+                return http
+                        .csrf(AbstractHttpConfigurer::disable)
+                        .authorizeHttpRequests(request -> request
+                                .requestMatchers("api/auth/**").permitAll()
+                                .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                                .requestMatchers("/actuator/health").permitAll()
+                                .requestMatchers("/actuator/**").hasRole("ADMIN")
+                                .requestMatchers(HttpMethod.GET, "api/transactions/**", "api/records/**").hasAnyRole("ADMIN", "USER")
+                                .anyRequest().authenticated())
+                        .httpBasic(Customizer.withDefaults())
+                        .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                        .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+                        .build();
+            } catch (Exception e) {
+                logger.error("Error configuring security filter chain", e);
+                throw e;
+            }
+        }
+    }
 }
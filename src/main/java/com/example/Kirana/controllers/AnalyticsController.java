@@ -0,0 +1,90 @@
+package com.example.Kirana.controllers;
+
+import com.example.Kirana.dto.AnalyticsSummary;
+import com.example.Kirana.models.UserPrincipal;
+import com.example.Kirana.services.AnalyticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * REST controller for approximate analytics: ticket-size percentiles and distinct customers and stores.
+ * The store scope covers the authenticated user's store; the fleet scope covers all stores and is restricted to
+ * administrators.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsController.class);
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    /**
+     * Retrieves approximate analytics for a range of days.
+     *
+     * @param from The start of the range, as an ISO date-time; aligned down to a day.
+     * @param to The end of the range, as an ISO date-time; aligned up to a day.
+     * @param scope "store" (default) for the user's store, or "fleet" for all stores.
+     * @param user The authenticated user.
+     * @return A ResponseEntity containing the summary, a bad request for an invalid range or scope, or forbidden
+     *         if a non-administrator asks for the fleet scope.
+     */
+    @GetMapping
+    public ResponseEntity<?> getAnalytics(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                          @RequestParam(defaultValue = "store") String scope,
+                                          @AuthenticationPrincipal UserDetails user) {
+        try {
+            String storeId = storeIdForScope(scope, user);
+            if (storeId == null && !isAdmin(user)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Fleet analytics are restricted to administrators.");
+            }
+            AnalyticsSummary summary = analyticsService.summarize(storeId, from, to);
+            return ResponseEntity.ok(summary);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid analytics request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Resolves the store to summarize for a scope. Shared with {@link ReactiveAnalyticsController}.
+     *
+     * @param scope "store" or "fleet".
+     * @param user The authenticated user.
+     * @return The user's store for the store scope, or null for the fleet scope.
+     * @throws IllegalArgumentException if the scope is unknown.
+     */
+    static String storeIdForScope(String scope, UserDetails user) {
+        switch (scope) {
+            case "store":
+                return UserPrincipal.storeIdOf(user);
+            case "fleet":
+                return null;
+            default:
+                throw new IllegalArgumentException("Unsupported scope: " + scope + "; use 'store' or 'fleet'.");
+        }
+    }
+
+    /**
+     * Checks whether the user is an administrator. Shared with {@link ReactiveAnalyticsController}.
+     *
+     * @param user The authenticated user.
+     * @return true if the user has the ADMIN role.
+     */
+    static boolean isAdmin(UserDetails user) {
+        return user.getAuthorities().stream().anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.Kirana.controllers;
+
+import com.example.Kirana.services.AnalyticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reactive counterpart of {@link AnalyticsController}, active when the application runs on WebFlux.
+ * Sketches are read and merged with the blocking {@link AnalyticsService} on the bounded elastic scheduler.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/analytics")
+public class ReactiveAnalyticsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveAnalyticsController.class);
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    /**
+     * Retrieves approximate analytics for a range of days.
+     *
+     * @param from The start of the range, as an ISO date-time; aligned down to a day.
+     * @param to The end of the range, as an ISO date-time; aligned up to a day.
+     * @param scope "store" (default) for the user's store, or "fleet" for all stores.
+     * @param user The authenticated user.
+     * @return A Mono of the summary, 400 for an invalid range or scope, or 403 if a non-administrator asks for
+     *         the fleet scope.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<?>> getAnalytics(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                @RequestParam(defaultValue = "store") String scope,
+                                                @AuthenticationPrincipal UserDetails user) {
+        return Mono.<ResponseEntity<?>>fromCallable(() -> {
+                    String storeId = AnalyticsController.storeIdForScope(scope, user);
+                    if (storeId == null && !AnalyticsController.isAdmin(user)) {
+                        return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Fleet analytics are restricted to administrators.");
+                    }
+                    return ResponseEntity.ok(analyticsService.summarize(storeId, from, to));
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    logger.warn("Invalid analytics request: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().body(e.getMessage()));
+                });
+    }
+}
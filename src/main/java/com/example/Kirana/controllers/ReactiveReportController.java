@@ -0,0 +1,99 @@
+package com.example.Kirana.controllers;
+
+import com.example.Kirana.dto.BreakdownReport;
+import com.example.Kirana.dto.Report;
+import com.example.Kirana.models.ReportGranularity;
+import com.example.Kirana.models.UserPrincipal;
+import com.example.Kirana.services.ReportingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reactive counterpart of {@link ReportController}, active when the application runs on WebFlux.
+ * Reports are read from the rollups with the blocking {@link ReportingService} on the bounded elastic scheduler.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/reports")
+public class ReactiveReportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveReportController.class);
+
+    @Autowired
+    private ReportingService reportingService;
+
+    /**
+     * Retrieves a financial report for the specified period.
+     *
+     * @param period The period for which the report is to be generated (e.g., "weekly", "monthly", "yearly").
+     * @param user The authenticated user, whose store the report covers.
+     * @return A Mono of the generated Report, or 400 if the period is invalid.
+     */
+    @GetMapping("/{period}")
+    public Mono<ResponseEntity<Report>> getReport(@PathVariable String period, @AuthenticationPrincipal UserDetails user) {
+        String storeId = UserPrincipal.storeIdOf(user);
+        logger.info("Generating report for store {} and period: {}", storeId, period);
+        return Mono.fromCallable(() -> reportingService.generateReport(storeId, period))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok)
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    logger.error("Error generating report: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().body(null));
+                });
+    }
+
+    /**
+     * Retrieves a breakdown of the specified period per original currency and type, and per type.
+     *
+     * @param period The period for which the breakdown is to be generated (e.g., "weekly", "monthly", "yearly").
+     * @param user The authenticated user, whose store the breakdown covers.
+     * @return A Mono of the breakdown, or 400 if the period is invalid.
+     */
+    @GetMapping("/{period}/breakdown")
+    public Mono<ResponseEntity<BreakdownReport>> getBreakdown(@PathVariable String period, @AuthenticationPrincipal UserDetails user) {
+        String storeId = UserPrincipal.storeIdOf(user);
+        logger.info("Generating breakdown for store {} and period: {}", storeId, period);
+        return Mono.fromCallable(() -> reportingService.generateBreakdown(storeId, period))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok)
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    logger.error("Error generating breakdown: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().body(null));
+                });
+    }
+
+    /**
+     * Retrieves a time series of credits, debits and net flow for an arbitrary range, one bucket per period.
+     *
+     * @param from The start of the range, as an ISO date-time; aligned down to a bucket boundary.
+     * @param to The end of the range, as an ISO date-time; aligned up to a bucket boundary.
+     * @param granularity The bucket size: "hour", "day" (default), "week" or "month".
+     * @param user The authenticated user, whose store the series covers.
+     * @return A Mono of the series, or 400 for an invalid range or granularity.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<?>> getSeries(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                             @RequestParam(defaultValue = "day") String granularity,
+                                             @AuthenticationPrincipal UserDetails user) {
+        String storeId = UserPrincipal.storeIdOf(user);
+        return Mono.fromCallable(() -> reportingService.generateSeries(storeId, from, to, ReportGranularity.parse(granularity)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    logger.warn("Invalid report series request: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().body(e.getMessage()));
+                });
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.Kirana.controllers;
+
+import com.example.Kirana.CustomExceptions.ChangeFeedExpiredException;
+import com.example.Kirana.dto.TransactionChange;
+import com.example.Kirana.dto.TransactionChangeBatch;
+import com.example.Kirana.models.UserPrincipal;
+import com.example.Kirana.services.ReactiveTransactionChangeService;
+import com.example.Kirana.services.TransactionChangeFeed;
+import com.example.Kirana.services.TransactionChangeService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reactive counterpart of {@link TransactionChangeController}, active when the application runs on WebFlux.
+ * <p>
+ * Long polls read the blocking {@link TransactionChangeService} on the bounded elastic scheduler. Streams follow
+ * the non-blocking {@link ReactiveTransactionChangeService} and hold no thread while waiting. Both hold a MongoDB
+ * connection during each waiting fetch, so running long polls and open streams share
+ * {@code kirana.changes.max-streams} permits, and requests beyond that are answered with 503.
+ * </p>
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/transactions/changes")
+public class ReactiveTransactionChangeController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveTransactionChangeController.class);
+
+    private static final Duration BATCH_WINDOW = Duration.ofMillis(100);
+
+    @Autowired
+    private TransactionChangeService transactionChangeService;
+
+    @Autowired
+    private ReactiveTransactionChangeService reactiveTransactionChangeService;
+
+    @Value("${kirana.changes.default-batch-size:100}")
+    private int defaultBatchSize;
+
+    @Value("${kirana.changes.max-batch-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${kirana.changes.default-wait:PT20S}")
+    private Duration defaultWait;
+
+    @Value("${kirana.changes.max-wait:PT60S}")
+    private Duration maxWait;
+
+    @Value("${kirana.changes.heartbeat-interval:PT15S}")
+    private Duration heartbeatInterval;
+
+    @Value("${kirana.changes.stream-timeout:PT30M}")
+    private Duration streamTimeout;
+
+    @Value("${kirana.changes.max-streams:20}")
+    private int maxStreams;
+
+    private Semaphore feedPermits;
+
+    /**
+     * Creates the permits shared by running long polls and open streams.
+     */
+    @PostConstruct
+    public void initFeedPermits() {
+        feedPermits = new Semaphore(maxStreams);
+    }
+
+    /**
+     * Waits for the next batch of stored transactions of the user's store.
+     *
+     * @param after The resume token returned with the previous batch; omitted to start from now.
+     * @param limit The maximum number of changes, at most {@code kirana.changes.max-batch-size}.
+     * @param waitSeconds How long to wait for a first change, at most {@code kirana.changes.max-wait}.
+     * @param user The authenticated user, whose store is followed.
+     * @return A Mono of the batch, possibly empty, 400 for an invalid token or limit, 410 if the token is too
+     *         old to resume from, or 503 if too many feeds are open.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<?>> pollChanges(@RequestParam(required = false) String after,
+                                               @RequestParam(required = false) Integer limit,
+                                               @RequestParam(value = "wait", required = false) Integer waitSeconds,
+                                               @AuthenticationPrincipal UserDetails user) {
+        int batchSize = limit != null ? limit : defaultBatchSize;
+        if (batchSize < 1 || batchSize > maxBatchSize) {
+            return Mono.just(ResponseEntity.badRequest().body("limit must be between 1 and " + maxBatchSize + "."));
+        }
+        Duration requested = waitSeconds != null ? Duration.ofSeconds(Math.max(0, waitSeconds)) : defaultWait;
+        Duration wait = requested.compareTo(maxWait) > 0 ? maxWait : requested;
+        String storeId = UserPrincipal.storeIdOf(user);
+        Mono<ResponseEntity<?>> poll = Mono.<ResponseEntity<?>>fromCallable(() -> {
+                    try (TransactionChangeFeed feed = transactionChangeService.openFeed(storeId, after)) {
+                        return ResponseEntity.ok(feed.nextBatch(batchSize, wait));
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+        return Mono.using(feedPermits::tryAcquire,
+                        acquired -> acquired ? poll : Mono.just(tooManyFeeds(storeId)),
+                        acquired -> {
+                            if (acquired) {
+                                feedPermits.release();
+                            }
+                        })
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    logger.warn("Invalid change feed request: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().body(e.getMessage()));
+                })
+                .onErrorResume(ChangeFeedExpiredException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.GONE).body(e.getMessage())));
+    }
+
+    /**
+     * Streams batches of stored transactions of the user's store as Server-Sent Events: a "transactions" event
+     * per batch of changes that arrived together and a heartbeat every {@code kirana.changes.heartbeat-interval},
+     * each with the latest resume token as id. The stream ends after {@code kirana.changes.stream-timeout}.
+     * <p>
+     * The token is checked by opening and closing a blocking feed first, which takes one round trip, so an invalid
+     * or expired token is answered with 400 or 410 rather than with a stream that fails at once.
+     * </p>
+     *
+     * @param after The resume token to continue after; omitted to start from now.
+     * @param lastEventId The id of the last event received, sent by EventSource when it reconnects; takes
+     *                    precedence over {@code after}.
+     * @param user The authenticated user, whose store is followed.
+     * @return A Mono of the event stream, 400 for an invalid token, 410 if the token is too old to resume from,
+     *         or 503 if too many feeds are open.
+     */
+    @GetMapping("/stream")
+    public Mono<ResponseEntity<?>> streamChanges(@RequestParam(required = false) String after,
+                                                 @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                                 @AuthenticationPrincipal UserDetails user) {
+        String storeId = UserPrincipal.storeIdOf(user);
+        String resumeAfter = lastEventId != null ? lastEventId : after;
+        if (feedPermits.availablePermits() == 0) {
+            return Mono.just(tooManyFeeds(storeId));
+        }
+        return Mono.fromRunnable(() -> transactionChangeService.openFeed(storeId, resumeAfter).close())
+                .subscribeOn(Schedulers.boundedElastic())
+                .<ResponseEntity<?>>thenReturn(ResponseEntity.ok()
+                        .contentType(MediaType.TEXT_EVENT_STREAM)
+                        .body(events(storeId, resumeAfter)))
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    logger.warn("Invalid change stream request: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(e.getMessage()));
+                })
+                .onErrorResume(ChangeFeedExpiredException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.GONE).contentType(MediaType.TEXT_PLAIN).body(e.getMessage())));
+    }
+
+    /**
+     * Follows the store's changes until the client cancels or the stream times out, holding a feed permit
+     * while subscribed. If the last permit was taken since the request was admitted, the stream fails at once and
+     * the client reconnects. Changes arriving within {@link #BATCH_WINDOW} of each other are sent as one batch.
+     * Heartbeats are merged in before the events are built, so a heartbeat never carries the token of a batch that
+     * was not sent before it.
+     */
+    private Flux<ServerSentEvent<TransactionChangeBatch>> events(String storeId, String after) {
+        return Flux.using(feedPermits::tryAcquire,
+                acquired -> acquired
+                        ? followChanges(storeId, after)
+                        : Flux.error(new IllegalStateException("Too many open change feeds.")),
+                acquired -> {
+                    if (acquired) {
+                        feedPermits.release();
+                    }
+                });
+    }
+
+    /**
+     * Builds the events of one stream from the store's changes and the heartbeat ticks.
+     */
+    private Flux<ServerSentEvent<TransactionChangeBatch>> followChanges(String storeId, String after) {
+        AtomicReference<String> lastToken = new AtomicReference<>(after);
+        Flux<List<TransactionChange>> batches = reactiveTransactionChangeService.followChanges(storeId, after)
+                .bufferTimeout(maxBatchSize, BATCH_WINDOW);
+        Flux<List<TransactionChange>> heartbeats = Flux.interval(heartbeatInterval, heartbeatInterval)
+                .map(tick -> List.of());
+        return Flux.merge(batches, heartbeats)
+                .take(streamTimeout)
+                .map(changes -> {
+                    if (changes.isEmpty()) {
+                        return ServerSentEvent.<TransactionChangeBatch>builder().id(lastToken.get()).comment("heartbeat").build();
+                    }
+                    String token = changes.get(changes.size() - 1).getToken();
+                    lastToken.set(token);
+                    return ServerSentEvent.builder(new TransactionChangeBatch(changes, token)).id(token).event("transactions").build();
+                })
+                .doOnError(e -> logger.error("Change stream of store {} failed: {}", storeId, e.getMessage(), e));
+    }
+
+    private ResponseEntity<?> tooManyFeeds(String storeId) {
+        logger.warn("Rejected change feed of store {}: {} feeds open", storeId, maxStreams);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.TEXT_PLAIN)
+                .body("Too many open change feeds. Try again later.");
+    }
+}
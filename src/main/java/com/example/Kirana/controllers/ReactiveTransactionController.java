@@ -0,0 +1,261 @@
+package com.example.Kirana.controllers;
+
+import com.example.Kirana.CustomExceptions.TransactionConflictException;
+import com.example.Kirana.dto.BatchItemResult;
+import com.example.Kirana.dto.BatchTransactionResponse;
+import com.example.Kirana.models.Transaction;
+import com.example.Kirana.models.UserPrincipal;
+import com.example.Kirana.services.RateLimiter;
+import com.example.Kirana.services.ReactiveTransactionService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Reactive counterpart of {@link TransactionController}, active when the application runs on WebFlux
+ * (the "reactive" profile). It serves the same endpoints with the same request and response bodies.
+ * <p>
+ * Streamed NDJSON batches are consumed with backpressure: lines are decoded as they arrive, grouped into chunks of
+ * {@code kirana.transactions.batch.chunk-size}, and the next chunk is only requested from the connection once the
+ * previous one is stored. A slow database therefore slows the upload instead of filling the heap.
+ * </p>
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/transactions")
+public class ReactiveTransactionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveTransactionController.class);
+
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final String RATE_LIMIT_REJECTED_METRIC = "kirana.ratelimit.rejected";
+
+    @Autowired
+    private RateLimiter transactionRateLimiter;
+    @Autowired
+    private ReactiveTransactionService transactionService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${kirana.transactions.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${kirana.transactions.batch.chunk-size:500}")
+    private int ndjsonChunkSize;
+
+    /**
+     * Creates a new transaction with rate limiting and concurrency control.
+     *
+     * @param transaction The transaction details to be created.
+     * @param idempotencyKey Optional key identifying the submission; retries with the same key are stored once.
+     * @return A Mono of the created transaction, or 409 if another store uses its id, or an error message.
+     * @return A Mono of the created transaction or an error message.
+     */
+    @PostMapping
+    public Mono<ResponseEntity<?>> createTransaction(@RequestBody Transaction transaction,
+                                                     @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                     @AuthenticationPrincipal UserDetails user) {
+        return tryConsumeRateLimit(user).<ResponseEntity<?>>flatMap(allowed -> {
+            if (!allowed) {
+                logger.warn("Rate limit exceeded for transaction creation.");
+                return Mono.just(rateLimitExceeded());
+            }
+            if (idempotencyKey != null) {
+                transaction.setIdempotencyKey(idempotencyKey);
+            }
+            transaction.setStoreId(UserPrincipal.storeIdOf(user));
+            return transactionService.recordTransaction(transaction)
+                    .<ResponseEntity<?>>map(savedTransaction -> {
+                        logger.debug("Transaction {} recorded", savedTransaction.getId());
+                        return ResponseEntity.ok(savedTransaction);
+                    })
+                    .onErrorResume(TransactionConflictException.class,
+                            e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage())))
+                    .onErrorResume(e -> {
+                        logger.error("Error processing transaction: {}", e.getMessage());
+                        return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                                .body("An error occurred while processing the transaction."));
+                    });
+        });
+    }
+
+    /**
+     * Creates a batch of transactions submitted as a JSON array.
+     *
+     * @param transactions The transactions to be created, at most {@code kirana.transactions.batch.max-size}.
+     * @param user The authenticated user.
+     * @return A Mono of the per-item results or an error message.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<?>> createTransactions(@RequestBody Flux<Transaction> transactions,
+                                                      @AuthenticationPrincipal UserDetails user) {
+        return tryConsumeRateLimit(user).<ResponseEntity<?>>flatMap(allowed -> {
+            if (!allowed) {
+                logger.warn("Rate limit exceeded for batch transaction creation.");
+                return Mono.just(rateLimitExceeded());
+            }
+            // Read at most one item past the limit, so an oversized batch is rejected without decoding all of it
+            return transactions.take(maxBatchSize + 1L).collectList().<ResponseEntity<?>>flatMap(batch -> {
+                if (batch.size() > maxBatchSize) {
+                    return Mono.just(ResponseEntity.badRequest().body("Batch size exceeds the maximum of " + maxBatchSize + " transactions."));
+                }
+                String storeId = UserPrincipal.storeIdOf(user);
+                batch.forEach(transaction -> transaction.setStoreId(storeId));
+                return transactionService.recordTransactionBatch(batch)
+                        .<ResponseEntity<?>>map(results -> {
+                            BatchTransactionResponse response = BatchTransactionResponse.of(results);
+                            logger.info("Batch processed: {} accepted, {} rejected", response.getAccepted(), response.getRejected());
+                            return ResponseEntity.ok(response);
+                        });
+            }).onErrorResume(e -> {
+                logger.error("Error processing transaction batch: {}", e.getMessage());
+                return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body("An error occurred while processing the transaction batch."));
+            });
+        });
+    }
+
+    /**
+     * Creates transactions streamed as newline-delimited JSON, one transaction per line.
+     * Lines that cannot be parsed are reported as rejected items; blank lines are skipped without consuming an index.
+     *
+     * @param lines The lines of the request body, decoded as they arrive.
+     * @param user The authenticated user.
+     * @return A Mono of the per-item results or an error message.
+     */
+    @PostMapping(value = "/batch", consumes = APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<?>> createTransactionsFromNdjson(@RequestBody Flux<String> lines,
+                                                                @AuthenticationPrincipal UserDetails user) {
+        return tryConsumeRateLimit(user).<ResponseEntity<?>>flatMap(allowed -> {
+            if (!allowed) {
+                logger.warn("Rate limit exceeded for batch transaction creation.");
+                return Mono.just(rateLimitExceeded());
+            }
+            String storeId = UserPrincipal.storeIdOf(user);
+            return lines
+                    .filter(line -> !line.isBlank())
+                    .index((index, line) -> parseLine(index.intValue(), line, storeId))
+                    .buffer(ndjsonChunkSize)
+                    .concatMap(this::recordChunk, 1)
+                    .flatMapIterable(results -> results)
+                    .collectSortedList(Comparator.comparingInt(BatchItemResult::getIndex))
+                    .<ResponseEntity<?>>map(results -> {
+                        BatchTransactionResponse response = BatchTransactionResponse.of(results);
+                        logger.info("Streamed batch processed: {} accepted, {} rejected", response.getAccepted(), response.getRejected());
+                        return ResponseEntity.ok(response);
+                    })
+                    .onErrorResume(e -> {
+                        logger.error("Error processing transaction stream: {}", e.getMessage());
+                        return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                                .body("An error occurred while processing the transaction batch."));
+                    });
+        });
+    }
+
+    /**
+     * Parses one NDJSON line, keeping its stream position, and assigns the transaction to the caller's store.
+     *
+     * @param index The position of the line among the non-blank lines.
+     * @param line The line.
+     * @param storeId The store of the authenticated user.
+     * @return The parsed line, holding either the transaction or the parse error.
+     */
+    private ParsedLine parseLine(int index, String line, String storeId) {
+        try {
+            Transaction transaction = objectMapper.readValue(line, Transaction.class);
+            transaction.setStoreId(storeId);
+            return new ParsedLine(index, transaction, null);
+        } catch (JsonProcessingException e) {
+            return new ParsedLine(index, null, "Malformed transaction: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Stores one chunk of a streamed batch and maps the chunk-relative results back to stream positions.
+     *
+     * @param chunk The parsed lines of the chunk.
+     * @return A Mono of the results of the chunk, including its malformed lines.
+     */
+    private Mono<List<BatchItemResult>> recordChunk(List<ParsedLine> chunk) {
+        List<BatchItemResult> results = new ArrayList<>(chunk.size());
+        List<Transaction> transactions = new ArrayList<>(chunk.size());
+        List<Integer> indexes = new ArrayList<>(chunk.size());
+        for (ParsedLine line : chunk) {
+            if (line.transaction == null) {
+                results.add(new BatchItemResult(line.index, null, false, line.error));
+            } else {
+                transactions.add(line.transaction);
+                indexes.add(line.index);
+            }
+        }
+        if (transactions.isEmpty()) {
+            return Mono.just(results);
+        }
+        return transactionService.recordTransactionBatch(transactions).map(batchResults -> {
+            for (BatchItemResult result : batchResults) {
+                result.setIndex(indexes.get(result.getIndex()));
+                results.add(result);
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Takes one request from the calling user's rate limit allowance. The limiter may call Redis, so the check
+     * runs on the bounded elastic scheduler. Rejections are counted in {@code kirana.ratelimit.rejected}.
+     *
+     * @param user The authenticated user.
+     * @return A Mono of true if the request is within the allowance.
+     */
+    private Mono<Boolean> tryConsumeRateLimit(UserDetails user) {
+        String key = user != null ? user.getUsername() : "anonymous";
+        String role = user instanceof UserPrincipal ? ((UserPrincipal) user).getRole() : null;
+        return Mono.fromCallable(() -> transactionRateLimiter.tryConsume(key, role))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(allowed -> {
+                    if (!allowed) {
+                        meterRegistry.counter(RATE_LIMIT_REJECTED_METRIC, "role", role != null ? role : "none").increment();
+                    }
+                });
+    }
+
+    private ResponseEntity<?> rateLimitExceeded() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body("Rate limit exceeded. Please try again later.");
+    }
+
+    /**
+     * One line of a streamed batch: either the parsed transaction or the reason it could not be parsed.
+     */
+    private static final class ParsedLine {
+        private final int index;
+        private final Transaction transaction;
+        private final String error;
+
+        private ParsedLine(int index, Transaction transaction, String error) {
+            this.index = index;
+            this.transaction = transaction;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.Kirana.controllers;
+
+import com.example.Kirana.CustomExceptions.UserNotFoundException;
+import com.example.Kirana.dto.UserRoleRequest;
+import com.example.Kirana.dto.UserRoleResponse;
+import com.example.Kirana.dto.UserStoreRequest;
+import com.example.Kirana.dto.UserStoreResponse;
+import com.example.Kirana.models.Users;
+import com.example.Kirana.services.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive counterpart of {@link UserAdminController}, active when the application runs on WebFlux.
+ * {@link UserService} is called on the bounded elastic scheduler.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/admin/users")
+public class ReactiveUserAdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveUserAdminController.class);
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * Changes the role of a user.
+     *
+     * @param username The user whose role to change.
+     * @param request The new role.
+     * @param admin The authenticated administrator.
+     * @return A Mono of the user's new role, a bad request for an unknown role, or 404 if the user does not exist.
+     */
+    @PutMapping("/{username}/role")
+    public Mono<ResponseEntity<?>> updateUserRole(@PathVariable String username, @RequestBody UserRoleRequest request,
+                                                  @AuthenticationPrincipal UserDetails admin) {
+        return Mono.<ResponseEntity<?>>fromCallable(() -> {
+                    Users user = userService.updateUserRole(username, request.getRole());
+                    logger.info("Administrator {} set the role of {} to {}", admin.getUsername(), username, user.getRole());
+                    return ResponseEntity.ok(new UserRoleResponse(user.getUsername(), user.getRole()));
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(IllegalArgumentException.class,
+                        e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())))
+                .onErrorResume(UserNotFoundException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage())));
+    }
+
+    /**
+     * Moves a user to another store.
+     *
+     * @param username The user to move.
+     * @param request The new store.
+     * @param admin The authenticated administrator.
+     * @return A Mono of the user's new store, a bad request for a blank store id, or 404 if the user does not exist.
+     */
+    @PutMapping("/{username}/store")
+    public Mono<ResponseEntity<?>> updateUserStore(@PathVariable String username, @RequestBody UserStoreRequest request,
+                                                   @AuthenticationPrincipal UserDetails admin) {
+        return Mono.<ResponseEntity<?>>fromCallable(() -> {
+                    Users user = userService.updateUserStore(username, request.getStoreId());
+                    logger.info("Administrator {} moved {} to store {}", admin.getUsername(), username, user.getStoreId());
+                    return ResponseEntity.ok(new UserStoreResponse(user.getUsername(), user.getStoreId()));
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(IllegalArgumentException.class,
+                        e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())))
+                .onErrorResume(UserNotFoundException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage())));
+    }
+}
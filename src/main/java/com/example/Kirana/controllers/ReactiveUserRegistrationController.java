@@ -0,0 +1,106 @@
+package com.example.Kirana.controllers;
+
+import com.example.Kirana.CustomExceptions.PasswordHashingRejectedException;
+import com.example.Kirana.dto.AuthenticationRequest;
+import com.example.Kirana.dto.AuthenticationResponse;
+import com.example.Kirana.dto.UserRegistrationRequest;
+import com.example.Kirana.dto.UserRegistrationResponse;
+import com.example.Kirana.services.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive counterpart of {@link UserRegistrationController}, active when the application runs on WebFlux.
+ * Registration and login wait for BCrypt and MongoDB, so {@link UserService} is called on the bounded elastic
+ * scheduler and never on the event loop.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/auth")
+public class ReactiveUserRegistrationController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveUserRegistrationController.class);
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * Registers a new user.
+     *
+     * @param request The user registration details.
+     * @return A Mono of the registration response with the username, 409 if the username is taken,
+     *         or 503 if too many passwords are already waiting to be hashed.
+     */
+    @PostMapping("/register")
+    public Mono<ResponseEntity<UserRegistrationResponse>> registerUser(@RequestBody UserRegistrationRequest request) {
+        return Mono.fromCallable(() -> userService.registerUser(request))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(newUser -> {
+                    UserRegistrationResponse response = new UserRegistrationResponse();
+                    response.setUsername(newUser.getUsername());
+                    logger.info("User registered successfully: {}", newUser.getUsername());
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(PasswordHashingRejectedException.class, e -> {
+                    logger.warn("Registration rejected, password hashing saturated: {}", request.getUsername());
+                    return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                            .body(new UserRegistrationResponse("Server is busy. Please retry shortly.")));
+                })
+                .onErrorResume(DuplicateKeyException.class, e -> {
+                    logger.warn("Registration rejected, username taken: {}", request.getUsername());
+                    return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT)
+                            .body(new UserRegistrationResponse("Username is already taken.")));
+                })
+                .onErrorResume(e -> {
+                    logger.error("Error registering user: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(new UserRegistrationResponse("An error occurred while registering the user.")));
+                });
+    }
+
+    /**
+     * Authenticates a user and generates an authentication token.
+     *
+     * @param request The authentication request containing username and password.
+     * @return A Mono of the authentication response with the token,
+     *         or 503 if too many passwords are already waiting to be hashed.
+     */
+    @PostMapping("/login")
+    public Mono<ResponseEntity<AuthenticationResponse>> authenticateUser(@RequestBody AuthenticationRequest request) {
+        return Mono.fromCallable(() -> userService.authenticateUser(request))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(response -> {
+                    if (response.getToken() == null) {
+                        logger.warn("Authentication failed for user: {}", request.getUsername());
+                        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                .body(new AuthenticationResponse(null, null, "Invalid credentials"));
+                    }
+                    logger.info("User authenticated successfully: {}", request.getUsername());
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(PasswordHashingRejectedException.class, e -> {
+                    logger.warn("Login rejected, password hashing saturated: {}", request.getUsername());
+                    return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                            .body(new AuthenticationResponse(null, null, "Server is busy. Please retry shortly.")));
+                })
+                .onErrorResume(AuthenticationException.class, e -> {
+                    logger.error("Error authenticating user: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                            .body(new AuthenticationResponse(null, null, "Authentication failed")));
+                });
+    }
+}
@@ -1,20 +1,31 @@
 package com.example.Kirana.controllers;
 
+import com.example.Kirana.dto.BreakdownReport;
 import com.example.Kirana.dto.Report;
+import com.example.Kirana.dto.ReportSeries;
+import com.example.Kirana.models.ReportGranularity;
+import com.example.Kirana.models.UserPrincipal;
 import com.example.Kirana.services.ReportingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import javax.servlet.http.HttpServletRequest;
+import java.time.LocalDateTime;
 
 /**
  * REST controller for handling report-related operations.
  * Provides endpoints to generate and retrieve financial reports based on specified periods.
+ * Reports cover the transactions of the authenticated user's store only.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/reports")
 public class ReportController {
 
@@ -27,18 +38,63 @@ public class ReportController {
      * Retrieves a financial report for the specified period.
      *
      * @param period The period for which the report is to be generated (e.g., "weekly", "monthly", "yearly").
+     * @param user The authenticated user, whose store the report covers.
      * @return A ResponseEntity containing the generated Report.
      * @throws IllegalArgumentException if the provided period is invalid.
      */
     @GetMapping("/{period}")
-    public ResponseEntity<Report> getReport(@PathVariable String period) {
+    public ResponseEntity<Report> getReport(@PathVariable String period, @AuthenticationPrincipal UserDetails user) {
         try {
-            logger.info("Generating report for period: {}", period);
-            Report report = reportingService.generateReport(period);
+            String storeId = UserPrincipal.storeIdOf(user);
+            logger.info("Generating report for store {} and period: {}", storeId, period);
+            Report report = reportingService.generateReport(storeId, period);
             return ResponseEntity.ok(report);
         } catch (IllegalArgumentException e) {
             logger.error("Error generating report: {}", e.getMessage());
             return ResponseEntity.badRequest().body(null); // Return a bad request response with no body
         }
     }
+
+    /**
+     * Retrieves a breakdown of the specified period per original currency and type, and per type.
+     *
+     * @param period The period for which the breakdown is to be generated (e.g., "weekly", "monthly", "yearly").
+     * @param user The authenticated user, whose store the breakdown covers.
+     * @return A ResponseEntity containing the breakdown, or a bad request if the period is invalid.
+     */
+    @GetMapping("/{period}/breakdown")
+    public ResponseEntity<BreakdownReport> getBreakdown(@PathVariable String period, @AuthenticationPrincipal UserDetails user) {
+        try {
+            String storeId = UserPrincipal.storeIdOf(user);
+            logger.info("Generating breakdown for store {} and period: {}", storeId, period);
+            return ResponseEntity.ok(reportingService.generateBreakdown(storeId, period));
+        } catch (IllegalArgumentException e) {
+            logger.error("Error generating breakdown: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    /**
+     * Retrieves a time series of credits, debits and net flow for an arbitrary range, one bucket per period.
+     *
+     * @param from The start of the range, as an ISO date-time; aligned down to a bucket boundary.
+     * @param to The end of the range, as an ISO date-time; aligned up to a bucket boundary.
+     * @param granularity The bucket size: "hour", "day" (default), "week" or "month".
+     * @param user The authenticated user, whose store the series covers.
+     * @return A ResponseEntity containing the series, or a bad request for an invalid range or granularity.
+     */
+    @GetMapping
+    public ResponseEntity<?> getSeries(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                       @RequestParam(defaultValue = "day") String granularity,
+                                       @AuthenticationPrincipal UserDetails user) {
+        try {
+            String storeId = UserPrincipal.storeIdOf(user);
+            ReportSeries series = reportingService.generateSeries(storeId, from, to, ReportGranularity.parse(granularity));
+            return ResponseEntity.ok(series);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid report series request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,235 @@
+package com.example.Kirana.controllers;
+
+import com.example.Kirana.CustomExceptions.ChangeFeedExpiredException;
+import com.example.Kirana.dto.TransactionChangeBatch;
+import com.example.Kirana.models.UserPrincipal;
+import com.example.Kirana.services.TransactionChangeFeed;
+import com.example.Kirana.services.TransactionChangeService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * REST controller for the change feed of the authenticated user's store, for downstream consumers such as
+ * finance systems that would otherwise poll with range scans.
+ * <p>
+ * {@code GET /api/transactions/changes} long-polls: it waits for changes after the given token and returns them
+ * as one batch with the token to continue from. {@code GET /api/transactions/changes/stream} keeps the feed open
+ * as Server-Sent Events, one event per batch with the resume token as event id, so an EventSource reconnects
+ * with {@code Last-Event-ID} exactly where it left off. Streams block a thread of a dedicated pool while waiting.
+ * </p>
+ * <p>
+ * Every waiting fetch of a feed holds a pooled MongoDB connection for up to {@code kirana.changes.poll-interval},
+ * and a long poll also holds a Tomcat thread for up to {@code kirana.changes.max-wait}. Open streams and running
+ * long polls therefore share {@code kirana.changes.max-streams} permits, kept well below the MongoDB connection
+ * pool size, and requests beyond that are answered with 503.
+ * </p>
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/transactions/changes")
+public class TransactionChangeController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionChangeController.class);
+
+    @Autowired
+    private TransactionChangeService transactionChangeService;
+
+    @Value("${kirana.changes.default-batch-size:100}")
+    private int defaultBatchSize;
+
+    @Value("${kirana.changes.max-batch-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${kirana.changes.default-wait:PT20S}")
+    private Duration defaultWait;
+
+    @Value("${kirana.changes.max-wait:PT60S}")
+    private Duration maxWait;
+
+    @Value("${kirana.changes.heartbeat-interval:PT15S}")
+    private Duration heartbeatInterval;
+
+    @Value("${kirana.changes.stream-timeout:PT30M}")
+    private Duration streamTimeout;
+
+    @Value("${kirana.changes.max-streams:20}")
+    private int maxStreams;
+
+    private Semaphore feedPermits;
+
+    private ThreadPoolExecutor streamExecutor;
+
+    /**
+     * Creates the feed permits and the pool that runs the open streams.
+     */
+    @PostConstruct
+    public void initExecutor() {
+        feedPermits = new Semaphore(maxStreams);
+        AtomicInteger threadNumber = new AtomicInteger();
+        streamExecutor = new ThreadPoolExecutor(maxStreams, maxStreams, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "change-stream-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        streamExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Stops the open streams on shutdown.
+     */
+    @PreDestroy
+    public void shutdownExecutor() {
+        streamExecutor.shutdownNow();
+    }
+
+    /**
+     * Waits for the next batch of stored transactions of the user's store.
+     *
+     * @param after The resume token returned with the previous batch; omitted to start from now.
+     * @param limit The maximum number of changes, at most {@code kirana.changes.max-batch-size}.
+     * @param waitSeconds How long to wait for a first change, at most {@code kirana.changes.max-wait}.
+     * @param user The authenticated user, whose store is followed.
+     * @return A ResponseEntity containing the batch, possibly empty, a bad request for an invalid token or limit,
+     *         410 if the token is too old to resume from, or 503 if too many feeds are open.
+     */
+    @GetMapping
+    public ResponseEntity<?> pollChanges(@RequestParam(required = false) String after,
+                                         @RequestParam(required = false) Integer limit,
+                                         @RequestParam(value = "wait", required = false) Integer waitSeconds,
+                                         @AuthenticationPrincipal UserDetails user) {
+        int batchSize = limit != null ? limit : defaultBatchSize;
+        if (batchSize < 1 || batchSize > maxBatchSize) {
+            return ResponseEntity.badRequest().body("limit must be between 1 and " + maxBatchSize + ".");
+        }
+        Duration wait = waitSeconds != null ? Duration.ofSeconds(Math.max(0, waitSeconds)) : defaultWait;
+        if (wait.compareTo(maxWait) > 0) {
+            wait = maxWait;
+        }
+        String storeId = UserPrincipal.storeIdOf(user);
+        if (!feedPermits.tryAcquire()) {
+            return tooManyFeeds(storeId);
+        }
+        try (TransactionChangeFeed feed = transactionChangeService.openFeed(storeId, after)) {
+            return ResponseEntity.ok(feed.nextBatch(batchSize, wait));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid change feed request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (ChangeFeedExpiredException e) {
+            return ResponseEntity.status(HttpStatus.GONE).body(e.getMessage());
+        } finally {
+            feedPermits.release();
+        }
+    }
+
+    /**
+     * Streams batches of stored transactions of the user's store as Server-Sent Events.
+     * <p>
+     * Each non-empty batch is sent as a "transactions" event whose data is the batch and whose id is its resume
+     * token. While the store is idle an id-only heartbeat is sent every {@code kirana.changes.heartbeat-interval},
+     * which keeps proxies from closing the connection and moves the client's {@code Last-Event-ID} forward.
+     * </p>
+     *
+     * @param after The resume token to continue after; omitted to start from now.
+     * @param lastEventId The id of the last event received, sent by EventSource when it reconnects; takes
+     *                    precedence over {@code after}.
+     * @param user The authenticated user, whose store is followed.
+     * @return The event stream, a bad request for an invalid token, 410 if the token is too old to resume from,
+     *         or 503 if too many feeds are open.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<?> streamChanges(@RequestParam(required = false) String after,
+                                           @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                           @AuthenticationPrincipal UserDetails user) {
+        String storeId = UserPrincipal.storeIdOf(user);
+        if (!feedPermits.tryAcquire()) {
+            return tooManyFeeds(storeId);
+        }
+        TransactionChangeFeed feed;
+        try {
+            feed = transactionChangeService.openFeed(storeId, lastEventId != null ? lastEventId : after);
+        } catch (IllegalArgumentException e) {
+            feedPermits.release();
+            logger.warn("Invalid change stream request: {}", e.getMessage());
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+        } catch (ChangeFeedExpiredException e) {
+            feedPermits.release();
+            return ResponseEntity.status(HttpStatus.GONE).contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+        } catch (RuntimeException e) {
+            feedPermits.release();
+            throw e;
+        }
+
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        AtomicBoolean open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onTimeout(() -> open.set(false));
+        emitter.onError(e -> open.set(false));
+        try {
+            streamExecutor.execute(() -> pump(storeId, feed, emitter, open));
+        } catch (RejectedExecutionException e) {
+            feed.close();
+            feedPermits.release();
+            return tooManyFeeds(storeId);
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Sends batches from the feed to the emitter until the client disconnects or the stream times out, then
+     * returns the stream's feed permit.
+     */
+    private void pump(String storeId, TransactionChangeFeed feed, SseEmitter emitter, AtomicBoolean open) {
+        try (feed) {
+            while (open.get() && !Thread.currentThread().isInterrupted()) {
+                TransactionChangeBatch batch = feed.nextBatch(maxBatchSize, heartbeatInterval);
+                SseEmitter.SseEventBuilder event = SseEmitter.event();
+                if (batch.getResumeToken() != null) {
+                    event.id(batch.getResumeToken());
+                }
+                if (batch.getChanges().isEmpty()) {
+                    emitter.send(event.comment("heartbeat"));
+                } else {
+                    emitter.send(event.name("transactions").data(batch, MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Change stream of store {} closed: {}", storeId, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Change stream of store {} failed: {}", storeId, e.getMessage(), e);
+            emitter.completeWithError(e);
+        } finally {
+            feedPermits.release();
+        }
+    }
+
+    private ResponseEntity<?> tooManyFeeds(String storeId) {
+        logger.warn("Rejected change feed of store {}: {} feeds open", storeId, maxStreams);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.TEXT_PLAIN)
+                .body("Too many open change feeds. Try again later.");
+    }
+}
@@ -1,52 +1,380 @@
 package com.example.Kirana.controllers;
 
+import com.example.Kirana.CustomExceptions.TransactionConflictException;
+import com.example.Kirana.dto.BatchItemResult;
+import com.example.Kirana.dto.BatchTransactionResponse;
+import com.example.Kirana.dto.TransactionPage;
 import com.example.Kirana.models.Transaction;
+import com.example.Kirana.models.UserPrincipal;
+import com.example.Kirana.services.RateLimiter;
+import com.example.Kirana.services.TransactionExportService;
+import com.example.Kirana.services.TransactionQueryService;
 import com.example.Kirana.services.TransactionService;
-import io.github.bucket4j.Bucket;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST controller for handling transaction-related operations.
  * Provides endpoints to create transactions with rate limiting and concurrency control.
+ * Requests are rate limited per authenticated user, with the allowance chosen by the user's role.
+ * Transactions are recorded for, and read from, the store of the authenticated user only.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/transactions")
 public class TransactionController {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionController.class);
 
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final String RATE_LIMIT_REJECTED_METRIC = "kirana.ratelimit.rejected";
+
     @Autowired
-    private Bucket transactionBucket;
+    private RateLimiter transactionRateLimiter;
     @Autowired
     private TransactionService transactionService;
+    @Autowired
+    private TransactionExportService transactionExportService;
+    @Autowired
+    private TransactionQueryService transactionQueryService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${kirana.transactions.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${kirana.transactions.batch.chunk-size:500}")
+    private int ndjsonChunkSize;
+
+    @Value("${kirana.transactions.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${kirana.transactions.page.max-size:500}")
+    private int maxPageSize;
+
+    /**
+     * Lists the store's transactions newest first, optionally filtered by type and currency.
+     * <p>
+     * Pagination is keyset-based: each page carries a {@code nextCursor} to pass back as {@code after}, and the
+     * next page seeks past it on an index instead of skipping over the earlier pages.
+     * </p>
+     *
+     * @param type Optional type filter, "credit" or "debit".
+     * @param currency Optional currency filter, e.g. "USD".
+     * @param after The cursor of the previous page; omitted for the first page.
+     * @param limit The page size, at most {@code kirana.transactions.page.max-size}.
+     * @return A ResponseEntity containing the page, or a bad request for an invalid cursor or page size.
+     */
+    @GetMapping
+    public ResponseEntity<?> listTransactions(@RequestParam(required = false) String type,
+                                              @RequestParam(required = false) String currency,
+                                              @RequestParam(required = false) String after,
+                                              @RequestParam(required = false) Integer limit) {
+        int pageSize = limit != null ? limit : defaultPageSize;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            return ResponseEntity.badRequest().body("'limit' must be between 1 and " + maxPageSize + ".");
+        }
+        try {
+            TransactionPage page = transactionQueryService.listTransactions(currentStoreId(), type, currency, after, pageSize);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 
     /**
      * Creates a new transaction with rate limiting and concurrency control.
      *
      * @param transaction The transaction details to be created.
-     * @return A ResponseEntity containing the created transaction or an error message.
+     * @param idempotencyKey Optional key identifying the submission; retries with the same key are stored once.
+     * @return A ResponseEntity containing the created transaction, or 409 if another store uses its id, or an error message.
      */
     @PostMapping
-    public ResponseEntity<?> createTransaction(@RequestBody Transaction transaction) {
-        if (transactionBucket.tryConsume(1)) {
+    public ResponseEntity<?> createTransaction(@RequestBody Transaction transaction,
+                                               @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (tryConsumeRateLimit()) {
             try {
-                logger.info("Processing transaction: {}", transaction);
+                if (idempotencyKey != null) {
+                    transaction.setIdempotencyKey(idempotencyKey);
+                }
+                transaction.setStoreId(currentStoreId());
                 Transaction savedTransaction = transactionService.recordTransactionWithConcurrencyControl(transaction);
-                logger.info("Transaction successfully processed: {}", savedTransaction);
+                logger.debug("Transaction {} recorded", savedTransaction.getId());
                 return ResponseEntity.ok(savedTransaction);
+            } catch (TransactionConflictException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
             } catch (Exception e) {
                 logger.error("Error processing transaction: {}", e.getMessage());
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An error occurred while processing the transaction.");
             }
         } else {
             logger.warn("Rate limit exceeded for transaction creation.");
-            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
-                    .body("Rate limit exceeded. You can only request 10 times in an hour. Please try again later.");
+            return rateLimitExceeded();
+        }
+    }
+
+    /**
+     * Creates a batch of transactions submitted as a JSON array.
+     * <p>
+     * The whole batch counts as one request against the rate limit and is converted against a single rate
+     * snapshot. Each item gets its own result, so one bad item does not reject the rest of the batch.
+     * </p>
+     *
+     * @param transactions The transactions to be created, at most {@code kirana.transactions.batch.max-size}.
+     * @return A ResponseEntity containing per-item results or an error message.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> createTransactions(@RequestBody List<Transaction> transactions) {
+        if (!tryConsumeRateLimit()) {
+            logger.warn("Rate limit exceeded for batch transaction creation.");
+            return rateLimitExceeded();
+        }
+        if (transactions.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().body("Batch size exceeds the maximum of " + maxBatchSize + " transactions.");
         }
+        try {
+            String storeId = currentStoreId();
+            transactions.forEach(transaction -> transaction.setStoreId(storeId));
+            BatchTransactionResponse response = BatchTransactionResponse.of(transactionService.recordTransactionBatch(transactions));
+            logger.info("Batch processed: {} accepted, {} rejected", response.getAccepted(), response.getRejected());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error processing transaction batch: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An error occurred while processing the transaction batch.");
+        }
+    }
+
+    /**
+     * Creates transactions streamed as newline-delimited JSON, one transaction per line.
+     * <p>
+     * The body is read incrementally and stored in chunks of {@code kirana.transactions.batch.chunk-size}, so
+     * an end-of-shift upload of any length is never held in memory at once. Lines that cannot be parsed are
+     * reported as rejected items; blank lines are skipped without consuming an index.
+     * </p>
+     *
+     * @param body The request body stream.
+     * @return A ResponseEntity containing per-item results or an error message.
+     */
+    @PostMapping(value = "/batch", consumes = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<?> createTransactionsFromNdjson(InputStream body) {
+        if (!tryConsumeRateLimit()) {
+            logger.warn("Rate limit exceeded for batch transaction creation.");
+            return rateLimitExceeded();
+        }
+        String storeId = currentStoreId();
+        List<BatchItemResult> results = new ArrayList<>();
+        List<Transaction> chunk = new ArrayList<>(ndjsonChunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(ndjsonChunkSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            int index = 0;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    Transaction transaction = objectMapper.readValue(line, Transaction.class);
+                    transaction.setStoreId(storeId);
+                    chunk.add(transaction);
+                    chunkIndexes.add(index);
+                } catch (JsonProcessingException e) {
+                    results.add(new BatchItemResult(index, null, false, "Malformed transaction: " + e.getOriginalMessage()));
+                }
+                index++;
+                if (chunk.size() == ndjsonChunkSize) {
+                    recordChunk(chunk, chunkIndexes, results);
+                }
+            }
+            recordChunk(chunk, chunkIndexes, results);
+        } catch (IOException e) {
+            logger.error("Error reading transaction stream: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Error reading transaction stream.");
+        } catch (Exception e) {
+            logger.error("Error processing transaction stream: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An error occurred while processing the transaction batch.");
+        }
+
+        results.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        BatchTransactionResponse response = BatchTransactionResponse.of(results);
+        logger.info("Streamed batch processed: {} accepted, {} rejected", response.getAccepted(), response.getRejected());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Exports the store's transactions in the half-open range [from, to) as CSV or newline-delimited JSON.
+     * <p>
+     * The response is streamed from a MongoDB cursor while it is written, so memory use is constant whatever the
+     * size of the range. If the client accepts gzip with a non-zero qvalue, the output is compressed on the fly
+     * and sent with {@code Content-Encoding: gzip}.
+     * </p>
+     *
+     * @param from The inclusive start of the range, as an ISO date-time, e.g. 2024-04-01T00:00:00.
+     * @param to The exclusive end of the range, as an ISO date-time.
+     * @param format The output format, "csv" (default) or "ndjson".
+     * @param acceptEncoding The Accept-Encoding header of the request.
+     * @return A ResponseEntity streaming the export, or a bad request for an invalid range or format.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<?> exportTransactions(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                @RequestParam(defaultValue = "csv") String format,
+                                                @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (!"csv".equals(format) && !"ndjson".equals(format)) {
+            return ResponseEntity.badRequest().body("Unsupported format: " + format + ". Use csv or ndjson.");
+        }
+        if (!from.isBefore(to)) {
+            return ResponseEntity.badRequest().body("'from' must be before 'to'.");
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String storeId = currentStoreId();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType("csv".equals(format)
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename("transactions-" + from.toLocalDate() + "-" + to.toLocalDate() + "." + format)
+                .build());
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            headers.add(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024)) {
+                    transactionExportService.exportTransactions(storeId, from, to, format, gzipOut);
+                }
+            } else {
+                transactionExportService.exportTransactions(storeId, from, to, format, out);
+            }
+        };
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Tells whether an Accept-Encoding header allows gzip. An explicit {@code gzip} or {@code x-gzip} entry
+     * decides by its qvalue, where {@code q=0} means not acceptable; otherwise a {@code *} entry does.
+     *
+     * @param acceptEncoding The Accept-Encoding header of the request, or null.
+     * @return true if the response may be gzip-encoded.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.length() > 2 && (param.startsWith("q=") || param.startsWith("Q="))) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+            } else if (coding.equals("*")) {
+                anyQuality = quality;
+            }
+        }
+        Double quality = gzipQuality != null ? gzipQuality : anyQuality;
+        return quality != null && quality > 0;
+    }
+
+    /**
+     * Stores one chunk of a streamed batch and maps the chunk-relative results back to stream positions.
+     *
+     * @param chunk The parsed transactions of the chunk; cleared afterwards.
+     * @param chunkIndexes The stream position of each transaction in the chunk; cleared afterwards.
+     * @param results The results collected so far.
+     */
+    private void recordChunk(List<Transaction> chunk, List<Integer> chunkIndexes, List<BatchItemResult> results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        for (BatchItemResult result : transactionService.recordTransactionBatch(chunk)) {
+            result.setIndex(chunkIndexes.get(result.getIndex()));
+            results.add(result);
+        }
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+
+    /**
+     * Takes one request from the calling user's rate limit allowance.
+     * Rejections are counted in {@code kirana.ratelimit.rejected}, tagged with the caller's role.
+     *
+     * @return true if the request is within the allowance.
+     */
+    private boolean tryConsumeRateLimit() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String key = "anonymous";
+        String role = null;
+        if (authentication != null) {
+            key = authentication.getName();
+            role = authentication.getPrincipal() instanceof UserPrincipal
+                    ? ((UserPrincipal) authentication.getPrincipal()).getRole()
+                    : null;
+        }
+        if (transactionRateLimiter.tryConsume(key, role)) {
+            return true;
+        }
+        meterRegistry.counter(RATE_LIMIT_REJECTED_METRIC, "role", role != null ? role : "none").increment();
+        return false;
+    }
+
+    /**
+     * Returns the store of the authenticated user, which every transaction written or read here belongs to.
+     *
+     * @return the store id of the calling user.
+     */
+    private String currentStoreId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication.getPrincipal() instanceof UserDetails
+                ? UserPrincipal.storeIdOf((UserDetails) authentication.getPrincipal())
+                : authentication.getName();
+    }
+
+    private ResponseEntity<?> rateLimitExceeded() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body("Rate limit exceeded. Please try again later.");
     }
 }
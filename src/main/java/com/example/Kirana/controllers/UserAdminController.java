@@ -0,0 +1,81 @@
+package com.example.Kirana.controllers;
+
+import com.example.Kirana.CustomExceptions.UserNotFoundException;
+import com.example.Kirana.dto.UserRoleRequest;
+import com.example.Kirana.dto.UserRoleResponse;
+import com.example.Kirana.dto.UserStoreRequest;
+import com.example.Kirana.dto.UserStoreResponse;
+import com.example.Kirana.models.Users;
+import com.example.Kirana.services.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for user administration. Every endpoint under {@code /api/admin} requires the ADMIN role, so
+ * this is the only way to grant roles other than the "ROLE_USER" every user registers with, and to move staff
+ * into an existing store.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/admin/users")
+public class UserAdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserAdminController.class);
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * Changes the role of a user.
+     *
+     * @param username The user whose role to change.
+     * @param request The new role.
+     * @param admin The authenticated administrator.
+     * @return A ResponseEntity containing the user's new role, a bad request for an unknown role, or 404 if the
+     *         user does not exist.
+     */
+    @PutMapping("/{username}/role")
+    public ResponseEntity<?> updateUserRole(@PathVariable String username, @RequestBody UserRoleRequest request,
+                                            @AuthenticationPrincipal UserDetails admin) {
+        try {
+            Users user = userService.updateUserRole(username, request.getRole());
+            logger.info("Administrator {} set the role of {} to {}", admin.getUsername(), username, user.getRole());
+            return ResponseEntity.ok(new UserRoleResponse(user.getUsername(), user.getRole()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (UserNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Moves a user to another store. Transactions the user records from then on belong to the new store; those
+     * recorded before stay with the old one.
+     *
+     * @param username The user to move.
+     * @param request The new store.
+     * @param admin The authenticated administrator.
+     * @return A ResponseEntity containing the user's new store, a bad request for a blank store id, or 404 if the
+     *         user does not exist.
+     */
+    @PutMapping("/{username}/store")
+    public ResponseEntity<?> updateUserStore(@PathVariable String username, @RequestBody UserStoreRequest request,
+                                             @AuthenticationPrincipal UserDetails admin) {
+        try {
+            Users user = userService.updateUserStore(username, request.getStoreId());
+            logger.info("Administrator {} moved {} to store {}", admin.getUsername(), username, user.getStoreId());
+            return ResponseEntity.ok(new UserStoreResponse(user.getUsername(), user.getStoreId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (UserNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.Kirana.controllers;
 
+import com.example.Kirana.CustomExceptions.PasswordHashingRejectedException;
 import com.example.Kirana.dto.AuthenticationRequest;
 import com.example.Kirana.dto.AuthenticationResponse;
 import com.example.Kirana.dto.UserRegistrationRequest;
@@ -9,6 +10,9 @@ import com.example.Kirana.services.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.AuthenticationException;
@@ -19,11 +23,14 @@ import org.springframework.web.bind.annotation.*;
  * Provides endpoints for user registration and login operations.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/auth")
 public class UserRegistrationController {
 
     private static final Logger logger = LoggerFactory.getLogger(UserRegistrationController.class);
 
+    private static final String RETRY_AFTER_SECONDS = "1";
+
     @Autowired
     private UserService userService;
 
@@ -31,7 +38,8 @@ public class UserRegistrationController {
      * Registers a new user.
      *
      * @param request The user registration details.
-     * @return A ResponseEntity containing the registration response with the username.
+     * @return A ResponseEntity containing the registration response with the username, 409 if the username is
+     *         taken, or 503 if too many passwords are already waiting to be hashed.
      */
     @PostMapping("/register")
     public ResponseEntity<UserRegistrationResponse> registerUser(@RequestBody UserRegistrationRequest request) {
@@ -41,6 +49,15 @@ public class UserRegistrationController {
             response.setUsername(newUser.getUsername());
             logger.info("User registered successfully: {}", newUser.getUsername());
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingRejectedException e) {
+            logger.warn("Registration rejected, password hashing saturated: {}", request.getUsername());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .body(new UserRegistrationResponse("Server is busy. Please retry shortly."));
+        } catch (DuplicateKeyException e) {
+            logger.warn("Registration rejected, username taken: {}", request.getUsername());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new UserRegistrationResponse("Username is already taken."));
         } catch (Exception e) {
             logger.error("Error registering user: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -52,7 +69,8 @@ public class UserRegistrationController {
      * Authenticates a user and generates an authentication token.
      *
      * @param request The authentication request containing username and password.
-     * @return A ResponseEntity containing the authentication response with the token.
+     * @return A ResponseEntity containing the authentication response with the token,
+     *         or 503 if too many passwords are already waiting to be hashed.
      */
     @PostMapping("/login")
     public ResponseEntity<AuthenticationResponse> authenticateUser(@RequestBody AuthenticationRequest request) {
@@ -65,6 +83,11 @@ public class UserRegistrationController {
             }
             logger.info("User authenticated successfully: {}", request.getUsername());
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingRejectedException e) {
+            logger.warn("Login rejected, password hashing saturated: {}", request.getUsername());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .body(new AuthenticationResponse(null, null, "Server is busy. Please retry shortly."));
         } catch (AuthenticationException e) {
             logger.error("Error authenticating user: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -0,0 +1,67 @@
+package com.example.Kirana.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object (DTO) for approximate analytics over a range of days.
+ * Percentiles are estimated from merged t-digests and distinct counts from merged HyperLogLog sketches.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsSummary {
+
+    /**
+     * The scope of the summary, "store" or "fleet".
+     */
+    private String scope;
+
+    /**
+     * The inclusive start of the summary, the requested start aligned down to a day.
+     */
+    private LocalDateTime from;
+
+    /**
+     * The exclusive end of the summary, the requested end aligned up to a day.
+     */
+    private LocalDateTime to;
+
+    /**
+     * The exact number of transactions in the range.
+     */
+    private long transactionCount;
+
+    /**
+     * The estimated median converted amount, or null if there are no transactions.
+     */
+    private Double p50;
+
+    /**
+     * The estimated 90th percentile of the converted amounts, or null if there are no transactions.
+     */
+    private Double p90;
+
+    /**
+     * The estimated 95th percentile of the converted amounts, or null if there are no transactions.
+     */
+    private Double p95;
+
+    /**
+     * The estimated 99th percentile of the converted amounts, or null if there are no transactions.
+     */
+    private Double p99;
+
+    /**
+     * The estimated number of distinct customers among transactions that carry a customer id.
+     */
+    private long distinctCustomers;
+
+    /**
+     * The estimated number of distinct stores; only set for the fleet scope.
+     */
+    private Long distinctStores;
+}
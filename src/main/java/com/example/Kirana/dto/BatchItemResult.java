@@ -0,0 +1,34 @@
+package com.example.Kirana.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) describing the outcome of one item of a batch transaction upload.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+
+    /**
+     * Zero-based position of the item in the submitted batch.
+     */
+    private int index;
+
+    /**
+     * The identifier of the stored transaction, or the submitted identifier if the item failed.
+     */
+    private String id;
+
+    /**
+     * Whether the item was stored.
+     */
+    private boolean success;
+
+    /**
+     * The reason the item was rejected, or null if it was stored.
+     */
+    private String errorMessage;
+}
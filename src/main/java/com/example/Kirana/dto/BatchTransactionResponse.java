@@ -0,0 +1,43 @@
+package com.example.Kirana.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) returned by the batch transaction endpoint.
+ * Contains the number of stored and rejected items and a result for every submitted item.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransactionResponse {
+
+    /**
+     * The number of transactions that were stored.
+     */
+    private int accepted;
+
+    /**
+     * The number of transactions that were rejected.
+     */
+    private int rejected;
+
+    /**
+     * Per-item results, in submission order.
+     */
+    private List<BatchItemResult> results;
+
+    /**
+     * Builds a response from per-item results.
+     *
+     * @param results the per-item results.
+     * @return the response with accepted and rejected counts filled in.
+     */
+    public static BatchTransactionResponse of(List<BatchItemResult> results) {
+        int accepted = (int) results.stream().filter(BatchItemResult::isSuccess).count();
+        return new BatchTransactionResponse(accepted, results.size() - accepted, results);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.Kirana.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for the breakdown report of a period.
+ * Breaks the store's transactions down by original currency and type, and by type across currencies.
+ * Breakdown reports are serializable so they can be kept in the Redis report cache.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BreakdownReport implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The reporting period, "weekly", "monthly" or "yearly".
+     */
+    private String period;
+
+    /**
+     * One row per original currency and type, ordered by currency, then type.
+     */
+    private List<CurrencyBreakdown> currencies;
+
+    /**
+     * One row per type, in converted amounts.
+     */
+    private List<TypeBreakdown> types;
+}
@@ -0,0 +1,69 @@
+package com.example.Kirana.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Statistics of one store's transactions of one type in one original currency.
+ * Also the result row of the server-side aggregation that groups transactions by currency and type.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurrencyBreakdown implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The original currency of the transactions, e.g. "INR".
+     */
+    private String currency;
+
+    /**
+     * The transaction type, "credit" or "debit".
+     */
+    private String type;
+
+    /**
+     * The number of transactions.
+     */
+    private long count;
+
+    /**
+     * The sum of the amounts, in the original currency.
+     */
+    private double totalAmount;
+
+    /**
+     * The average amount (average ticket), in the original currency.
+     */
+    private double averageAmount;
+
+    /**
+     * The smallest amount, in the original currency.
+     */
+    private double minAmount;
+
+    /**
+     * The largest amount, in the original currency.
+     */
+    private double maxAmount;
+
+    /**
+     * The sum of the converted amounts.
+     */
+    private double totalConvertedAmount;
+
+    /**
+     * The smallest converted amount.
+     */
+    private double minConvertedAmount;
+
+    /**
+     * The largest converted amount.
+     */
+    private double maxConvertedAmount;
+}
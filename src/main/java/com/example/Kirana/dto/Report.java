@@ -2,15 +2,22 @@ package com.example.Kirana.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
 
 /**
  * Data Transfer Object (DTO) for generating financial reports.
  * This class encapsulates the details of a financial report including
  * total credits, total debits, net flow, and the reporting period.
+ * Reports are serializable so they can be kept in the Redis report cache.
  */
 @Data
 @AllArgsConstructor
-public class Report {
+@NoArgsConstructor
+public class Report implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     /**
      * The total amount of credits within the reporting period.
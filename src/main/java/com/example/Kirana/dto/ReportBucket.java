@@ -0,0 +1,57 @@
+package com.example.Kirana.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object (DTO) for one bucket of a report time series.
+ * Buckets are serializable so closed buckets can be kept in the Redis report series cache.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportBucket implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The inclusive start of the bucket.
+     */
+    private LocalDateTime bucketStart;
+
+    /**
+     * The total amount of credits within the bucket.
+     */
+    private double totalCredits;
+
+    /**
+     * The total amount of debits within the bucket.
+     */
+    private double totalDebits;
+
+    /**
+     * The net flow calculated as totalCredits minus totalDebits.
+     */
+    private double netFlow;
+
+    /**
+     * The number of transactions within the bucket.
+     */
+    private long transactionCount;
+
+    /**
+     * Builds a bucket from accumulated totals.
+     *
+     * @param bucketStart the inclusive start of the bucket.
+     * @param totals the totals of the bucket.
+     * @return the bucket.
+     */
+    public static ReportBucket of(LocalDateTime bucketStart, ReportTotals totals) {
+        return new ReportBucket(bucketStart, totals.getTotalCredits(), totals.getTotalDebits(),
+                totals.getTotalCredits() - totals.getTotalDebits(), totals.getTransactionCount());
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.Kirana.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for a report time series.
+ * Contains one bucket per hour, day, week or month of the requested range, including empty buckets.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportSeries {
+
+    /**
+     * The inclusive start of the series, the requested start aligned down to a bucket boundary.
+     */
+    private LocalDateTime from;
+
+    /**
+     * The exclusive end of the series, the requested end aligned up to a bucket boundary.
+     */
+    private LocalDateTime to;
+
+    /**
+     * The bucket granularity: "hour", "day", "week" or "month".
+     */
+    private String granularity;
+
+    /**
+     * The buckets of the series, in chronological order.
+     */
+    private List<ReportBucket> buckets;
+}
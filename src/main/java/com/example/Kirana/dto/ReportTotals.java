@@ -0,0 +1,76 @@
+package com.example.Kirana.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Running credit/debit totals used while assembling a report from rollups and raw transactions.
+ */
+@Data
+@NoArgsConstructor
+public class ReportTotals {
+
+    /**
+     * The accumulated credit amount.
+     */
+    private double totalCredits;
+
+    /**
+     * The accumulated debit amount.
+     */
+    private double totalDebits;
+
+    /**
+     * The number of transactions that contributed to the totals.
+     */
+    private long transactionCount;
+
+    /**
+     * Builds totals from the per-type rows of the server-side aggregation.
+     *
+     * @param typeTotals the aggregation rows.
+     * @return the combined totals.
+     */
+    public static ReportTotals fromTypeTotals(List<TypeTotal> typeTotals) {
+        ReportTotals totals = new ReportTotals();
+        for (TypeTotal typeTotal : typeTotals) {
+            if ("credit".equals(typeTotal.getType())) {
+                totals.totalCredits += typeTotal.getTotal();
+            } else if ("debit".equals(typeTotal.getType())) {
+                totals.totalDebits += typeTotal.getTotal();
+            }
+            totals.transactionCount += typeTotal.getCount();
+        }
+        return totals;
+    }
+
+    /**
+     * Adds another set of totals to this one.
+     *
+     * @param other the totals to add.
+     * @return this instance, for chaining.
+     */
+    public ReportTotals add(ReportTotals other) {
+        totalCredits += other.totalCredits;
+        totalDebits += other.totalDebits;
+        transactionCount += other.transactionCount;
+        return this;
+    }
+
+    /**
+     * Adds a single transaction amount to the totals.
+     *
+     * @param type the transaction type, "credit" or "debit".
+     * @param convertedAmount the converted amount of the transaction.
+     */
+    public void add(String type, double convertedAmount) {
+        if ("credit".equals(type)) {
+            totalCredits += convertedAmount;
+        } else if ("debit".equals(type)) {
+            totalDebits += convertedAmount;
+        }
+        transactionCount++;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.Kirana.dto;
+
+import com.example.Kirana.models.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) for one stored transaction in the change feed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionChange {
+
+    /**
+     * The resume token just past this change.
+     */
+    private String token;
+
+    /**
+     * The change stream operation, "insert" or "replace".
+     */
+    private String operation;
+
+    /**
+     * The transaction as stored.
+     */
+    private Transaction transaction;
+}
@@ -0,0 +1,28 @@
+package com.example.Kirana.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for a batch of the change feed.
+ * The resume token advances even when the batch is empty, so an idle consumer keeps a token that stays inside
+ * the oplog window.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionChangeBatch {
+
+    /**
+     * The changes of the batch, in commit order; possibly empty.
+     */
+    private List<TransactionChange> changes;
+
+    /**
+     * The token to pass back as {@code after} to continue after this batch.
+     */
+    private String resumeToken;
+}
@@ -0,0 +1,28 @@
+package com.example.Kirana.dto;
+
+import com.example.Kirana.models.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for one page of the transaction listing.
+ * Contains the transactions of the page, newest first, and the cursor of the next page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPage {
+
+    /**
+     * The transactions of this page, ordered by timestamp and id, newest first.
+     */
+    private List<Transaction> items;
+
+    /**
+     * Opaque cursor to pass as {@code after} to fetch the next page, or null on the last page.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,48 @@
+package com.example.Kirana.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Statistics of one store's transactions of one type across all currencies, in converted amounts.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypeBreakdown implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The transaction type, "credit" or "debit".
+     */
+    private String type;
+
+    /**
+     * The number of transactions.
+     */
+    private long count;
+
+    /**
+     * The sum of the converted amounts.
+     */
+    private double totalConvertedAmount;
+
+    /**
+     * The average converted amount (average ticket).
+     */
+    private double averageConvertedAmount;
+
+    /**
+     * The smallest converted amount.
+     */
+    private double minConvertedAmount;
+
+    /**
+     * The largest converted amount.
+     */
+    private double maxConvertedAmount;
+}
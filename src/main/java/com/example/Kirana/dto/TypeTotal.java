@@ -0,0 +1,27 @@
+package com.example.Kirana.dto;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+
+/**
+ * Result row of the server-side aggregation that sums converted amounts per transaction type.
+ */
+@Data
+public class TypeTotal {
+
+    /**
+     * The transaction type the row was grouped by, "credit" or "debit".
+     */
+    @Id
+    private String type;
+
+    /**
+     * The sum of converted amounts for the type.
+     */
+    private double total;
+
+    /**
+     * The number of transactions of the type.
+     */
+    private long count;
+}
@@ -20,11 +20,4 @@ public class UserRegistrationRequest {
      * This should be securely hashed before storage.
      */
     private String password;
-
-    /**
-     * The role assigned to the user during registration.
-     * This is optional and can be "ROLE_USER" or other roles as defined.
-     * If not provided, a default role of "ROLE_USER" may be assigned.
-     */
-    private String role;
 }
@@ -0,0 +1,15 @@
+package com.example.Kirana.dto;
+
+import lombok.Data;
+
+/**
+ * Data Transfer Object (DTO) for an administrator's request to change a user's role.
+ */
+@Data
+public class UserRoleRequest {
+
+    /**
+     * The new role of the user, "ROLE_USER" or "ROLE_ADMIN".
+     */
+    private String role;
+}
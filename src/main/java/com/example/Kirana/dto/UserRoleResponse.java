@@ -0,0 +1,24 @@
+package com.example.Kirana.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) for the role of a user after an administrator changed it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserRoleResponse {
+
+    /**
+     * The username of the updated user.
+     */
+    private String username;
+
+    /**
+     * The user's role after the change.
+     */
+    private String role;
+}
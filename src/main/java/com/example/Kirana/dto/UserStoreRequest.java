@@ -0,0 +1,15 @@
+package com.example.Kirana.dto;
+
+import lombok.Data;
+
+/**
+ * Data Transfer Object (DTO) for an administrator's request to move a user to another store.
+ */
+@Data
+public class UserStoreRequest {
+
+    /**
+     * The id of the store the user now works for.
+     */
+    private String storeId;
+}
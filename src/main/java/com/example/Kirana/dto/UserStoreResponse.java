@@ -0,0 +1,24 @@
+package com.example.Kirana.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) for the store of a user after an administrator moved them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStoreResponse {
+
+    /**
+     * The username of the updated user.
+     */
+    private String username;
+
+    /**
+     * The user's store after the change.
+     */
+    private String storeId;
+}
@@ -2,11 +2,17 @@ package com.example.Kirana.jwtConfig;
 
 import com.example.Kirana.serviceImpl.JWTService;
 import com.example.Kirana.serviceImpl.MyUserDetailsService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.ApplicationContext;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,6 +22,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -23,8 +30,13 @@ import java.util.logging.Logger;
  * Filter to validate JWT tokens on incoming requests and set the authentication in the SecurityContext.
  * This filter checks for the presence of a JWT token in the Authorization header, validates it,
  * and sets the authentication in the Spring Security context if the token is valid.
+ * Verified tokens are remembered in {@link TokenPrincipalCache} until they expire, so repeat requests with the
+ * same token need neither signature verification nor a user lookup.
+ * Verification time is published as {@code kirana.jwt.verify} (tagged by outcome) and cache use as
+ * {@code kirana.jwt.cache}.
  */
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class JwtFilter extends OncePerRequestFilter {
 
     private static final Logger LOGGER = Logger.getLogger(JwtFilter.class.getName());
@@ -35,6 +47,30 @@ public class JwtFilter extends OncePerRequestFilter {
     @Autowired
     private ApplicationContext context;
 
+    @Autowired
+    private TokenPrincipalCache tokenPrincipalCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer verifiedTimer;
+    private Timer rejectedTimer;
+    private Counter cacheHits;
+    private Counter cacheMisses;
+
+    /**
+     * Registers the meters of the filter.
+     */
+    @PostConstruct
+    public void initMetrics() {
+        verifiedTimer = Timer.builder("kirana.jwt.verify").tag("outcome", "valid")
+                .description("JWT signature and expiry verification").register(meterRegistry);
+        rejectedTimer = Timer.builder("kirana.jwt.verify").tag("outcome", "invalid")
+                .description("JWT signature and expiry verification").register(meterRegistry);
+        cacheHits = Counter.builder("kirana.jwt.cache").tag("result", "hit").register(meterRegistry);
+        cacheMisses = Counter.builder("kirana.jwt.cache").tag("result", "miss").register(meterRegistry);
+    }
+
     /**
      * Filters incoming requests to check for JWT token validity and sets authentication if the token is valid.
      *
@@ -49,26 +85,27 @@ public class JwtFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String username = null;
 
         try {
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                token = authHeader.substring(7);
-                username = jwtService.extractUserName(token);
-            }
-
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = context.getBean(MyUserDetailsService.class).loadUserByUsername(username);
-                if (jwtService.validateToken(token, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+            if (authHeader != null && authHeader.startsWith("Bearer ")
+                    && SecurityContextHolder.getContext().getAuthentication() == null) {
+                String token = authHeader.substring(7);
+                UserDetails userDetails = tokenPrincipalCache.get(token);
+                if (userDetails == null) {
+                    cacheMisses.increment();
+                    Claims claims = verify(token);
+                    userDetails = context.getBean(MyUserDetailsService.class).loadUserByUsername(claims.getSubject());
+                    tokenPrincipalCache.put(token, userDetails, claims.getExpiration().toInstant());
+                } else {
+                    cacheHits.increment();
                 }
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                );
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "An error occurred while processing the JWT token", e);
@@ -78,4 +115,22 @@ public class JwtFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Verifies the token once: parseToken checks the signature and rejects expired tokens.
+     *
+     * @param token the compact JWT
+     * @return the verified claims
+     */
+    private Claims verify(String token) {
+        long start = System.nanoTime();
+        try {
+            Claims claims = jwtService.parseToken(token);
+            verifiedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
+        } catch (RuntimeException e) {
+            rejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
 }
@@ -0,0 +1,79 @@
+package com.example.Kirana.jwtConfig;
+
+import com.example.Kirana.serviceImpl.JWTService;
+import com.example.Kirana.serviceImpl.MyUserDetailsService;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * WebFlux counterpart of {@link JwtFilter}: authenticates bearer tokens for the reactive security chain.
+ * <p>
+ * Tokens found in {@link TokenPrincipalCache} are accepted without further work. Otherwise the token is verified
+ * and the user loaded on the bounded elastic scheduler, since the user lookup may hit MongoDB, and the result is
+ * cached until the token expires.
+ * </p>
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveJwtAuthenticationManager implements ReactiveAuthenticationManager {
+
+    @Autowired
+    private JWTService jwtService;
+
+    @Autowired
+    private MyUserDetailsService userDetailsService;
+
+    @Autowired
+    private TokenPrincipalCache tokenPrincipalCache;
+
+    /**
+     * Extracts the bearer token of a request as an unauthenticated token, for use as the converter of an
+     * {@code AuthenticationWebFilter}.
+     *
+     * @param exchange the current exchange
+     * @return the token to authenticate, or an empty Mono if the request carries no bearer token
+     */
+    public Mono<Authentication> convert(ServerWebExchange exchange) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return Mono.empty();
+        }
+        String token = authHeader.substring(7);
+        return Mono.just(UsernamePasswordAuthenticationToken.unauthenticated(token, token));
+    }
+
+    /**
+     * Authenticates a bearer token.
+     *
+     * @param authentication the unauthenticated token produced by {@link #convert(ServerWebExchange)}
+     * @return the authenticated principal, or an error if the token is invalid or expired
+     */
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        String token = (String) authentication.getCredentials();
+        UserDetails cached = tokenPrincipalCache.get(token);
+        Mono<UserDetails> userDetails = cached != null
+                ? Mono.just(cached)
+                : Mono.fromCallable(() -> {
+                    // Verify once: parseToken checks the signature and rejects expired tokens
+                    Claims claims = jwtService.parseToken(token);
+                    UserDetails loaded = userDetailsService.loadUserByUsername(claims.getSubject());
+                    tokenPrincipalCache.put(token, loaded, claims.getExpiration().toInstant());
+                    return loaded;
+                }).subscribeOn(Schedulers.boundedElastic());
+        return userDetails
+                .<Authentication>map(user -> UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()))
+                .onErrorMap(e -> !(e instanceof BadCredentialsException), e -> new BadCredentialsException("Invalid JWT Token", e));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.Kirana.jwtConfig;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Bounded cache of verified JWT tokens and the principals they resolve to.
+ * <p>
+ * An entry is only added after the token's signature and expiration have been verified, and it expires at the
+ * token's own {@code exp} or after {@code kirana.security.user-cache.ttl}, whichever comes first, so a cached
+ * token is never honoured longer than the token itself. Repeated requests with the same token skip signature
+ * verification and the user lookup entirely. Entries for a user can be dropped with
+ * {@link #invalidateUser(String)} when the user's details change; that only reaches this node, so a role or
+ * store change made on another node is picked up once the entry expires, like the user cache.
+ * </p>
+ */
+@Component
+public class TokenPrincipalCache {
+
+    private final Cache<String, CachedPrincipal> cache;
+
+    /**
+     * Creates the cache.
+     *
+     * @param maxSize the maximum number of tokens to keep; least recently used tokens are evicted first.
+     * @param ttl the longest an entry is kept, even if its token is valid for longer.
+     */
+    public TokenPrincipalCache(@Value("${kirana.security.token-cache.max-size:10000}") long maxSize,
+                               @Value("${kirana.security.user-cache.ttl:PT5M}") Duration ttl) {
+        long ttlNanos = ttl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, CachedPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String token, CachedPrincipal principal, long currentTime) {
+                        long untilExpiry = Math.max(0, Duration.between(Instant.now(), principal.expiresAt).toNanos());
+                        return Math.min(untilExpiry, ttlNanos);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, CachedPrincipal principal, long currentTime, long currentDuration) {
+                        return expireAfterCreate(token, principal, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, CachedPrincipal principal, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Returns the principal cached for a token.
+     *
+     * @param token the raw JWT token.
+     * @return the cached principal, or null if the token has not been verified recently or has expired.
+     */
+    public UserDetails get(String token) {
+        CachedPrincipal principal = cache.getIfPresent(token);
+        return principal != null ? principal.userDetails : null;
+    }
+
+    /**
+     * Caches the principal of a verified token until the token expires or the cache's ttl has passed.
+     *
+     * @param token the raw JWT token, already verified.
+     * @param userDetails the principal the token resolved to.
+     * @param expiresAt the token's expiration time.
+     */
+    public void put(String token, UserDetails userDetails, Instant expiresAt) {
+        cache.put(token, new CachedPrincipal(userDetails, expiresAt));
+    }
+
+    /**
+     * Drops every cached token of a user, e.g. after the user's role has changed.
+     *
+     * @param username the username whose tokens are dropped.
+     */
+    public void invalidateUser(String username) {
+        cache.asMap().values().removeIf(principal -> principal.userDetails.getUsername().equals(username));
+    }
+
+    private static final class CachedPrincipal {
+
+        private final UserDetails userDetails;
+        private final Instant expiresAt;
+
+        private CachedPrincipal(UserDetails userDetails, Instant expiresAt) {
+            this.userDetails = userDetails;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
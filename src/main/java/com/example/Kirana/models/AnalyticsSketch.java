@@ -0,0 +1,80 @@
+package com.example.Kirana.models;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mergeable sketches of one day of one store's transactions, as seen by one application node.
+ * <p>
+ * Each node keeps the sketches of the current day in memory and overwrites its own document on every flush, so
+ * documents are never written concurrently and a day's analytics are the merge of the documents of all nodes.
+ * Fleet-wide sketches are stored under the {@link #FLEET} store id.
+ * </p>
+ */
+@Data
+@Document(collection = "analytics_sketches")
+@CompoundIndex(name = "store_bucketStart", def = "{'storeId': 1, 'bucketStart': 1}")
+public class AnalyticsSketch {
+
+    /**
+     * The store id of the sketches that cover the transactions of all stores.
+     */
+    public static final String FLEET = "*";
+
+    /**
+     * Deterministic identifier built from the store, the day and the node.
+     */
+    @Id
+    private String id;
+
+    /**
+     * The store whose transactions the sketches cover, or {@link #FLEET}.
+     */
+    private String storeId;
+
+    /**
+     * The start of the day the sketches cover.
+     */
+    private LocalDateTime bucketStart;
+
+    /**
+     * The application node that wrote the sketches.
+     */
+    private String nodeId;
+
+    /**
+     * The number of transactions added to the sketches.
+     */
+    private long transactionCount;
+
+    /**
+     * The t-digest of the converted amounts, in its small byte encoding.
+     */
+    private byte[] amountDigest;
+
+    /**
+     * The HyperLogLog sketch of the customer ids.
+     */
+    private byte[] customers;
+
+    /**
+     * The HyperLogLog sketch of the store ids; only set on fleet-wide sketches.
+     */
+    private byte[] stores;
+
+    /**
+     * Builds the document id of a node's sketches of one store and day.
+     *
+     * @param storeId the store, or {@link #FLEET}.
+     * @param bucketStart the start of the day.
+     * @param nodeId the node writing the sketches.
+     * @return the sketch id, e.g. "store-17:2024-05-01T00:00:65f0c3a2e4b0a1b2c3d4e5f6".
+     */
+    public static String sketchId(String storeId, LocalDateTime bucketStart, String nodeId) {
+        return storeId + ":" + bucketStart + ":" + nodeId;
+    }
+}
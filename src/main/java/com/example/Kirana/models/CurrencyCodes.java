@@ -0,0 +1,53 @@
+package com.example.Kirana.models;
+
+/**
+ * Maps three-letter ISO 4217 currency codes to dense array indexes.
+ * <p>
+ * Every code of three upper-case ASCII letters gets a fixed slot in {@code [0, SLOTS)}, which lets rate tables and
+ * per-currency aggregates live in primitive arrays instead of hash maps keyed by strings.
+ * </p>
+ */
+public final class CurrencyCodes {
+
+    /**
+     * The number of distinct slots, one per possible three-letter code.
+     */
+    public static final int SLOTS = 26 * 26 * 26;
+
+    private CurrencyCodes() {
+    }
+
+    /**
+     * Returns the slot of a currency code.
+     *
+     * @param code the currency code, e.g. "INR".
+     * @return the slot index, or -1 if the code is not three upper-case letters.
+     */
+    public static int index(String code) {
+        if (code == null || code.length() != 3) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = 0; i < 3; i++) {
+            char c = code.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                return -1;
+            }
+            index = index * 26 + (c - 'A');
+        }
+        return index;
+    }
+
+    /**
+     * Returns the currency code stored in a slot.
+     *
+     * @param index the slot index.
+     * @return the currency code.
+     */
+    public static String code(int index) {
+        return new String(new char[]{
+                (char) ('A' + index / (26 * 26)),
+                (char) ('A' + index / 26 % 26),
+                (char) ('A' + index % 26)});
+    }
+}
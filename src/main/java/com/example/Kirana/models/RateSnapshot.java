@@ -0,0 +1,81 @@
+package com.example.Kirana.models;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of currency rates relative to the base currency.
+ * <p>
+ * Rates are stored in a primitive {@code double} array indexed by {@link CurrencyCodes#index(String)}, so a
+ * lookup on the transaction path is a bounds check and an array read, with no boxing or hashing. A snapshot is
+ * never modified after construction and can be shared freely between threads.
+ * </p>
+ */
+public final class RateSnapshot {
+
+    private final double[] rates;
+    private final Instant fetchedAt;
+
+    private RateSnapshot(double[] rates, Instant fetchedAt) {
+        this.rates = rates;
+        this.fetchedAt = fetchedAt;
+    }
+
+    /**
+     * Builds a snapshot from a rates map as returned by the FX API.
+     * Entries with invalid codes or non-numeric rates are ignored.
+     *
+     * @param rates the rates keyed by currency code.
+     * @param fetchedAt when the rates were fetched from the source.
+     * @return the snapshot.
+     */
+    public static RateSnapshot fromMap(Map<String, ?> rates, Instant fetchedAt) {
+        double[] table = new double[CurrencyCodes.SLOTS];
+        Arrays.fill(table, Double.NaN);
+        for (Map.Entry<String, ?> entry : rates.entrySet()) {
+            int index = CurrencyCodes.index(entry.getKey());
+            if (index >= 0 && entry.getValue() instanceof Number) {
+                table[index] = ((Number) entry.getValue()).doubleValue();
+            }
+        }
+        return new RateSnapshot(table, fetchedAt);
+    }
+
+    /**
+     * Returns the rate of a currency.
+     *
+     * @param currency the currency code.
+     * @return the rate, or {@link Double#NaN} if the currency is unknown.
+     */
+    public double rate(String currency) {
+        int index = CurrencyCodes.index(currency);
+        return index < 0 ? Double.NaN : rates[index];
+    }
+
+    /**
+     * Returns when the rates were fetched from the source.
+     *
+     * @return the fetch time.
+     */
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+
+    /**
+     * Returns the rates as a map keyed by currency code, in code order.
+     *
+     * @return an unmodifiable map of the known rates.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < rates.length; i++) {
+            if (!Double.isNaN(rates[i])) {
+                map.put(CurrencyCodes.code(i), rates[i]);
+            }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.Kirana.models;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * Granularity of the buckets of a report time series.
+ * Weeks start on Monday and months on the first day of the month, so bucket boundaries do not depend on when the
+ * series is requested. Hourly series are read from hourly rollups, all others from daily rollups.
+ */
+public enum ReportGranularity {
+
+    HOUR(RollupGranularity.HOUR),
+    DAY(RollupGranularity.DAY),
+    WEEK(RollupGranularity.DAY),
+    MONTH(RollupGranularity.DAY);
+
+    private final RollupGranularity rollup;
+
+    ReportGranularity(RollupGranularity rollup) {
+        this.rollup = rollup;
+    }
+
+    /**
+     * Returns the rollup granularity the buckets are summed from.
+     *
+     * @return the granularity of the rollups that tile one bucket.
+     */
+    public RollupGranularity rollup() {
+        return rollup;
+    }
+
+    /**
+     * Aligns the given timestamp down to the start of the bucket that contains it.
+     *
+     * @param timestamp the timestamp to align.
+     * @return the start of the enclosing bucket.
+     */
+    public LocalDateTime floor(LocalDateTime timestamp) {
+        switch (this) {
+            case HOUR:
+                return timestamp.truncatedTo(ChronoUnit.HOURS);
+            case DAY:
+                return timestamp.truncatedTo(ChronoUnit.DAYS);
+            case WEEK:
+                return timestamp.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            default:
+                return timestamp.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        }
+    }
+
+    /**
+     * Aligns the given timestamp up to the next bucket boundary, or returns it unchanged if it already is one.
+     *
+     * @param timestamp the timestamp to align.
+     * @return the first bucket boundary at or after the timestamp.
+     */
+    public LocalDateTime ceil(LocalDateTime timestamp) {
+        LocalDateTime floor = floor(timestamp);
+        return floor.equals(timestamp) ? floor : next(floor);
+    }
+
+    /**
+     * Returns the start of the bucket following the one that starts at the given boundary.
+     *
+     * @param bucketStart the start of a bucket.
+     * @return the start of the next bucket.
+     */
+    public LocalDateTime next(LocalDateTime bucketStart) {
+        switch (this) {
+            case HOUR:
+                return bucketStart.plusHours(1);
+            case DAY:
+                return bucketStart.plusDays(1);
+            case WEEK:
+                return bucketStart.plusWeeks(1);
+            default:
+                return bucketStart.plusMonths(1);
+        }
+    }
+
+    /**
+     * Parses a granularity as given in a request, e.g. "day".
+     *
+     * @param value the granularity name, in any case.
+     * @return the granularity.
+     * @throws IllegalArgumentException if the value is not a known granularity.
+     */
+    public static ReportGranularity parse(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported granularity: " + value + ". Use hour, day, week or month.");
+        }
+    }
+}
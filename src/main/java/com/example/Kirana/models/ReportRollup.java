@@ -0,0 +1,55 @@
+package com.example.Kirana.models;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated credit/debit totals for one hour or one day of one store's transactions.
+ * Rollups are incremented on every recorded transaction so reports can sum a handful of
+ * buckets instead of scanning the raw "transactions" collection.
+ */
+@Data
+@Document(collection = "report_rollups")
+@CompoundIndex(name = "store_granularity_bucketStart", def = "{'storeId': 1, 'granularity': 1, 'bucketStart': 1}")
+public class ReportRollup {
+
+    /**
+     * Deterministic identifier built from the store, the granularity and the bucket start.
+     */
+    @Id
+    private String id;
+
+    /**
+     * The store whose transactions this bucket sums.
+     */
+    private String storeId;
+
+    /**
+     * The granularity of this bucket.
+     */
+    private RollupGranularity granularity;
+
+    /**
+     * The inclusive start of the bucket.
+     */
+    private LocalDateTime bucketStart;
+
+    /**
+     * The sum of converted credit amounts recorded in this bucket.
+     */
+    private double totalCredits;
+
+    /**
+     * The sum of converted debit amounts recorded in this bucket.
+     */
+    private double totalDebits;
+
+    /**
+     * The number of transactions recorded in this bucket.
+     */
+    private long transactionCount;
+}
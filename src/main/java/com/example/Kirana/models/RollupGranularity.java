@@ -0,0 +1,62 @@
+package com.example.Kirana.models;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Granularity of a pre-aggregated report rollup bucket.
+ * Each granularity knows how to align a timestamp to the start of its bucket.
+ */
+public enum RollupGranularity {
+
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * Aligns the given timestamp down to the start of the bucket that contains it.
+     *
+     * @param timestamp the timestamp to align.
+     * @return the start of the enclosing bucket.
+     */
+    public LocalDateTime floor(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(unit);
+    }
+
+    /**
+     * Aligns the given timestamp up to the next bucket boundary, or returns it unchanged if it already is one.
+     *
+     * @param timestamp the timestamp to align.
+     * @return the first bucket boundary at or after the timestamp.
+     */
+    public LocalDateTime ceil(LocalDateTime timestamp) {
+        LocalDateTime floor = floor(timestamp);
+        return floor.equals(timestamp) ? floor : floor.plus(1, unit);
+    }
+
+    /**
+     * Returns the start of the bucket following the one that starts at the given boundary.
+     *
+     * @param bucketStart the start of a bucket.
+     * @return the start of the next bucket.
+     */
+    public LocalDateTime next(LocalDateTime bucketStart) {
+        return bucketStart.plus(1, unit);
+    }
+
+    /**
+     * Builds the document id of a store's rollup bucket starting at the given boundary.
+     *
+     * @param storeId the store the bucket belongs to.
+     * @param bucketStart the start of the bucket.
+     * @return the rollup id, e.g. "store-17:HOUR:2024-05-01T10:00".
+     */
+    public String bucketId(String storeId, LocalDateTime bucketStart) {
+        return storeId + ":" + name() + ":" + bucketStart;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.Kirana.models;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marks one day of one store's rollup buckets as possibly wrong, because an increment for it failed.
+ * Marked days are rebuilt from the raw transactions by the rollup repair and the mark is then removed.
+ */
+@Data
+@Document(collection = "rollup_repairs")
+public class RollupRepair {
+
+    /**
+     * Deterministic identifier built from the store and the day, the id of the day's rollup bucket.
+     */
+    @Id
+    private String id;
+
+    /**
+     * The store whose buckets need rebuilding.
+     */
+    private String storeId;
+
+    /**
+     * The start of the day whose hourly and daily buckets need rebuilding.
+     */
+    private LocalDateTime day;
+
+    /**
+     * When an increment for the day last failed; a repair only removes the mark if it did not fail again since.
+     */
+    private LocalDateTime markedAt;
+}
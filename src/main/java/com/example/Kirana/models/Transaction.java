@@ -2,6 +2,8 @@ package com.example.Kirana.models;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -9,9 +11,27 @@ import java.time.LocalDateTime;
 /**
  * Represents a financial transaction.
  * This model class is used to store and manage transaction data in the MongoDB database.
+ * <p>
+ * Every transaction belongs to the store of the user who recorded it, and every query is scoped to one store, so
+ * all indexes lead with {@code storeId}. The {@code store_timestamp_type} index serves reports and exports; three
+ * indexes serve the keyset-paginated listing, which sorts on {@code (timestamp, _id)} descending: one for
+ * unfiltered listings and one each for listings filtered by type or by currency. Listings filtered by both use the
+ * currency index, which is the more selective. Idempotency keys are unique per store. Because every query
+ * carries the store, the collection can be sharded on {@code { storeId: 1 }}, the only shard key the unique
+ * {@code store_idempotencyKey} index can be enforced under. A store's transactions then share one shard, which
+ * also keeps {@code _id} unique within each store; across stores it is only checked when they share a shard.
+ * </p>
  */
 @Data
 @Document(collection = "transactions")
+@CompoundIndexes({
+        @CompoundIndex(name = "store_timestamp_type", def = "{'storeId': 1, 'timestamp': 1, 'type': 1}"),
+        @CompoundIndex(name = "store_listing", def = "{'storeId': 1, 'timestamp': -1, '_id': -1}"),
+        @CompoundIndex(name = "store_listing_type", def = "{'storeId': 1, 'type': 1, 'timestamp': -1, '_id': -1}"),
+        @CompoundIndex(name = "store_listing_currency", def = "{'storeId': 1, 'currency': 1, 'timestamp': -1, '_id': -1}"),
+        @CompoundIndex(name = "store_idempotencyKey", def = "{'storeId': 1, 'idempotencyKey': 1}", unique = true,
+                partialFilter = "{ 'idempotencyKey': { $exists: true } }")
+})
 public class Transaction {
 
     /**
@@ -20,6 +40,11 @@ public class Transaction {
     @Id
     private String id;
 
+    /**
+     * The store that recorded the transaction, taken from the authenticated user, never from the request body.
+     */
+    private String storeId;
+
     /**
      * The amount of money involved in the transaction.
      */
@@ -44,4 +69,14 @@ public class Transaction {
      * The timestamp when the transaction was recorded.
      */
     private LocalDateTime timestamp;
+
+    /**
+     * Optional client-supplied identifier of the customer, counted by the distinct-customer analytics.
+     */
+    private String customerId;
+
+    /**
+     * Optional client-supplied key that identifies a submission, so retries of the same sale are stored once.
+     */
+    private String idempotencyKey;
 }
@@ -27,13 +27,44 @@ public class UserPrincipal implements UserDetails {
 
     /**
      * Returns the authorities granted to the user.
-     * In this implementation, the user has a default role of 'USER'.
+     * The user's stored role is granted, falling back to 'ROLE_USER' if none is set.
      *
      * @return a collection of granted authorities
      */
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.singleton(new SimpleGrantedAuthority("ROLE_USER"));
+        return Collections.singleton(new SimpleGrantedAuthority(getRole()));
+    }
+
+    /**
+     * Returns the role of the user, e.g. 'ROLE_USER' or 'ROLE_ADMIN'.
+     *
+     * @return the user's role, or 'ROLE_USER' if none is set
+     */
+    public String getRole() {
+        return user.getRole() != null ? user.getRole() : "ROLE_USER";
+    }
+
+    /**
+     * Returns the id of the store the user belongs to. Every transaction the user records is stamped with it,
+     * and every listing, export and report the user requests is restricted to it.
+     *
+     * @return the user's store id, or the username for users without one, so each such user is a store of one
+     */
+    public String getStoreId() {
+        return user.getStoreId() != null ? user.getStoreId() : user.getUsername();
+    }
+
+    /**
+     * Returns the store id of an authenticated user, whichever {@link UserDetails} implementation holds it.
+     *
+     * @param userDetails the authenticated user
+     * @return the store id of a {@link UserPrincipal}, otherwise the username
+     */
+    public static String storeIdOf(UserDetails userDetails) {
+        return userDetails instanceof UserPrincipal
+                ? ((UserPrincipal) userDetails).getStoreId()
+                : userDetails.getUsername();
     }
 
     /**
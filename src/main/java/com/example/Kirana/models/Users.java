@@ -6,7 +6,7 @@ import org.springframework.data.mongodb.core.mapping.Document;
 /**
  * Represents a user entity in the system.
  * This class maps to the "users" collection in MongoDB and contains user-specific information
- * such as username, password, and role.
+ * such as username, password, role, and the store the user works for.
  */
 @Document(collection = "users")
 public class Users {
@@ -18,6 +18,8 @@ public class Users {
 
     private String role; // e.g., "ROLE_USER", "ROLE_ADMIN"
 
+    private String storeId; // the kirana whose transactions the user records and reports on
+
     /**
      * Gets the username of the user.
      *
@@ -72,11 +74,30 @@ public class Users {
         this.role = role;
     }
 
+    /**
+     * Gets the id of the store the user belongs to.
+     *
+     * @return the store id, or null for users registered before stores were introduced.
+     */
+    public String getStoreId() {
+        return storeId;
+    }
+
+    /**
+     * Sets the id of the store the user belongs to.
+     *
+     * @param storeId the store id to set.
+     */
+    public void setStoreId(String storeId) {
+        this.storeId = storeId;
+    }
+
     @Override
     public String toString() {
         return "Users{" +
                 "username='" + username + '\'' +
                 ", role='" + role + '\'' +
+                ", storeId='" + storeId + '\'' +
                 '}';
     }
 }
@@ -0,0 +1,27 @@
+package com.example.Kirana.repository;
+
+import com.example.Kirana.models.AnalyticsSketch;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link AnalyticsSketch} documents.
+ */
+@Repository
+public interface AnalyticsSketchRepository extends MongoRepository<AnalyticsSketch, String> {
+
+    /**
+     * Retrieves the sketches of every node for a store's days starting in the half-open range [start, end).
+     *
+     * @param storeId The store whose sketches to retrieve, or {@link AnalyticsSketch#FLEET}.
+     * @param start The inclusive start of the range.
+     * @param end The exclusive end of the range.
+     * @return The matching {@link AnalyticsSketch} documents.
+     */
+    @Query("{ 'storeId': ?0, 'bucketStart': { $gte: ?1, $lt: ?2 } }")
+    List<AnalyticsSketch> findBuckets(String storeId, LocalDateTime start, LocalDateTime end);
+}
@@ -0,0 +1,32 @@
+package com.example.Kirana.repository;
+
+import com.example.Kirana.models.Transaction;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking repository for {@link Transaction} entities, used by the reactive transaction API.
+ * Maps the same collection and indexes as {@link TransactionRepository}.
+ */
+@Repository
+public interface ReactiveTransactionRepository extends ReactiveMongoRepository<Transaction, String> {
+
+    /**
+     * Finds the transaction a store recorded for a client-supplied idempotency key.
+     *
+     * @param storeId The store that recorded the submission.
+     * @param idempotencyKey The idempotency key of the submission.
+     * @return The stored {@link Transaction}, or an empty Mono.
+     */
+    Mono<Transaction> findByStoreIdAndIdempotencyKey(String storeId, String idempotencyKey);
+
+    /**
+     * Finds a transaction by id, but only if it belongs to the given store.
+     *
+     * @param id The id of the transaction.
+     * @param storeId The store that must own the transaction.
+     * @return The stored {@link Transaction}, or an empty Mono.
+     */
+    Mono<Transaction> findByIdAndStoreId(String id, String storeId);
+}
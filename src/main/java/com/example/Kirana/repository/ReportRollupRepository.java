@@ -0,0 +1,39 @@
+package com.example.Kirana.repository;
+
+import com.example.Kirana.models.ReportRollup;
+import com.example.Kirana.models.RollupGranularity;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link ReportRollup} buckets.
+ */
+@Repository
+public interface ReportRollupRepository extends MongoRepository<ReportRollup, String> {
+
+    /**
+     * Retrieves a store's buckets of the given granularity whose start lies in the half-open range [start, end).
+     *
+     * @param storeId The store whose buckets to retrieve.
+     * @param granularity The granularity of the buckets.
+     * @param start The inclusive start of the range.
+     * @param end The exclusive end of the range.
+     * @return The matching {@link ReportRollup} buckets.
+     */
+    @Query("{ 'storeId': ?0, 'granularity': ?1, 'bucketStart': { $gte: ?2, $lt: ?3 } }")
+    List<ReportRollup> findBuckets(String storeId, RollupGranularity granularity, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Deletes every bucket of a store, of any granularity, whose start lies in the half-open range [start, end).
+     *
+     * @param storeId The store whose buckets to delete.
+     * @param start The inclusive start of the range.
+     * @param end The exclusive end of the range.
+     */
+    @Query(value = "{ 'storeId': ?0, 'bucketStart': { $gte: ?1, $lt: ?2 } }", delete = true)
+    void deleteBuckets(String storeId, LocalDateTime start, LocalDateTime end);
+}
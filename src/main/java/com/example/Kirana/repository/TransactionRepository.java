@@ -1,24 +1,134 @@
 package com.example.Kirana.repository;
 
+import com.example.Kirana.dto.CurrencyBreakdown;
+import com.example.Kirana.dto.TypeTotal;
 import com.example.Kirana.models.Transaction;
+import org.springframework.data.mongodb.repository.Aggregation;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing {@link Transaction} entities.
  * Provides methods for accessing and querying transaction data in the MongoDB database.
+ * Every query is scoped to one store and served by an index that leads with {@code storeId}.
  */
 @Repository
 public interface TransactionRepository extends MongoRepository<Transaction, String> {
 
     /**
-     * Retrieves a list of transactions that occurred within a specified time range.
+     * Retrieves a list of a store's transactions that occurred within a specified time range.
      *
+     * @param storeId The store whose transactions to retrieve.
      * @param start The start date and time of the range.
      * @param end The end date and time of the range.
      * @return A list of {@link Transaction} objects that fall within the specified time range.
      */
-    List<Transaction> findAllByTimestampBetween(LocalDateTime start, LocalDateTime end);
+    List<Transaction> findAllByStoreIdAndTimestampBetween(String storeId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Finds the transaction a store recorded for a client-supplied idempotency key.
+     *
+     * @param storeId The store that recorded the submission.
+     * @param idempotencyKey The idempotency key of the submission.
+     * @return The stored {@link Transaction}, if any.
+     */
+    Optional<Transaction> findByStoreIdAndIdempotencyKey(String storeId, String idempotencyKey);
+
+    /**
+     * Finds a transaction by id, but only if it belongs to the given store.
+     *
+     * @param id The id of the transaction.
+     * @param storeId The store that must own the transaction.
+     * @return The stored {@link Transaction}, if any.
+     */
+    Optional<Transaction> findByIdAndStoreId(String id, String storeId);
+
+    /**
+     * Sums a store's converted amounts per transaction type inside MongoDB for the half-open range [start, end).
+     * Only one small row per type crosses the wire, and the match is served by the store/timestamp/type index.
+     * Like the rollups and {@link com.example.Kirana.serviceImpl.ReportAccumulator}, only credits and debits with
+     * a numeric converted amount are counted.
+     *
+     * @param storeId The store whose transactions to sum.
+     * @param start The inclusive start of the range.
+     * @param end The exclusive end of the range.
+     * @return One {@link TypeTotal} per transaction type present in the range.
+     */
+    @Aggregation(pipeline = {
+            "{ $match: { 'storeId': ?0, 'timestamp': { $gte: ?1, $lt: ?2 }, 'type': { $in: ['credit', 'debit'] },"
+                    + " 'convertedAmount': { $type: 'number' } } }",
+            "{ $group: { _id: '$type', total: { $sum: '$convertedAmount' }, count: { $sum: 1 } } }"
+    })
+    List<TypeTotal> sumConvertedAmountByType(String storeId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Computes count, sum, average, minimum and maximum of a store's credits and debits per original currency and
+     * type inside MongoDB for the half-open range [start, end), in a single grouped aggregation. Only one row per
+     * currency and type crosses the wire. Like {@link com.example.Kirana.serviceImpl.BreakdownAccumulator}, only
+     * transactions in a three-letter upper-case currency with numeric original and converted amounts are counted.
+     *
+     * @param storeId The store whose transactions to break down.
+     * @param start The inclusive start of the range.
+     * @param end The exclusive end of the range.
+     * @return One {@link CurrencyBreakdown} per currency and type present in the range.
+     */
+    @Aggregation(pipeline = {
+            "{ $match: { 'storeId': ?0, 'timestamp': { $gte: ?1, $lt: ?2 }, 'type': { $in: ['credit', 'debit'] },"
+                    + " 'currency': { $regex: '^[A-Z]{3}$' }, 'amount': { $type: 'number' }, 'convertedAmount': { $type: 'number' } } }",
+            "{ $group: { _id: { currency: '$currency', type: '$type' }, count: { $sum: 1 },"
+                    + " totalAmount: { $sum: '$amount' }, averageAmount: { $avg: '$amount' },"
+                    + " minAmount: { $min: '$amount' }, maxAmount: { $max: '$amount' },"
+                    + " totalConvertedAmount: { $sum: '$convertedAmount' },"
+                    + " minConvertedAmount: { $min: '$convertedAmount' }, maxConvertedAmount: { $max: '$convertedAmount' } } }",
+            "{ $project: { _id: 0, currency: '$_id.currency', type: '$_id.type', count: 1, totalAmount: 1, averageAmount: 1,"
+                    + " minAmount: 1, maxAmount: 1, totalConvertedAmount: 1, minConvertedAmount: 1, maxConvertedAmount: 1 } }"
+    })
+    List<CurrencyBreakdown> breakdownByCurrencyAndType(String storeId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Streams the fields needed for a currency breakdown of a store's transactions in the half-open range
+     * [start, end) from a server-side cursor. The caller must close the stream.
+     *
+     * @param storeId The store whose transactions to stream.
+     * @param start The inclusive start of the range.
+     * @param end The exclusive end of the range.
+     * @return A lazily fetched {@link Stream} of partially populated {@link Transaction} objects.
+     */
+    @Meta(cursorBatchSize = 1000)
+    @Query(value = "{ 'storeId': ?0, 'timestamp': { $gte: ?1, $lt: ?2 } }",
+            fields = "{ 'type': 1, 'currency': 1, 'amount': 1, 'convertedAmount': 1 }")
+    Stream<Transaction> streamBreakdownFieldsBetween(String storeId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Streams a store's transactions in the half-open range [start, end) from a server-side cursor.
+     * Only the type, converted amount and timestamp are fetched; the caller must close the stream.
+     *
+     * @param storeId The store whose transactions to stream.
+     * @param start The inclusive start of the range.
+     * @param end The exclusive end of the range.
+     * @return A lazily fetched {@link Stream} of partially populated {@link Transaction} objects.
+     */
+    @Meta(cursorBatchSize = 1000)
+    @Query(value = "{ 'storeId': ?0, 'timestamp': { $gte: ?1, $lt: ?2 } }",
+            fields = "{ 'type': 1, 'convertedAmount': 1, 'timestamp': 1 }")
+    Stream<Transaction> streamTotalsFieldsBetween(String storeId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Streams a store's complete transactions in the half-open range [start, end) in timestamp order from a
+     * server-side cursor, for exports. The caller must close the stream.
+     *
+     * @param storeId The store whose transactions to stream.
+     * @param start The inclusive start of the range.
+     * @param end The exclusive end of the range.
+     * @return A lazily fetched {@link Stream} of {@link Transaction} objects.
+     */
+    @Meta(cursorBatchSize = 1000)
+    @Query(value = "{ 'storeId': ?0, 'timestamp': { $gte: ?1, $lt: ?2 } }", sort = "{ 'timestamp': 1 }")
+    Stream<Transaction> streamAllBetween(String storeId, LocalDateTime start, LocalDateTime end);
 }
@@ -0,0 +1,391 @@
+package com.example.Kirana.serviceImpl;
+
+import com.example.Kirana.dto.AnalyticsSummary;
+import com.example.Kirana.models.AnalyticsSketch;
+import com.example.Kirana.models.RollupGranularity;
+import com.example.Kirana.models.Transaction;
+import com.example.Kirana.repository.AnalyticsSketchRepository;
+import com.example.Kirana.services.AnalyticsService;
+import com.tdunning.math.stats.MergingDigest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service implementation for approximate analytics backed by mergeable sketches.
+ * <p>
+ * Every recorded transaction updates, in memory, the sketches of its store's day and of the fleet's day: a
+ * t-digest of the converted amount for percentiles, and HyperLogLog sketches of the customer id and, fleet-wide,
+ * of the store id. Every {@code kirana.analytics.flush-interval} the sketches that changed are written to the
+ * "analytics_sketches" collection, one document per store, day and node, overwriting that node's previous
+ * flush. Sketches of a day are dropped from memory once the day has ended and its last changes are flushed.
+ * </p>
+ * <p>
+ * A sketch created for a day whose document already exists, because a late transaction arrived after the day
+ * was dropped or because the node restarted, first merges that document on its first flush, so the flush extends
+ * the stored sketch rather than replacing it. The node id is {@code kirana.analytics.node-id}, the host name by
+ * default, so a restarted node keeps writing the same documents. It must be unique among running nodes; set it
+ * explicitly where host names change on every start.
+ * </p>
+ * <p>
+ * Queries merge the stored sketches of every node and day in the range, so a year of a store is a few hundred
+ * small documents rather than millions of transactions. Results lag the write path by up to one flush interval,
+ * and the unflushed sketches of a node that stops without shutting down cleanly are lost.
+ * </p>
+ */
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsServiceImpl.class);
+
+    private static final RollupGranularity DAY = RollupGranularity.DAY;
+
+    @Autowired
+    private AnalyticsSketchRepository analyticsSketchRepository;
+
+    @Value("${kirana.analytics.compression:100}")
+    private double compression;
+
+    @Value("${kirana.analytics.hll-precision:12}")
+    private int hllPrecision;
+
+    @Value("${kirana.analytics.flush-interval:PT1M}")
+    private Duration flushInterval;
+
+    @Value("${kirana.analytics.max-days:1100}")
+    private int maxDays;
+
+    @Value("${kirana.analytics.node-id:}")
+    private String configuredNodeId;
+
+    /**
+     * Identifies this node, so each node overwrites only its own documents.
+     */
+    private String nodeId;
+
+    private final Map<String, DaySketch> sketches = new ConcurrentHashMap<>();
+
+    /**
+     * Resolves the node id from {@code kirana.analytics.node-id}, falling back to the host name, or to a random id
+     * if the host name cannot be resolved.
+     */
+    @PostConstruct
+    public void initNodeId() {
+        if (configuredNodeId != null && !configuredNodeId.isBlank()) {
+            nodeId = configuredNodeId;
+            return;
+        }
+        try {
+            nodeId = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            nodeId = new ObjectId().toHexString();
+            logger.warn("Cannot resolve the host name; analytics sketches are written under node id {} until restart", nodeId);
+        }
+    }
+
+    /**
+     * Adds recorded transactions to the sketches of their store and of the fleet.
+     * Transactions without a store, converted amount or timestamp are ignored.
+     *
+     * @param transactions the saved transactions, with store, converted amount and timestamp set.
+     */
+    @Override
+    public void recordTransactions(List<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            if (transaction.getStoreId() == null || transaction.getConvertedAmount() == null
+                    || transaction.getTimestamp() == null) {
+                continue;
+            }
+            LocalDateTime day = DAY.floor(transaction.getTimestamp());
+            addTo(transaction.getStoreId(), day, transaction);
+            addTo(AnalyticsSketch.FLEET, day, transaction);
+        }
+    }
+
+    /**
+     * Adds a transaction to the sketches of a store's day. A sketch retired by {@link #flush()} after it was looked
+     * up refuses the transaction, and the lookup is repeated, which finds or creates its replacement.
+     */
+    private void addTo(String storeId, LocalDateTime day, Transaction transaction) {
+        while (!sketchFor(storeId, day).add(transaction)) {
+            logger.debug("Sketch of {} on {} was retired; retrying", storeId, day);
+        }
+    }
+
+    /**
+     * Writes the sketches that changed since the last flush with one bulk save, then drops the sketches of days
+     * that ended more than a flush interval ago and have not changed since.
+     * <p>
+     * Sketches created since the last flush first merge the stored documents with their ids, read with one query.
+     * A failure is logged rather than propagated; the sketches stay marked as changed and are written by the
+     * next flush.
+     * </p>
+     */
+    @Override
+    @Scheduled(initialDelayString = "${kirana.analytics.flush-interval:PT1M}",
+            fixedDelayString = "${kirana.analytics.flush-interval:PT1M}")
+    public void flush() {
+        List<DaySketch> unloaded = new ArrayList<>();
+        for (DaySketch sketch : sketches.values()) {
+            if (!sketch.isLoaded()) {
+                unloaded.add(sketch);
+            }
+        }
+        if (!unloaded.isEmpty()) {
+            try {
+                Map<String, AnalyticsSketch> stored = new HashMap<>();
+                List<String> ids = new ArrayList<>(unloaded.size());
+                unloaded.forEach(sketch -> ids.add(sketch.id));
+                for (AnalyticsSketch document : analyticsSketchRepository.findAllById(ids)) {
+                    stored.put(document.getId(), document);
+                }
+                for (DaySketch sketch : unloaded) {
+                    sketch.load(stored.get(sketch.id));
+                }
+            } catch (Exception e) {
+                logger.warn("Error loading {} stored analytics sketches: {}", unloaded.size(), e.getMessage());
+                return;
+            }
+        }
+
+        List<DaySketch> changed = new ArrayList<>();
+        List<AnalyticsSketch> documents = new ArrayList<>();
+        for (DaySketch sketch : sketches.values()) {
+            AnalyticsSketch document = sketch.snapshotIfChanged();
+            if (document != null) {
+                changed.add(sketch);
+                documents.add(document);
+            }
+        }
+        if (!documents.isEmpty()) {
+            try {
+                analyticsSketchRepository.saveAll(documents);
+            } catch (Exception e) {
+                changed.forEach(DaySketch::markChanged);
+                logger.warn("Error flushing {} analytics sketches: {}", documents.size(), e.getMessage());
+                return;
+            }
+        }
+        LocalDateTime retireBefore = DAY.floor(LocalDateTime.now().minus(flushInterval));
+        for (DaySketch sketch : sketches.values()) {
+            if (sketch.day.isBefore(retireBefore)) {
+                sketch.retireIfUnchanged();
+            }
+        }
+    }
+
+    /**
+     * Flushes the sketches on shutdown, so a clean restart loses nothing.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Summarizes one store's transactions, or the whole fleet's, over a range of days.
+     *
+     * @param storeId The store to summarize, or null for the whole fleet.
+     * @param from The start of the range, aligned down to a day.
+     * @param to The end of the range, aligned up to a day.
+     * @return The approximate percentiles and distinct counts for the range.
+     * @throws IllegalArgumentException if the range is empty or spans more than {@code kirana.analytics.max-days} days.
+     */
+    @Override
+    public AnalyticsSummary summarize(String storeId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = DAY.floor(from);
+        LocalDateTime end = DAY.ceil(to);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'.");
+        }
+        if (ChronoUnit.DAYS.between(start, end) > maxDays) {
+            throw new IllegalArgumentException("The range spans more than " + maxDays + " days.");
+        }
+
+        boolean fleet = storeId == null;
+        List<AnalyticsSketch> documents = analyticsSketchRepository.findBuckets(fleet ? AnalyticsSketch.FLEET : storeId, start, end);
+
+        long count = 0;
+        MergingDigest amounts = new MergingDigest(compression);
+        List<HyperLogLog> customerSketches = new ArrayList<>(documents.size());
+        List<HyperLogLog> storeSketches = new ArrayList<>(documents.size());
+        for (AnalyticsSketch document : documents) {
+            count += document.getTransactionCount();
+            amounts.add(MergingDigest.fromBytes(ByteBuffer.wrap(document.getAmountDigest())));
+            customerSketches.add(HyperLogLog.fromBytes(document.getCustomers()));
+            if (document.getStores() != null) {
+                storeSketches.add(HyperLogLog.fromBytes(document.getStores()));
+            }
+        }
+
+        boolean empty = amounts.size() == 0;
+        return new AnalyticsSummary(
+                fleet ? "fleet" : "store",
+                start,
+                end,
+                count,
+                empty ? null : amounts.quantile(0.50),
+                empty ? null : amounts.quantile(0.90),
+                empty ? null : amounts.quantile(0.95),
+                empty ? null : amounts.quantile(0.99),
+                union(customerSketches).estimate(),
+                fleet ? union(storeSketches).estimate() : null);
+    }
+
+    /**
+     * Returns the sketches of a store's day, creating them on first use.
+     */
+    private DaySketch sketchFor(String storeId, LocalDateTime day) {
+        return sketches.computeIfAbsent(AnalyticsSketch.sketchId(storeId, day, nodeId),
+                id -> new DaySketch(id, storeId, day, AnalyticsSketch.FLEET.equals(storeId)));
+    }
+
+    /**
+     * Merges HyperLogLog sketches, reducing them to the lowest precision among them first, so sketches written
+     * before a change of {@code kirana.analytics.hll-precision} still merge.
+     */
+    private HyperLogLog union(List<HyperLogLog> parts) {
+        int precision = hllPrecision;
+        for (HyperLogLog part : parts) {
+            precision = Math.min(precision, part.getPrecision());
+        }
+        HyperLogLog union = new HyperLogLog(precision);
+        for (HyperLogLog part : parts) {
+            union.merge(part.reduce(precision));
+        }
+        return union;
+    }
+
+    /**
+     * Merges a serialized HyperLogLog sketch into another, reducing both to the lower precision first.
+     *
+     * @return the merged sketch, which is the given sketch if no reduction was needed.
+     */
+    private static HyperLogLog merge(HyperLogLog sketch, byte[] stored) {
+        HyperLogLog other = HyperLogLog.fromBytes(stored);
+        int precision = Math.min(sketch.getPrecision(), other.getPrecision());
+        HyperLogLog merged = sketch.reduce(precision);
+        merged.merge(other.reduce(precision));
+        return merged;
+    }
+
+    /**
+     * The in-memory sketches of one store's day on this node. Sketches are not thread-safe, so all access is
+     * synchronized on the instance; contention is limited to writes of the same store and day.
+     * <p>
+     * A sketch is retired under the same lock it is written under and removed from the map before the lock is
+     * released, so an add either lands before the final flush or sees the sketch retired and retries.
+     * </p>
+     */
+    private final class DaySketch {
+
+        private final String id;
+        private final String storeId;
+        private final LocalDateTime day;
+        private final MergingDigest amounts = new MergingDigest(compression);
+        private HyperLogLog customers = new HyperLogLog(hllPrecision);
+        private HyperLogLog stores;
+        private long count;
+        private boolean changed;
+        private boolean loaded;
+        private boolean retired;
+
+        DaySketch(String id, String storeId, LocalDateTime day, boolean fleet) {
+            this.id = id;
+            this.storeId = storeId;
+            this.day = day;
+            this.stores = fleet ? new HyperLogLog(hllPrecision) : null;
+        }
+
+        synchronized boolean add(Transaction transaction) {
+            if (retired) {
+                return false;
+            }
+            amounts.add(transaction.getConvertedAmount());
+            customers.add(transaction.getCustomerId());
+            if (stores != null) {
+                stores.add(transaction.getStoreId());
+            }
+            count++;
+            changed = true;
+            return true;
+        }
+
+        synchronized boolean isLoaded() {
+            return loaded;
+        }
+
+        /**
+         * Merges the document previously stored under this sketch's id, if any, so the next flush extends it.
+         */
+        synchronized void load(AnalyticsSketch document) {
+            if (loaded) {
+                return;
+            }
+            loaded = true;
+            if (document == null) {
+                return;
+            }
+            amounts.add(MergingDigest.fromBytes(ByteBuffer.wrap(document.getAmountDigest())));
+            customers = merge(customers, document.getCustomers());
+            if (stores != null && document.getStores() != null) {
+                stores = merge(stores, document.getStores());
+            }
+            count += document.getTransactionCount();
+        }
+
+        /**
+         * Returns the document to write if the sketch changed since the last flush. A sketch created after this
+         * flush loaded the stored documents waits for the next flush, so it cannot replace a stored document.
+         */
+        synchronized AnalyticsSketch snapshotIfChanged() {
+            if (!changed || !loaded) {
+                return null;
+            }
+            changed = false;
+            amounts.compress();
+            ByteBuffer digest = ByteBuffer.allocate(amounts.smallByteSize());
+            amounts.asSmallBytes(digest);
+
+            AnalyticsSketch document = new AnalyticsSketch();
+            document.setId(id);
+            document.setStoreId(storeId);
+            document.setBucketStart(day);
+            document.setNodeId(nodeId);
+            document.setTransactionCount(count);
+            document.setAmountDigest(digest.array());
+            document.setCustomers(customers.toBytes());
+            document.setStores(stores != null ? stores.toBytes() : null);
+            return document;
+        }
+
+        synchronized void markChanged() {
+            changed = true;
+        }
+
+        synchronized void retireIfUnchanged() {
+            if (!changed) {
+                retired = true;
+                sketches.remove(id, this);
+            }
+        }
+    }
+}
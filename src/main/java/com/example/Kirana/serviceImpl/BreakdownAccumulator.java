@@ -0,0 +1,174 @@
+package com.example.Kirana.serviceImpl;
+
+import com.example.Kirana.dto.CurrencyBreakdown;
+import com.example.Kirana.models.CurrencyCodes;
+import com.example.Kirana.models.Transaction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Single-pass accumulator for the per-currency and per-type breakdown report.
+ * <p>
+ * Each (currency, type) pair is keyed by an {@code int}, the {@link CurrencyCodes} slot of the currency times two
+ * plus the type, and looked up in a small open-addressing table, so no strings are hashed and no boxed values are
+ * allocated per transaction. The statistics of every pair live in parallel primitive arrays, and sums use
+ * Neumaier's compensated summation like {@link ReportAccumulator}. Only credits and debits in a valid three-letter
+ * currency with both amounts set are counted, matching the {@code $match} of the server-side aggregation.
+ * </p>
+ */
+public final class BreakdownAccumulator {
+
+    private static final int EMPTY = -1;
+
+    private int[] table = new int[32];
+    private int[] keys = new int[16];
+    private long[] counts = new long[16];
+    private double[] amountSums = new double[16];
+    private double[] amountCompensations = new double[16];
+    private double[] amountMins = new double[16];
+    private double[] amountMaxes = new double[16];
+    private double[] convertedSums = new double[16];
+    private double[] convertedCompensations = new double[16];
+    private double[] convertedMins = new double[16];
+    private double[] convertedMaxes = new double[16];
+    private int size;
+
+    /**
+     * Creates an empty accumulator.
+     */
+    public BreakdownAccumulator() {
+        Arrays.fill(table, EMPTY);
+    }
+
+    /**
+     * Adds a transaction to the breakdown. Transactions without amounts, of another type or in a malformed
+     * currency are ignored.
+     *
+     * @param transaction the transaction to add.
+     */
+    public void accept(Transaction transaction) {
+        if (transaction.getAmount() == null || transaction.getConvertedAmount() == null) {
+            return;
+        }
+        accept(transaction.getCurrency(), transaction.getType(), transaction.getAmount(), transaction.getConvertedAmount());
+    }
+
+    /**
+     * Adds one transaction's amounts to the breakdown.
+     *
+     * @param currency the original currency.
+     * @param type the transaction type, "credit" or "debit"; other types are ignored.
+     * @param amount the amount in the original currency.
+     * @param convertedAmount the converted amount.
+     */
+    public void accept(String currency, String type, double amount, double convertedAmount) {
+        int typeIndex = "credit".equals(type) ? 0 : "debit".equals(type) ? 1 : -1;
+        int slot = CurrencyCodes.index(currency);
+        if (typeIndex < 0 || slot < 0) {
+            return;
+        }
+        int row = rowFor(slot * 2 + typeIndex);
+        if (counts[row]++ == 0) {
+            amountMins[row] = amount;
+            amountMaxes[row] = amount;
+            convertedMins[row] = convertedAmount;
+            convertedMaxes[row] = convertedAmount;
+        } else {
+            amountMins[row] = Math.min(amountMins[row], amount);
+            amountMaxes[row] = Math.max(amountMaxes[row], amount);
+            convertedMins[row] = Math.min(convertedMins[row], convertedAmount);
+            convertedMaxes[row] = Math.max(convertedMaxes[row], convertedAmount);
+        }
+        add(amountSums, amountCompensations, row, amount);
+        add(convertedSums, convertedCompensations, row, convertedAmount);
+    }
+
+    /**
+     * Returns one row per currency and type seen, in no particular order.
+     *
+     * @return the breakdown rows.
+     */
+    public List<CurrencyBreakdown> toRows() {
+        List<CurrencyBreakdown> rows = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            double totalAmount = amountSums[row] + amountCompensations[row];
+            rows.add(new CurrencyBreakdown(
+                    CurrencyCodes.code(keys[row] / 2),
+                    keys[row] % 2 == 0 ? "credit" : "debit",
+                    counts[row],
+                    totalAmount,
+                    totalAmount / counts[row],
+                    amountMins[row],
+                    amountMaxes[row],
+                    convertedSums[row] + convertedCompensations[row],
+                    convertedMins[row],
+                    convertedMaxes[row]));
+        }
+        return rows;
+    }
+
+    /**
+     * Finds the row of a key, appending a new row if the key has not been seen.
+     */
+    private int rowFor(int key) {
+        int mask = table.length - 1;
+        int position = spread(key) & mask;
+        while (table[position] != EMPTY) {
+            if (keys[table[position]] == key) {
+                return table[position];
+            }
+            position = (position + 1) & mask;
+        }
+        if (size == keys.length) {
+            growRows();
+        }
+        keys[size] = key;
+        table[position] = size;
+        if (++size * 2 > table.length) {
+            rehash();
+        }
+        return size - 1;
+    }
+
+    private void growRows() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+        amountSums = Arrays.copyOf(amountSums, capacity);
+        amountCompensations = Arrays.copyOf(amountCompensations, capacity);
+        amountMins = Arrays.copyOf(amountMins, capacity);
+        amountMaxes = Arrays.copyOf(amountMaxes, capacity);
+        convertedSums = Arrays.copyOf(convertedSums, capacity);
+        convertedCompensations = Arrays.copyOf(convertedCompensations, capacity);
+        convertedMins = Arrays.copyOf(convertedMins, capacity);
+        convertedMaxes = Arrays.copyOf(convertedMaxes, capacity);
+    }
+
+    private void rehash() {
+        table = new int[table.length * 2];
+        Arrays.fill(table, EMPTY);
+        int mask = table.length - 1;
+        for (int row = 0; row < size; row++) {
+            int position = spread(keys[row]) & mask;
+            while (table[position] != EMPTY) {
+                position = (position + 1) & mask;
+            }
+            table[position] = row;
+        }
+    }
+
+    private static int spread(int key) {
+        int hash = key * 0x9E3779B1;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static void add(double[] sums, double[] compensations, int row, double value) {
+        double sum = sums[row] + value;
+        compensations[row] += Math.abs(sums[row]) >= Math.abs(value)
+                ? (sums[row] - sum) + value
+                : (value - sum) + sums[row];
+        sums[row] = sum;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.Kirana.serviceImpl;
+
+import com.example.Kirana.exceptions.TransactionProcessingException;
+import com.example.Kirana.models.RateSnapshot;
+import com.example.Kirana.services.CurrencyRateProvider;
+import com.example.Kirana.services.RateSource;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Two-tier currency rate provider.
+ * <p>
+ * The first tier is an immutable {@link RateSnapshot} held in a volatile field and read by request threads
+ * without any I/O. The second tier is a JSON copy of the rates in Redis shared by all nodes. A scheduled task
+ * refreshes ahead of expiry every {@code kirana.fx.refresh-interval}: it adopts the Redis copy if another node
+ * refreshed it within the interval, and otherwise fetches from the configured {@link RateSource} and publishes the
+ * result to Redis.
+ * Only one node fetches at a time, guarded by a short-lived Redis lock that only its owner releases.
+ * </p>
+ * <p>
+ * Redis is an optimisation, not a dependency: if it cannot be read or locked, the node fetches from the
+ * {@link RateSource} itself, so a Redis outage never lets the snapshot go stale.
+ * </p>
+ * <p>
+ * If refreshes keep failing, the last snapshot is served until it is older than {@code kirana.fx.max-staleness},
+ * after which transactions are rejected rather than converted with outdated rates.
+ * </p>
+ */
+@Service
+public class CurrencyRateProviderImpl implements CurrencyRateProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(CurrencyRateProviderImpl.class);
+
+    private static final String RATES_KEY = "fx::latestRates";
+    private static final String REFRESH_LOCK_KEY = "lock::fx::refresh";
+
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0",
+            Long.class);
+
+    @Autowired
+    private RateSource rateSource;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${kirana.fx.refresh-interval:PT10M}")
+    private Duration refreshInterval;
+
+    @Value("${kirana.fx.max-staleness:PT6H}")
+    private Duration maxStaleness;
+
+    private volatile RateSnapshot snapshot;
+
+    /**
+     * Returns the current in-memory snapshot.
+     *
+     * @return the current {@link RateSnapshot}.
+     * @throws TransactionProcessingException if no rates have been loaded yet or the snapshot is too old.
+     */
+    @Override
+    public RateSnapshot currentRates() {
+        RateSnapshot current = snapshot;
+        if (current == null) {
+            throw new TransactionProcessingException("Currency rates are not available yet. Try again.");
+        }
+        if (current.getFetchedAt().plus(maxStaleness).isBefore(Instant.now())) {
+            throw new TransactionProcessingException("Currency rates are out of date. Try again later.");
+        }
+        return current;
+    }
+
+    /**
+     * Refreshes the snapshot. Runs on the scheduler thread at startup and then every refresh interval; failures
+     * are logged and the previous snapshot stays in place.
+     */
+    @Override
+    @Scheduled(initialDelay = 0, fixedDelayString = "${kirana.fx.refresh-interval:PT10M}")
+    public void refresh() {
+        try {
+            RateSnapshot shared;
+            String lockToken = UUID.randomUUID().toString();
+            Boolean lockAcquired;
+            try {
+                shared = readSharedRates();
+                if (shared != null && shared.getFetchedAt().plus(refreshInterval).isAfter(Instant.now())) {
+                    adopt(shared);
+                    return;
+                }
+                lockAcquired = redisTemplate.opsForValue().setIfAbsent(REFRESH_LOCK_KEY, lockToken, Duration.ofSeconds(30));
+            } catch (Exception e) {
+                logger.warn("Shared currency rates unavailable, fetching directly: {}", e.getMessage());
+                adopt(fetchRates());
+                return;
+            }
+            if (!Boolean.TRUE.equals(lockAcquired)) {
+                // Another node is fetching; take whatever is shared now and pick up its result next round
+                if (shared != null) {
+                    adopt(shared);
+                }
+                return;
+            }
+            try {
+                RateSnapshot fetched = fetchRates();
+                adopt(fetched);
+                publishSharedRates(fetched);
+            } finally {
+                releaseRefreshLock(lockToken);
+            }
+        } catch (Exception e) {
+            logger.error("Error refreshing currency rates: {}", e.getMessage(), e);
+        }
+    }
+
+    private RateSnapshot fetchRates() {
+        return RateSnapshot.fromMap(rateSource.fetchRates(), Instant.now());
+    }
+
+    /**
+     * Deletes the refresh lock if it still holds this node's token, so a slow fetch that outlived the lock does not
+     * release another node's lock. Failures are logged; the lock then expires on its own.
+     */
+    private void releaseRefreshLock(String lockToken) {
+        try {
+            redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(REFRESH_LOCK_KEY), lockToken);
+        } catch (Exception e) {
+            logger.warn("Error releasing the currency rate refresh lock: {}", e.getMessage());
+        }
+    }
+
+    private RateSnapshot readSharedRates() throws Exception {
+        String json = redisTemplate.opsForValue().get(RATES_KEY);
+        if (json == null) {
+            return null;
+        }
+        Map<String, Object> payload = objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+        @SuppressWarnings("unchecked")
+        Map<String, Object> rates = (Map<String, Object>) payload.get("rates");
+        long fetchedAt = ((Number) payload.get("fetchedAt")).longValue();
+        return RateSnapshot.fromMap(rates, Instant.ofEpochMilli(fetchedAt));
+    }
+
+    private void publishSharedRates(RateSnapshot rates) throws Exception {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("fetchedAt", rates.getFetchedAt().toEpochMilli());
+        payload.put("rates", rates.toMap());
+        redisTemplate.opsForValue().set(RATES_KEY, objectMapper.writeValueAsString(payload), maxStaleness);
+    }
+
+    private void adopt(RateSnapshot rates) {
+        RateSnapshot current = snapshot;
+        if (current == null || rates.getFetchedAt().isAfter(current.getFetchedAt())) {
+            snapshot = rates;
+            logger.info("Currency rates updated, fetched at {}", rates.getFetchedAt());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.Kirana.serviceImpl;
+
+import com.example.Kirana.exceptions.TransactionProcessingException;
+import com.example.Kirana.services.RateSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+/**
+ * {@link RateSource} that calls an FX rates HTTP API such as {@code https://api.fxratesapi.com/latest}.
+ * <p>
+ * Uses the pooled, timeout-configured {@code RestTemplate} from {@link com.example.Kirana.config.AppConfig}. Point {@code kirana.fx.url} at a local stub
+ * server to take the external API out of load tests.
+ * </p>
+ */
+@Service
+@ConditionalOnProperty(name = "kirana.fx.source", havingValue = "http", matchIfMissing = true)
+public class HttpRateSource implements RateSource {
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Value("${kirana.fx.url:https://api.fxratesapi.com/latest}")
+    private String url;
+
+    /**
+     * Fetches the latest rates from the configured API.
+     *
+     * @return the rates keyed by currency code.
+     * @throws TransactionProcessingException if the API does not return rates.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> fetchRates() {
+        Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+        if (response != null && response.get("rates") instanceof Map) {
+            return (Map<String, Object>) response.get("rates");
+        }
+        throw new TransactionProcessingException("Failed to fetch valid currency rates from API.");
+    }
+}
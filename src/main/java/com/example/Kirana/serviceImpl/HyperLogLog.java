@@ -0,0 +1,194 @@
+package com.example.Kirana.serviceImpl;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog sketch for counting distinct strings, such as customer or store ids, in constant memory.
+ * <p>
+ * A sketch of precision {@code p} keeps {@code 2^p} one-byte registers, so precision 12 uses 4 KB and estimates
+ * within about 1.6%. Sketches of the same precision are merged by taking the register-wise maximum, which makes
+ * per-node, per-day sketches of the analytics service combinable at query time; a sketch can be reduced to a
+ * lower precision first when the configured precision changed. Values are hashed with 64-bit FNV-1a followed by
+ * the MurmurHash3 finalizer, so no large-range correction is needed.
+ * </p>
+ */
+public final class HyperLogLog {
+
+    private static final int MIN_PRECISION = 4;
+    private static final int MAX_PRECISION = 16;
+
+    private final int precision;
+    private final byte[] registers;
+
+    /**
+     * Creates an empty sketch.
+     *
+     * @param precision the number of index bits, between 4 and 16.
+     * @throws IllegalArgumentException if the precision is out of range.
+     */
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("HyperLogLog precision must be between " + MIN_PRECISION + " and "
+                    + MAX_PRECISION + ": " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    private HyperLogLog(int precision, byte[] registers) {
+        this.precision = precision;
+        this.registers = registers;
+    }
+
+    /**
+     * Restores a sketch written by {@link #toBytes()}.
+     *
+     * @param bytes the serialized sketch.
+     * @return the sketch.
+     * @throws IllegalArgumentException if the bytes are not a serialized sketch.
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes.length < 1 || bytes[0] < MIN_PRECISION || bytes[0] > MAX_PRECISION
+                || bytes.length != (1 << bytes[0]) + 1) {
+            throw new IllegalArgumentException("Not a serialized HyperLogLog sketch.");
+        }
+        return new HyperLogLog(bytes[0], Arrays.copyOfRange(bytes, 1, bytes.length));
+    }
+
+    /**
+     * Returns the number of index bits of the sketch.
+     *
+     * @return the precision.
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Adds a value to the sketch. Null values are ignored.
+     *
+     * @param value the value to count.
+     */
+    public void add(String value) {
+        if (value == null) {
+            return;
+        }
+        long hash = hash(value);
+        int index = (int) (hash >>> (64 - precision));
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * Adds every value counted by another sketch of the same precision to this one.
+     *
+     * @param other the sketch to merge.
+     * @throws IllegalArgumentException if the precisions differ; reduce the finer sketch first.
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge HyperLogLog sketches of precision " + other.precision
+                    + " into " + precision + ".");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * Returns a copy of this sketch at a lower precision, as if its values had been added to a coarser sketch.
+     *
+     * @param target the precision of the copy, at most this sketch's precision.
+     * @return the reduced copy, or this sketch if the precision already matches.
+     * @throws IllegalArgumentException if the target precision is higher than this sketch's.
+     */
+    public HyperLogLog reduce(int target) {
+        if (target == precision) {
+            return this;
+        }
+        if (target > precision) {
+            throw new IllegalArgumentException("Cannot raise HyperLogLog precision from " + precision + " to " + target + ".");
+        }
+        HyperLogLog reduced = new HyperLogLog(target);
+        int droppedBits = precision - target;
+        for (int i = 0; i < registers.length; i++) {
+            if (registers[i] == 0) {
+                continue;
+            }
+            int dropped = i & ((1 << droppedBits) - 1);
+            int rank = dropped == 0
+                    ? droppedBits + registers[i]
+                    : Integer.numberOfLeadingZeros(dropped) - (32 - droppedBits) + 1;
+            int index = i >>> droppedBits;
+            if (rank > reduced.registers[index]) {
+                reduced.registers[index] = (byte) rank;
+            }
+        }
+        return reduced;
+    }
+
+    /**
+     * Estimates the number of distinct values added, using linear counting while many registers are still empty.
+     *
+     * @return the estimated cardinality.
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Serializes the sketch as its precision followed by its registers.
+     *
+     * @return the serialized sketch.
+     */
+    public byte[] toBytes() {
+        byte[] bytes = new byte[registers.length + 1];
+        bytes[0] = (byte) precision;
+        System.arraycopy(registers, 0, bytes, 1, registers.length);
+        return bytes;
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
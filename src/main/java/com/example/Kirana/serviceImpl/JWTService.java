@@ -3,8 +3,8 @@ package com.example.Kirana.serviceImpl;
 import com.example.Kirana.CustomExceptions.TokenGenerationException;
 import com.example.Kirana.CustomExceptions.TokenValidationException;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,7 +14,6 @@ import org.springframework.stereotype.Service;
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -30,19 +29,21 @@ import java.util.function.Function;
 public class JWTService {
 
     private static final Logger logger = LoggerFactory.getLogger(JWTService.class);
-    private String secretKey;
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
 
     /**
      * Constructor to initialize the secret key for JWT signing.
      * <p>
-     * Generates a new secret key using HmacSHA256 algorithm and encodes it in Base64.
+     * Generates a new secret key using HmacSHA256 algorithm. The key and the verifying parser are built once
+     * here and shared by all calls, as both are immutable and thread-safe.
      * </p>
      */
     public JWTService() {
         try {
             KeyGenerator keyGen = KeyGenerator.getInstance("HmacSHA256");
-            SecretKey secretKeyObject = keyGen.generateKey();
-            secretKey = Base64.getEncoder().encodeToString(secretKeyObject.getEncoded());
+            signingKey = Keys.hmacShaKeyFor(keyGen.generateKey().getEncoded());
+            jwtParser = Jwts.parser().verifyWith(signingKey).build();
         } catch (NoSuchAlgorithmException e) {
             logger.error("Error generating secret key", e);
             throw new TokenGenerationException("Error generating secret key", e);
@@ -68,7 +69,7 @@ public class JWTService {
                     .issuedAt(new Date(System.currentTimeMillis()))
                     .expiration(new Date(System.currentTimeMillis()+ 60*60*100*30))
                     .and()
-                    .signWith(getKey())
+                    .signWith(signingKey)
                     .compact();
         } catch (Exception e) {
             logger.error("Error generating token for username: {}", username, e);
@@ -105,15 +106,30 @@ public class JWTService {
      * @return true if the token is valid, false otherwise.
      */
     public boolean validateToken(String token, UserDetails userDetails) {
-        final String userName = extractUserName(token);
+        final Claims claims = parseToken(token);
         try {
-            return (userName.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            return (claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims));
         } catch (Exception e) {
             logger.error("Error validating token", e);
             throw new TokenValidationException("Error validating token", e);
         }
     }
 
+    /**
+     * Verifies the signature of the provided JWT token and returns its claims.
+     * <p>
+     * This is the single verification step callers should use when they need more than one claim, e.g. the
+     * subject and the expiration; the token is parsed and its HMAC checked exactly once.
+     * </p>
+     *
+     * @param token the JWT token to be verified.
+     * @return the verified claims of the token.
+     * @throws TokenValidationException if the token is malformed, has an invalid signature or has expired.
+     */
+    public Claims parseToken(String token) {
+        return extractAllClaims(token);
+    }
+
     /**
      * Extracts a specific claim from the JWT token.
      * <p>
@@ -141,11 +157,7 @@ public class JWTService {
      */
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return jwtParser.parseSignedClaims(token).getPayload();
         } catch (Exception e) {
             logger.error("Error extracting claims from token", e);
             throw new TokenValidationException("Error extracting claims from token", e);
@@ -153,41 +165,15 @@ public class JWTService {
     }
 
     /**
-     * Checks if the JWT token has expired.
+     * Checks if already verified claims have expired.
      * <p>
      * Compares the token's expiration date with the current date.
      * </p>
      *
-     * @param token the JWT token to be checked for expiration.
+     * @param claims the verified claims of the token.
      * @return true if the token has expired, false otherwise.
      */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    /**
-     * Extracts the expiration date from the JWT token.
-     * <p>
-     * Retrieves the expiration claim from the token.
-     * </p>
-     *
-     * @param token the JWT token from which the expiration date is to be extracted.
-     * @return the expiration date of the token.
-     */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    /**
-     * Returns the secret key used for signing the JWT tokens.
-     * <p>
-     * Decodes the Base64 encoded secret key and returns a SecretKey object.
-     * </p>
-     *
-     * @return the SecretKey used for signing JWT tokens.
-     */
-    private SecretKey getKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 }
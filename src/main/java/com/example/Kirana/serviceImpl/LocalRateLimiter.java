@@ -0,0 +1,54 @@
+package com.example.Kirana.serviceImpl;
+
+import com.example.Kirana.config.RateLimitProperties;
+import com.example.Kirana.services.RateLimiter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Bucket4j;
+import io.github.bucket4j.Refill;
+
+/**
+ * {@link RateLimiter} that keeps one Bucket4j bucket per user in memory.
+ * <p>
+ * Buckets are held in a Caffeine cache bounded by {@code kirana.rate-limit.max-tracked-keys} and evicted after
+ * {@code kirana.rate-limit.idle-expiry} without use, so memory stays bounded however many users call the API.
+ * Limits are enforced per node; use {@link RedisRateLimiter} to share them across nodes.
+ * </p>
+ */
+public class LocalRateLimiter implements RateLimiter {
+
+    private final RateLimitProperties properties;
+    private final Cache<String, Bucket> buckets;
+
+    /**
+     * Creates the limiter.
+     *
+     * @param properties the rate limit settings.
+     */
+    public LocalRateLimiter(RateLimitProperties properties) {
+        this.properties = properties;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedKeys())
+                .expireAfterAccess(properties.getIdleExpiry())
+                .build();
+    }
+
+    /**
+     * Takes one token from the user's bucket, creating the bucket for the user's tier on first use.
+     *
+     * @param key the rate limit key.
+     * @param role the user's role.
+     * @return true if a token was available.
+     */
+    @Override
+    public boolean tryConsume(String key, String role) {
+        return buckets.get(key, k -> newBucket(properties.tierFor(role))).tryConsume(1);
+    }
+
+    private static Bucket newBucket(RateLimitProperties.Tier tier) {
+        Bandwidth limit = Bandwidth.classic(tier.getCapacity(), Refill.intervally(tier.getCapacity(), tier.getPeriod()));
+        return Bucket4j.builder().addLimit(limit).build();
+    }
+}
@@ -4,33 +4,83 @@ import com.example.Kirana.CustomExceptions.UserNotFoundException;
 import com.example.Kirana.models.UserPrincipal;
 import com.example.Kirana.models.Users;
 import com.example.Kirana.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 /**
  * Service implementation for loading user-specific data for authentication purposes.
  * <p>
  * This service retrieves user details from the repository and provides them for Spring Security authentication.
+ * Loaded users are kept in a size-bounded local cache with a time-to-live, so the authentication filter does not
+ * query MongoDB on every request. Callers that change a user must call {@link #evictUser(String)}; other nodes
+ * pick up the change when their entry expires. Cache hits and misses are published as {@code cache.*} metrics
+ * under the name "userDetails", and the time of each lookup, hit or miss, as {@code kirana.user.lookup}.
  * </p>
  */
 @Service
-public class MyUserDetailsService implements UserDetailsService {
+public class MyUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private static final Logger logger = LoggerFactory.getLogger(MyUserDetailsService.class);
 
     @Autowired
     private UserRepository userRepo;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Cache<String, UserDetails> userCache;
+
+    private Timer lookupTimer;
+
+    /**
+     * Creates the service and its user cache.
+     *
+     * @param maxSize the maximum number of users kept in the cache.
+     * @param ttl how long a loaded user is served from the cache before it is reloaded.
+     */
+    public MyUserDetailsService(@Value("${kirana.security.user-cache.max-size:10000}") long maxSize,
+                                @Value("${kirana.security.user-cache.ttl:PT5M}") Duration ttl) {
+        this.userCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Registers the cache statistics and the lookup timer with the meter registry.
+     */
+    @PostConstruct
+    public void bindCacheMetrics() {
+        CaffeineCacheMetrics.monitor(meterRegistry, userCache, "userDetails");
+        lookupTimer = Timer.builder("kirana.user.lookup")
+                .description("User details lookup, served from the cache or MongoDB")
+                .register(meterRegistry);
+    }
+
     /**
      * Loads user details by username.
      * <p>
-     * Retrieves the user from the repository based on the provided username and returns a {@link UserPrincipal} object.
-     * Throws {@link UsernameNotFoundException} if the user is not found.
+     * Returns the cached {@link UserPrincipal} if present; otherwise retrieves the user by primary key and caches it.
+     * Throws {@link UsernameNotFoundException} if the user is not found; misses for unknown users are not cached.
+     * The repository is read outside the cache's internal locks, so a miss never blocks on MongoDB while
+     * holding a monitor, which would pin the carrier when running on virtual threads. Concurrent misses for the
+     * same user may therefore load it more than once.
      * </p>
      *
      * @param username the username of the user to be retrieved.
@@ -39,7 +89,50 @@ public class MyUserDetailsService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Users user = userRepo.findByUsername(username);
+        return lookupTimer.record(() -> {
+            UserDetails cached = userCache.getIfPresent(username);
+            if (cached != null) {
+                return cached;
+            }
+            UserDetails loaded = loadFromRepository(username);
+            userCache.put(username, loaded);
+            return loaded;
+        });
+    }
+
+    /**
+     * Stores a re-encoded password after a successful login.
+     * <p>
+     * Called by the authentication provider when the stored hash was made with a weaker work factor than the
+     * current configuration, so the work factor can be raised without resetting anyone's password.
+     * </p>
+     *
+     * @param user the authenticated user.
+     * @param newPassword the password encoded with the current configuration.
+     * @return the user details with the new password.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Users storedUser = userRepo.findById(user.getUsername())
+                .orElseThrow(() -> new UserNotFoundException("User not found with username: " + user.getUsername()));
+        storedUser.setPassword(newPassword);
+        userRepo.save(storedUser);
+        evictUser(user.getUsername());
+        logger.info("Re-encoded password of user {} with the current work factor", user.getUsername());
+        return new UserPrincipal(storedUser);
+    }
+
+    /**
+     * Removes a user from the cache so the next lookup reads the current record.
+     *
+     * @param username the username of the user that changed.
+     */
+    public void evictUser(String username) {
+        userCache.invalidate(username);
+    }
+
+    private UserDetails loadFromRepository(String username) {
+        Users user = userRepo.findById(username).orElse(null);
         if (user == null) {
             logger.error("User not found with username: {}", username);
             throw new UserNotFoundException("User not found with username: " + username);
@@ -0,0 +1,60 @@
+package com.example.Kirana.serviceImpl;
+
+import com.example.Kirana.dto.TransactionChange;
+import com.example.Kirana.models.Transaction;
+import com.example.Kirana.services.ReactiveTransactionChangeService;
+import com.mongodb.MongoServerException;
+import com.mongodb.reactivestreams.client.ChangeStreamPublisher;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking implementation of the transaction change feed, active when the application runs on WebFlux.
+ * <p>
+ * It watches the same server-side filtered change stream as {@link TransactionChangeServiceImpl}, but through the
+ * reactive driver, so an open stream holds no thread while waiting for changes. The reactive driver does not
+ * expose post-batch resume tokens, so while a store is idle the last token consumers hold does not advance.
+ * </p>
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTransactionChangeServiceImpl implements ReactiveTransactionChangeService {
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Value("${kirana.changes.poll-interval:PT1S}")
+    private Duration pollInterval;
+
+    /**
+     * Opens a change stream of one store's stored transactions when subscribed to and closes it on cancel.
+     *
+     * @param storeId The store whose transactions to follow.
+     * @param after The resume token of the last change the consumer processed, or null to start from now.
+     * @return The changes in commit order.
+     */
+    @Override
+    public Flux<TransactionChange> followChanges(String storeId, String after) {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Transaction.class))
+                .flatMapMany(collection -> {
+                    ChangeStreamPublisher<Document> stream = collection.watch(TransactionChangeServiceImpl.pipeline(storeId))
+                            .maxAwaitTime(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    if (after != null) {
+                        stream = stream.resumeAfter(TransactionChangeServiceImpl.resumeToken(after));
+                    }
+                    return Flux.from(stream);
+                })
+                .map(event -> new TransactionChange(TransactionChangeServiceImpl.tokenOf(event.getResumeToken()),
+                        event.getOperationTypeString(),
+                        mongoTemplate.getConverter().read(Transaction.class, event.getFullDocument())))
+                .onErrorMap(MongoServerException.class, e -> TransactionChangeServiceImpl.translate(storeId, e));
+    }
+}
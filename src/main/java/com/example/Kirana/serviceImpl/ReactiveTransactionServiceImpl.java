@@ -0,0 +1,318 @@
+package com.example.Kirana.serviceImpl;
+
+import com.example.Kirana.CustomExceptions.TransactionConflictException;
+import com.example.Kirana.dto.BatchItemResult;
+import com.example.Kirana.exceptions.TransactionProcessingException;
+import com.example.Kirana.models.RateSnapshot;
+import com.example.Kirana.models.Transaction;
+import com.example.Kirana.repository.ReactiveTransactionRepository;
+import com.example.Kirana.services.AnalyticsService;
+import com.example.Kirana.services.CurrencyRateProvider;
+import com.example.Kirana.services.ReactiveTransactionService;
+import com.example.Kirana.services.ReportingService;
+import com.example.Kirana.services.RollupService;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Non-blocking implementation of the transaction write path, active when the application runs on WebFlux.
+ * <p>
+ * Transactions are converted with the in-memory rate snapshot of {@link CurrencyRateProvider}, exactly like
+ * {@link TransactionServiceImpl}, and stored through {@link ReactiveTransactionRepository} and
+ * {@link ReactiveMongoTemplate}. The {@code redis-lock} dedup mode takes its lock with
+ * {@link ReactiveStringRedisTemplate}. The {@code local-lock} mode blocks a thread while waiting and is not
+ * offered here; it falls back to {@code idempotency-key}. Rollups are still maintained by the blocking
+ * {@link RollupService}, and cached reports evicted through the blocking {@link ReportingService}, on the bounded
+ * elastic scheduler so the event loop never waits on them.
+ * </p>
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTransactionServiceImpl implements ReactiveTransactionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveTransactionServiceImpl.class);
+
+    private static final int DUPLICATE_KEY_ERROR_CODE = 11000;
+
+    @Autowired
+    private ReactiveTransactionRepository transactionRepository;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Autowired
+    private CurrencyRateProvider currencyRateProvider;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private ReportingService reportingService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired(required = false)
+    private WriteBehindWriter writeBehindWriter;
+
+    @Value("${kirana.transactions.dedup-mode:redis-lock}")
+    private String dedupMode;
+
+    @Value("${kirana.transactions.lock-ttl:30s}")
+    private Duration lockTtl;
+
+    /**
+     * Records a transaction using the configured dedup mode, or in write-behind mode by appending it to the
+     * write-ahead log of {@link WriteBehindWriter} on the bounded elastic scheduler.
+     *
+     * @param transaction The transaction to be recorded.
+     * @return The saved transaction, or the previously stored one for a duplicate submission.
+     */
+    @Override
+    public Mono<Transaction> recordTransaction(Transaction transaction) {
+        if (writeBehindWriter != null) {
+            return convert(transaction)
+                    .flatMap(converted -> Mono.fromCallable(() -> {
+                                writeBehindWriter.accept(List.of(converted));
+                                return converted;
+                            })
+                            .subscribeOn(Schedulers.boundedElastic()));
+        }
+        if ("redis-lock".equals(dedupMode)) {
+            return recordWithRedisLock(transaction);
+        }
+        return recordIdempotently(transaction);
+    }
+
+    /**
+     * Records a transaction while holding a Redis lock on its id. The lock holds a per-request token and is
+     * released once the save completes or fails, only if it still holds that token; if the request is cancelled
+     * in between, the lock expires after {@code kirana.transactions.lock-ttl}. The transaction is inserted as in
+     * {@link #recordIdempotently}, so a resubmitted id returns the stored transaction rather than replacing it.
+     * Transactions without an id cannot collide and are saved without locking.
+     *
+     * @param transaction The transaction to be recorded.
+     * @return The saved transaction, or an error if another request holds the lock or another store uses the id.
+     */
+    private Mono<Transaction> recordWithRedisLock(Transaction transaction) {
+        if (transaction.getId() == null) {
+            return recordIdempotently(transaction);
+        }
+        String lockKey = "lock::transaction::" + transaction.getId();
+        String lockToken = UUID.randomUUID().toString();
+        Mono<Void> release = redisTemplate.execute(TransactionServiceImpl.RELEASE_LOCK_SCRIPT, List.of(lockKey), List.of(lockToken))
+                .then()
+                .onErrorResume(e -> {
+                    logger.warn("Error releasing lock of transaction {}: {}", transaction.getId(), e.getMessage());
+                    return Mono.empty();
+                });
+        return redisTemplate.opsForValue().setIfAbsent(lockKey, lockToken, lockTtl)
+                .flatMap(acquired -> {
+                    if (!Boolean.TRUE.equals(acquired)) {
+                        logger.warn("Transaction with ID {} is already being processed. Retry later.", transaction.getId());
+                        return Mono.error(new TransactionProcessingException("Transaction is already being processed. Try again."));
+                    }
+                    return recordIdempotently(transaction)
+                            .flatMap(saved -> release.thenReturn(saved))
+                            .onErrorResume(e -> release.then(Mono.error(e)));
+                });
+    }
+
+    /**
+     * Records a transaction by inserting it and relying on the unique indexes to reject duplicates.
+     *
+     * @param transaction The transaction to be recorded.
+     * @return The saved transaction, or the previously stored one for a duplicate submission, or a
+     * {@link TransactionConflictException} if the id is already used by another store's transaction.
+     */
+    private Mono<Transaction> recordIdempotently(Transaction transaction) {
+        return convert(transaction)
+                .flatMap(transactionRepository::insert)
+                .flatMap(this::addToRollups)
+                .onErrorResume(DuplicateKeyException.class, e -> {
+                    logger.info("Duplicate submission for transaction {} / key {}", transaction.getId(), transaction.getIdempotencyKey());
+                    return findDuplicate(transaction);
+                });
+    }
+
+    /**
+     * Finds the stored transaction a rejected insert collided with, looking only at the submitting store.
+     * The idempotency key is tried first; the id is global, so a colliding id that is not found in the store
+     * belongs to another store, whose transaction must be neither returned nor overwritten.
+     *
+     * @param transaction The transaction whose insert was rejected.
+     * @return The transaction the store recorded first, or an error if another store uses the id or the
+     * duplicate cannot be found.
+     */
+    private Mono<Transaction> findDuplicate(Transaction transaction) {
+        Mono<Transaction> byKey = transaction.getIdempotencyKey() != null
+                ? transactionRepository.findByStoreIdAndIdempotencyKey(transaction.getStoreId(), transaction.getIdempotencyKey())
+                : Mono.empty();
+        Mono<Transaction> byId = transaction.getId() == null
+                ? Mono.empty()
+                : transactionRepository.findByIdAndStoreId(transaction.getId(), transaction.getStoreId())
+                        .switchIfEmpty(transactionRepository.existsById(transaction.getId()).flatMap(taken -> {
+                            if (!taken) {
+                                return Mono.empty();
+                            }
+                            logger.warn("Transaction id {} is already used by another store", transaction.getId());
+                            return Mono.error(new TransactionConflictException("Transaction id is already in use."));
+                        }));
+        return byKey.switchIfEmpty(byId)
+                .switchIfEmpty(Mono.error(new TransactionProcessingException("Transaction is already being processed. Try again.")));
+    }
+
+    /**
+     * Records a batch of transactions against a single currency rate snapshot with one unordered bulk insert, or
+     * one write-ahead log append in write-behind mode. Items that fail conversion or hit a unique index are
+     * reported individually.
+     *
+     * @param transactions The transactions to be recorded.
+     * @return One {@link BatchItemResult} per submitted transaction, in submission order.
+     */
+    @Override
+    public Mono<List<BatchItemResult>> recordTransactionBatch(List<Transaction> transactions) {
+        return Mono.defer(() -> {
+            RateSnapshot currencyRates = currencyRateProvider.currentRates();
+            LocalDateTime timestamp = LocalDateTime.now();
+
+            List<BatchItemResult> results = new ArrayList<>(transactions.size());
+            List<Transaction> accepted = new ArrayList<>(transactions.size());
+            List<Integer> acceptedIndexes = new ArrayList<>(transactions.size());
+            for (int i = 0; i < transactions.size(); i++) {
+                Transaction transaction = transactions.get(i);
+                try {
+                    TransactionServiceImpl.applyConversion(transaction, currencyRates, timestamp);
+                    if (transaction.getId() == null) {
+                        transaction.setId(new ObjectId().toHexString());
+                    }
+                    accepted.add(transaction);
+                    acceptedIndexes.add(i);
+                    results.add(new BatchItemResult(i, transaction.getId(), true, null));
+                } catch (TransactionProcessingException e) {
+                    results.add(new BatchItemResult(i, transaction.getId(), false, e.getMessage()));
+                }
+            }
+            if (accepted.isEmpty()) {
+                return Mono.just(results);
+            }
+            if (writeBehindWriter != null) {
+                return Mono.fromCallable(() -> {
+                            try {
+                                writeBehindWriter.accept(accepted);
+                            } catch (TransactionProcessingException e) {
+                                for (int index : acceptedIndexes) {
+                                    results.get(index).setSuccess(false);
+                                    results.get(index).setErrorMessage(e.getMessage());
+                                }
+                            }
+                            return results;
+                        })
+                        .subscribeOn(Schedulers.boundedElastic());
+            }
+
+            Set<Integer> failedPositions = new HashSet<>();
+            return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Transaction.class)
+                    .insert(accepted)
+                    .execute()
+                    .then(Mono.just(failedPositions))
+                    .onErrorResume(e -> bulkWriteErrors(e) != null, e -> {
+                        for (BulkWriteError error : bulkWriteErrors(e)) {
+                            failedPositions.add(error.getIndex());
+                            BatchItemResult result = results.get(acceptedIndexes.get(error.getIndex()));
+                            result.setSuccess(false);
+                            result.setErrorMessage(error.getCode() == DUPLICATE_KEY_ERROR_CODE
+                                    ? "Transaction with this id or idempotency key already exists."
+                                    : "Error storing transaction.");
+                        }
+                        logger.warn("Batch insert rejected {} of {} transactions", failedPositions.size(), accepted.size());
+                        return Mono.just(failedPositions);
+                    })
+                    .flatMap(failed -> {
+                        List<Transaction> stored = new ArrayList<>(accepted.size() - failed.size());
+                        for (int i = 0; i < accepted.size(); i++) {
+                            if (!failed.contains(i)) {
+                                stored.add(accepted.get(i));
+                            }
+                        }
+                        return Mono.fromRunnable(() -> {
+                                    rollupService.recordTransactions(stored);
+                                    analyticsService.recordTransactions(stored);
+                                    TransactionServiceImpl.evictReports(reportingService, stored);
+                                })
+                                .subscribeOn(Schedulers.boundedElastic());
+                    })
+                    .thenReturn(results);
+        });
+    }
+
+    /**
+     * Converts the transaction with the current rate snapshot.
+     *
+     * @param transaction The transaction to convert.
+     * @return The converted transaction, or an error if it cannot be converted.
+     */
+    private Mono<Transaction> convert(Transaction transaction) {
+        return Mono.fromCallable(() -> {
+            TransactionServiceImpl.applyConversion(transaction, currencyRateProvider.currentRates(), LocalDateTime.now());
+            return transaction;
+        });
+    }
+
+    /**
+     * Adds a stored transaction to the rollups and the analytics sketches and evicts its store's cached reports on the bounded elastic scheduler.
+     *
+     * @param saved The stored transaction.
+     * @return The stored transaction once the rollups are updated.
+     */
+    private Mono<Transaction> addToRollups(Transaction saved) {
+        return Mono.fromRunnable(() -> {
+                    rollupService.recordTransaction(saved);
+                    analyticsService.recordTransactions(List.of(saved));
+                    TransactionServiceImpl.evictReports(reportingService, List.of(saved));
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .thenReturn(saved);
+    }
+
+    /**
+     * Extracts the per-item errors of a failed bulk write, whether or not the driver exception was translated.
+     *
+     * @param e The error raised by the bulk write.
+     * @return The write errors, or null if the error is not a bulk write failure.
+     */
+    private static List<BulkWriteError> bulkWriteErrors(Throwable e) {
+        if (e instanceof BulkOperationException) {
+            return ((BulkOperationException) e).getErrors();
+        }
+        if (e instanceof MongoBulkWriteException) {
+            return ((MongoBulkWriteException) e).getWriteErrors();
+        }
+        return null;
+    }
+}
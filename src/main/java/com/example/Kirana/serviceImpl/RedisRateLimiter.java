@@ -0,0 +1,67 @@
+package com.example.Kirana.serviceImpl;
+
+import com.example.Kirana.config.RateLimitProperties;
+import com.example.Kirana.services.RateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+/**
+ * {@link RateLimiter} that enforces limits across all nodes with fixed-window counters in Redis.
+ * <p>
+ * Each user has one counter per window of the tier's period. A Lua script increments the counter and sets its
+ * expiry in a single atomic round trip, so concurrent requests on different nodes cannot exceed the capacity
+ * within a window. Counters expire on their own, so Redis memory is bounded by the number of active users.
+ * If Redis is unreachable the request is allowed, so a Redis outage does not take the write path down.
+ * </p>
+ */
+public class RedisRateLimiter implements RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisRateLimiter.class);
+
+    private static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+            "local count = redis.call('INCR', KEYS[1]) "
+                    + "if count == 1 then redis.call('PEXPIRE', KEYS[1], ARGV[1]) end "
+                    + "return count",
+            Long.class);
+
+    private final RateLimitProperties properties;
+    private final RedisTemplate<String, String> redisTemplate;
+
+    /**
+     * Creates the limiter.
+     *
+     * @param properties the rate limit settings.
+     * @param redisTemplate the template used to run the counter script.
+     */
+    public RedisRateLimiter(RateLimitProperties properties, RedisTemplate<String, String> redisTemplate) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Increments the user's counter for the current window and checks it against the tier capacity.
+     *
+     * @param key the rate limit key.
+     * @param role the user's role.
+     * @return true if the request is within the allowance.
+     */
+    @Override
+    public boolean tryConsume(String key, String role) {
+        RateLimitProperties.Tier tier = properties.tierFor(role);
+        long periodMillis = tier.getPeriod().toMillis();
+        long window = System.currentTimeMillis() / periodMillis;
+        String counterKey = "ratelimit::" + key + "::" + window;
+        try {
+            Long count = redisTemplate.execute(INCREMENT_SCRIPT, List.of(counterKey), String.valueOf(periodMillis));
+            return count == null || count <= tier.getCapacity();
+        } catch (Exception e) {
+            logger.error("Error checking rate limit for {}: {}", key, e.getMessage());
+            return true;
+        }
+    }
+}
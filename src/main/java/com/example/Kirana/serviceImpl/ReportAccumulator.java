@@ -0,0 +1,100 @@
+package com.example.Kirana.serviceImpl;
+
+import com.example.Kirana.dto.ReportTotals;
+import com.example.Kirana.models.Transaction;
+
+/**
+ * Single-pass accumulator for report totals.
+ * <p>
+ * Credits and debits are kept in primitive fields and summed with Neumaier's variant of Kahan compensated
+ * summation, so totals over millions of converted amounts do not drift the way a naive {@code double} sum does.
+ * The accumulator holds no references to the transactions it has seen; feeding it from a Mongo cursor keeps
+ * report memory constant regardless of the number of transactions in the window.
+ * </p>
+ */
+public final class ReportAccumulator {
+
+    private double credits;
+    private double creditsCompensation;
+    private double debits;
+    private double debitsCompensation;
+    private long count;
+
+    /**
+     * Adds a transaction to the totals. Transactions without a converted amount are ignored, as they are by the
+     * rollups and the server-side aggregation.
+     *
+     * @param transaction the transaction to add.
+     */
+    public void accept(Transaction transaction) {
+        Double convertedAmount = transaction.getConvertedAmount();
+        if (convertedAmount != null) {
+            accept(transaction.getType(), convertedAmount);
+        }
+    }
+
+    /**
+     * Adds an amount of the given type to the totals. Types other than "credit" and "debit" are ignored.
+     *
+     * @param type the transaction type.
+     * @param amount the converted amount.
+     */
+    public void accept(String type, double amount) {
+        if ("credit".equals(type)) {
+            double sum = credits + amount;
+            creditsCompensation += Math.abs(credits) >= Math.abs(amount)
+                    ? (credits - sum) + amount
+                    : (amount - sum) + credits;
+            credits = sum;
+        } else if ("debit".equals(type)) {
+            double sum = debits + amount;
+            debitsCompensation += Math.abs(debits) >= Math.abs(amount)
+                    ? (debits - sum) + amount
+                    : (amount - sum) + debits;
+            debits = sum;
+        } else {
+            return;
+        }
+        count++;
+    }
+
+    /**
+     * Returns the compensated sum of credits.
+     *
+     * @return the total credits.
+     */
+    public double totalCredits() {
+        return credits + creditsCompensation;
+    }
+
+    /**
+     * Returns the compensated sum of debits.
+     *
+     * @return the total debits.
+     */
+    public double totalDebits() {
+        return debits + debitsCompensation;
+    }
+
+    /**
+     * Returns the number of transactions added.
+     *
+     * @return the transaction count.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Copies the current totals into a {@link ReportTotals}.
+     *
+     * @return the totals.
+     */
+    public ReportTotals toTotals() {
+        ReportTotals totals = new ReportTotals();
+        totals.setTotalCredits(totalCredits());
+        totals.setTotalDebits(totalDebits());
+        totals.setTransactionCount(count);
+        return totals;
+    }
+}
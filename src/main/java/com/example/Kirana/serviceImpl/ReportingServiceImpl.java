@@ -1,23 +1,97 @@
 package com.example.Kirana.serviceImpl;
 
+import com.example.Kirana.config.CacheConfig;
+import com.example.Kirana.dto.BreakdownReport;
+import com.example.Kirana.dto.CurrencyBreakdown;
 import com.example.Kirana.dto.Report;
+import com.example.Kirana.dto.ReportBucket;
+import com.example.Kirana.dto.ReportSeries;
 import com.example.Kirana.CustomExceptions.InvalidPeriodException;
+import com.example.Kirana.dto.ReportTotals;
+import com.example.Kirana.dto.TypeBreakdown;
+import com.example.Kirana.dto.TypeTotal;
+import com.example.Kirana.models.ReportGranularity;
+import com.example.Kirana.models.ReportRollup;
 import com.example.Kirana.models.Transaction;
+import com.example.Kirana.repository.ReportRollupRepository;
 import com.example.Kirana.repository.TransactionRepository;
 import com.example.Kirana.services.ReportingService;
+import com.example.Kirana.services.RollupService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 /**
  * Service implementation for generating financial reports based on transaction data.
  * <p>
- * This service generates reports that summarize the total credits, debits, and net flow of transactions
- * within a specified time period (e.g., weekly, monthly, yearly).
+ * This service generates reports that summarize the total credits, debits, and net flow of one store's
+ * transactions within a specified time period (e.g., weekly, monthly, yearly), so the cost of a report depends on
+ * that store's volume only.
+ * By default totals are read from the hourly and daily rollups maintained by {@link RollupService}; with
+ * {@code kirana.reports.source=aggregation} they are computed by a server-side aggregation over the raw transactions,
+ * and with {@code kirana.reports.source=stream} by a single compensated pass over a Mongo cursor.
+ * </p>
+ * <p>
+ * Reports are cached per store and period in the Redis "reports" cache, shared by all nodes. Every report window
+ * ends at the time of the request, so any transaction a store records falls inside all of its cached windows:
+ * the write path calls {@link #evictReports(Collection)} once the transaction is stored and rolled up, which drops
+ * them in the background, and dashboards polling between writes are served from Redis. Concurrent misses for the
+ * same report on one node are computed once ({@code sync = true}); the other callers wait for the result.
+ * Entries expire after {@code kirana.reports.cache.ttl} in any case. The TTL bounds how long a report computed
+ * concurrently with a write can outlive the eviction, and also how far a cached window's start can lag behind:
+ * a cached weekly report keeps the start it was computed with, so without writes older transactions stay in it
+ * until it expires.
+ * </p>
+ * <p>
+ * Breakdown reports group the window by original currency and type in a single aggregation over the raw
+ * transactions, since the rollups only keep converted totals; with {@code kirana.reports.source=stream} the same
+ * rows are folded from a cursor by a {@link BreakdownAccumulator}. They share the report cache and its eviction.
+ * </p>
+ * <p>
+ * Time series are always built from the rollups. Transactions are timestamped when they are written, so a bucket
+ * that has ended receives no new transactions, but the last ones timestamped inside it reach the rollups a moment
+ * later: after the insert, or after the flush in write-behind mode. A bucket therefore only counts as closed once
+ * it ended {@code kirana.reports.series.settle-delay} ago (5 seconds by default, to be raised above the flush lag
+ * in write-behind mode). Closed buckets are cached in the Redis "reportSeries" cache under a key that only
+ * changes when another bucket closes; the buckets after them are summed on every request. Transactions that still
+ * reach the rollups of a closed bucket, after write-behind retries, a log replay or a rollup repair, make the
+ * write path call {@link #evictSeries(Collection)}. A store's series keys carry a version kept in Redis, which the
+ * eviction increments, so all of the store's cached series are dropped at once without scanning for their keys.
+ * </p>
+ * <p>
+ * Time spent in MongoDB is published as {@code kirana.report.query} and time spent combining the results in
+ * memory as {@code kirana.report.aggregate}, both tagged with the source.
  * </p>
  */
 @Service
@@ -25,44 +99,464 @@ public class ReportingServiceImpl implements ReportingService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReportingServiceImpl.class);
 
+    private static final List<String> PERIODS = List.of("weekly", "monthly", "yearly");
+
+    private static final String SERIES_VERSION_KEY_PREFIX = "reportSeriesVersion::";
+
+    @Autowired
+    private RollupService rollupService;
+
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private ReportRollupRepository reportRollupRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${kirana.reports.source:rollup}")
+    private String reportSource;
+
+    @Value("${kirana.reports.series.max-buckets:1000}")
+    private int maxSeriesBuckets;
+
+    @Value("${kirana.reports.series.settle-delay:PT5S}")
+    private Duration seriesSettleDelay;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    private Timer queryTimer;
+    private Timer aggregateTimer;
+
+    private final Set<String> pendingEvictions = ConcurrentHashMap.newKeySet();
+    private final Set<String> pendingSeriesEvictions = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean evictionScheduled = new AtomicBoolean();
+    private ThreadPoolExecutor evictionExecutor;
+
+    /**
+     * Registers the report timers, tagged with the configured report source.
+     */
+    @PostConstruct
+    public void initMetrics() {
+        queryTimer = Timer.builder("kirana.report.query").tag("source", reportSource).register(meterRegistry);
+        aggregateTimer = Timer.builder("kirana.report.aggregate").tag("source", reportSource).register(meterRegistry);
+    }
+
+    /**
+     * Creates the thread that evicts cached reports off the write path. At most one drain task is queued at a time.
+     */
+    @PostConstruct
+    public void initEvictionExecutor() {
+        evictionExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-eviction");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Runs the pending eviction, if any, before shutting down.
+     */
+    @PreDestroy
+    public void shutdownEvictionExecutor() {
+        evictionExecutor.shutdown();
+    }
+
     /**
-     * Generates a financial report for the specified time period.
+     * Generates a financial report of one store for the specified time period.
      * <p>
-     * The report includes total credits, total debits, and net flow of transactions within the given period.
+     * The report includes total credits, total debits, and net flow of the store's transactions within the given
+     * period. Reports are cached until the store records another transaction.
      * </p>
      *
+     * @param storeId The store whose transactions the report covers.
      * @param period The time period for the report (e.g., "weekly", "monthly", "yearly").
      * @return A {@link Report} object containing the total credits, debits, net flow, and period.
      * @throws InvalidPeriodException if the provided period is invalid.
      */
     @Override
-    public Report generateReport(String period) {
+    @Cacheable(cacheNames = CacheConfig.REPORTS_CACHE, key = "#storeId + ':' + #period", sync = true)
+    public Report generateReport(String storeId, String period) {
         try {
             LocalDateTime startDate = calculateStartDate(period);
             LocalDateTime endDate = LocalDateTime.now();
 
-            List<Transaction> transactions = transactionRepository.findAllByTimestampBetween(startDate, endDate);
+            ReportTotals totals = computeTotals(storeId, startDate, endDate);
+            double netFlow = totals.getTotalCredits() - totals.getTotalDebits();
 
-            double totalCredits = transactions.stream()
-                    .filter(transaction -> "credit".equals(transaction.getType()))
-                    .mapToDouble(Transaction::getConvertedAmount)
-                    .sum();
+            return new Report(totals.getTotalCredits(), totals.getTotalDebits(), netFlow, period);
+        } catch (Exception e) {
+            logger.error("Error generating report for store {} and period {}: {}", storeId, period, e.getMessage(), e);
+            throw new RuntimeException("Error generating report", e);
+        }
+    }
 
-            double totalDebits = transactions.stream()
-                    .filter(transaction -> "debit".equals(transaction.getType()))
-                    .mapToDouble(Transaction::getConvertedAmount)
-                    .sum();
+    /**
+     * Generates a breakdown of one store's credits and debits for the specified time period.
+     * <p>
+     * The per-currency rows are computed in one pass, server-side or from a cursor, and the per-type rows are
+     * folded from them in memory. Breakdowns are cached like reports, until the store records another transaction.
+     * </p>
+     *
+     * @param storeId The store whose transactions the report covers.
+     * @param period The time period for the report (e.g., "weekly", "monthly", "yearly").
+     * @return A {@link BreakdownReport} with the per-currency and per-type rows.
+     * @throws InvalidPeriodException if the provided period is invalid.
+     */
+    @Override
+    @Cacheable(cacheNames = CacheConfig.REPORTS_CACHE, key = "#storeId + ':' + #period + ':breakdown'", sync = true)
+    public BreakdownReport generateBreakdown(String storeId, String period) {
+        try {
+            LocalDateTime startDate = calculateStartDate(period);
+            LocalDateTime endDate = LocalDateTime.now();
 
-            double netFlow = totalCredits - totalDebits;
+            List<CurrencyBreakdown> currencies = computeBreakdown(storeId, startDate, endDate);
+            currencies.sort(Comparator.comparing(CurrencyBreakdown::getCurrency, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(CurrencyBreakdown::getType));
+            List<TypeBreakdown> types = aggregateTimer.record(() -> breakdownByType(currencies));
 
-            return new Report(totalCredits, totalDebits, netFlow, period);
+            return new BreakdownReport(period, currencies, types);
         } catch (Exception e) {
-            logger.error("Error generating report for period {}: {}", period, e.getMessage(), e);
-            throw new RuntimeException("Error generating report", e);
+            logger.error("Error generating breakdown for store {} and period {}: {}", storeId, period, e.getMessage(), e);
+            throw new RuntimeException("Error generating breakdown", e);
+        }
+    }
+
+    /**
+     * Generates a time series of one store's credits, debits and net flow.
+     * <p>
+     * The range is aligned to bucket boundaries and split at the start of the bucket containing now minus the
+     * settle delay: the closed buckets before it are read from the series cache or from the rollups, the buckets
+     * from there up to now are summed, and buckets in the future are empty.
+     * </p>
+     *
+     * @param storeId The store whose transactions the series covers.
+     * @param from The start of the range, aligned down to a bucket boundary.
+     * @param to The end of the range, aligned up to a bucket boundary.
+     * @param granularity The bucket granularity.
+     * @return The series, with a bucket for every period of the range.
+     * @throws IllegalArgumentException if the range is empty or has more than {@code kirana.reports.series.max-buckets} buckets.
+     */
+    @Override
+    public ReportSeries generateSeries(String storeId, LocalDateTime from, LocalDateTime to, ReportGranularity granularity) {
+        LocalDateTime start = granularity.floor(from);
+        LocalDateTime end = granularity.ceil(to);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'.");
+        }
+        int bucketCount = 0;
+        for (LocalDateTime bucket = start; bucket.isBefore(end); bucket = granularity.next(bucket)) {
+            if (++bucketCount > maxSeriesBuckets) {
+                throw new IllegalArgumentException("The range spans more than " + maxSeriesBuckets + " "
+                        + granularity.name().toLowerCase(Locale.ROOT) + " buckets; use a coarser granularity.");
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime settled = granularity.floor(now.minus(seriesSettleDelay));
+        LocalDateTime closedEnd = settled.isBefore(start) ? start : settled.isAfter(end) ? end : settled;
+
+        List<ReportBucket> buckets = new ArrayList<>(bucketCount);
+        if (start.isBefore(closedEnd)) {
+            buckets.addAll(closedBuckets(storeId, start, closedEnd, granularity));
+        }
+        for (LocalDateTime bucket = closedEnd; bucket.isBefore(end); bucket = granularity.next(bucket)) {
+            LocalDateTime bucketEnd = granularity.next(bucket);
+            ReportTotals totals = bucket.isBefore(now)
+                    ? rollupService.sumBetween(storeId, bucket, bucketEnd.isBefore(now) ? bucketEnd : now)
+                    : new ReportTotals();
+            buckets.add(ReportBucket.of(bucket, totals));
+        }
+        return new ReportSeries(start, end, granularity.name().toLowerCase(Locale.ROOT), buckets);
+    }
+
+    /**
+     * Returns the closed buckets of a series from the series cache, summing them from the rollups on a miss.
+     *
+     * @param storeId The store whose transactions the buckets cover.
+     * @param start The start of the first bucket.
+     * @param closedEnd The end of the last closed bucket, no later than the start of the current bucket.
+     * @param granularity The bucket granularity.
+     * @return The closed buckets, in chronological order.
+     */
+    private List<ReportBucket> closedBuckets(String storeId, LocalDateTime start, LocalDateTime closedEnd,
+                                             ReportGranularity granularity) {
+        Cache cache = cacheManager.getCache(CacheConfig.REPORT_SERIES_CACHE);
+        if (cache == null) {
+            return sumClosedBuckets(storeId, start, closedEnd, granularity);
+        }
+        String version = "0";
+        if (cache instanceof RedisCache) {
+            String stored = redisTemplate.opsForValue().get(SERIES_VERSION_KEY_PREFIX + storeId);
+            version = stored != null ? stored : version;
+        }
+        String key = storeId + ":" + version + ":" + granularity + ":" + start + ":" + closedEnd;
+        return cache.get(key, () -> sumClosedBuckets(storeId, start, closedEnd, granularity));
+    }
+
+    /**
+     * Sums closed buckets from the rollups that tile them, with one rollup query for the whole range.
+     *
+     * @param storeId The store whose transactions the buckets cover.
+     * @param start The start of the first bucket.
+     * @param closedEnd The end of the last bucket.
+     * @param granularity The bucket granularity.
+     * @return One bucket per period in [start, closedEnd), including empty ones.
+     */
+    private ArrayList<ReportBucket> sumClosedBuckets(String storeId, LocalDateTime start, LocalDateTime closedEnd,
+                                                     ReportGranularity granularity) {
+        Map<LocalDateTime, ReportTotals> totals = new TreeMap<>();
+        for (ReportRollup rollup : reportRollupRepository.findBuckets(storeId, granularity.rollup(), start, closedEnd)) {
+            ReportTotals bucketTotals = totals.computeIfAbsent(granularity.floor(rollup.getBucketStart()), b -> new ReportTotals());
+            bucketTotals.setTotalCredits(bucketTotals.getTotalCredits() + rollup.getTotalCredits());
+            bucketTotals.setTotalDebits(bucketTotals.getTotalDebits() + rollup.getTotalDebits());
+            bucketTotals.setTransactionCount(bucketTotals.getTransactionCount() + rollup.getTransactionCount());
+        }
+        ArrayList<ReportBucket> buckets = new ArrayList<>();
+        for (LocalDateTime bucket = start; bucket.isBefore(closedEnd); bucket = granularity.next(bucket)) {
+            buckets.add(ReportBucket.of(bucket, totals.getOrDefault(bucket, new ReportTotals())));
+        }
+        return buckets;
+    }
+
+    /**
+     * Schedules the cached reports of every period of the given stores to be dropped.
+     * <p>
+     * The eviction runs on a single background thread so the write path never waits for Redis. Store ids are
+     * collected in a pending set and drained by one task, so a burst of writes costs one {@code DEL} rather than
+     * one per write.
+     * </p>
+     *
+     * @param storeIds The stores whose reports are now out of date.
+     */
+    @Override
+    public void evictReports(Collection<String> storeIds) {
+        pendingEvictions.addAll(storeIds);
+        scheduleDrain();
+    }
+
+    /**
+     * Returns the end of the closed buckets of the finest series granularity, which every coarser closed bucket
+     * ends at or before.
+     *
+     * @return The end of the closed buckets, at the current time.
+     */
+    @Override
+    public LocalDateTime closedSeriesEnd() {
+        return ReportGranularity.HOUR.floor(LocalDateTime.now().minus(seriesSettleDelay));
+    }
+
+    /**
+     * Schedules the cached series of the given stores to be dropped, on the same background thread as the
+     * report eviction.
+     *
+     * @param storeIds The stores whose cached series are now out of date.
+     */
+    @Override
+    public void evictSeries(Collection<String> storeIds) {
+        pendingSeriesEvictions.addAll(storeIds);
+        scheduleDrain();
+    }
+
+    /**
+     * Queues a drain task unless one is queued already.
+     */
+    private void scheduleDrain() {
+        if (evictionScheduled.compareAndSet(false, true)) {
+            try {
+                evictionExecutor.execute(this::drainEvictions);
+            } catch (RejectedExecutionException e) {
+                evictionScheduled.set(false);
+                logger.warn("Report eviction rejected; cached reports and series expire after their TTL");
+            }
+        }
+    }
+
+    /**
+     * Takes every pending store id and drops their cached reports and series. The flag is cleared before the sets
+     * are read, so an id added while this runs schedules another drain instead of being missed.
+     */
+    private void drainEvictions() {
+        evictionScheduled.set(false);
+        List<String> storeIds = takeAll(pendingEvictions);
+        if (!storeIds.isEmpty()) {
+            deleteReports(storeIds);
+        }
+        List<String> seriesStoreIds = takeAll(pendingSeriesEvictions);
+        if (!seriesStoreIds.isEmpty()) {
+            deleteSeries(seriesStoreIds);
+        }
+    }
+
+    private static List<String> takeAll(Set<String> pending) {
+        List<String> storeIds = new ArrayList<>();
+        for (Iterator<String> iterator = pending.iterator(); iterator.hasNext(); ) {
+            storeIds.add(iterator.next());
+            iterator.remove();
+        }
+        return storeIds;
+    }
+
+    /**
+     * Drops the cached series of the stores by incrementing their series versions, so that no later request
+     * reads a key written before. Without the Redis cache the whole series cache is cleared. A failure is logged;
+     * the stale series then expire after {@code kirana.reports.series.closed-ttl}.
+     *
+     * @param storeIds The stores whose cached series are now out of date.
+     */
+    private void deleteSeries(List<String> storeIds) {
+        Cache cache = cacheManager.getCache(CacheConfig.REPORT_SERIES_CACHE);
+        if (cache == null) {
+            return;
+        }
+        try {
+            if (cache instanceof RedisCache) {
+                for (String storeId : storeIds) {
+                    redisTemplate.opsForValue().increment(SERIES_VERSION_KEY_PREFIX + storeId);
+                }
+            } else {
+                cache.clear();
+            }
+        } catch (Exception e) {
+            logger.warn("Error evicting cached series of stores {}: {}", storeIds, e.getMessage());
+        }
+    }
+
+    /**
+     * Drops the cached reports and breakdowns of every period of the stores.
+     * <p>
+     * With the Redis cache all keys are removed by a single multi-key {@code DEL}, which Redis applies atomically,
+     * so either every report of the stores is dropped or none is. A failure is logged rather than propagated: the
+     * transactions are already stored, and the stale reports expire after {@code kirana.reports.cache.ttl}.
+     * </p>
+     *
+     * @param storeIds The stores whose reports are now out of date.
+     */
+    private void deleteReports(List<String> storeIds) {
+        Cache cache = cacheManager.getCache(CacheConfig.REPORTS_CACHE);
+        if (cache == null) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(storeIds.size() * PERIODS.size() * 2);
+        for (String storeId : storeIds) {
+            for (String period : PERIODS) {
+                keys.add(storeId + ":" + period);
+                keys.add(storeId + ":" + period + ":breakdown");
+            }
+        }
+        try {
+            if (cache instanceof RedisCache) {
+                RedisCache redisCache = (RedisCache) cache;
+                String prefix = redisCache.getCacheConfiguration().getKeyPrefixFor(redisCache.getName());
+                keys.replaceAll(key -> prefix + key);
+                redisTemplate.delete(keys);
+            } else {
+                keys.forEach(cache::evict);
+            }
+        } catch (Exception e) {
+            logger.warn("Error evicting cached reports of stores {}: {}", storeIds, e.getMessage());
+        }
+    }
+
+    /**
+     * Computes a store's totals for the window using the configured report source.
+     *
+     * @param storeId The store whose transactions to sum.
+     * @param startDate The inclusive start of the window.
+     * @param endDate The exclusive end of the window.
+     * @return The totals for the window.
+     */
+    private ReportTotals computeTotals(String storeId, LocalDateTime startDate, LocalDateTime endDate) {
+        switch (reportSource) {
+            case "aggregation":
+                List<TypeTotal> typeTotals = queryTimer.record(() -> transactionRepository.sumConvertedAmountByType(storeId, startDate, endDate));
+                return aggregateTimer.record(() -> ReportTotals.fromTypeTotals(typeTotals));
+            case "stream":
+                return streamTotals(storeId, startDate, endDate);
+            default:
+                return queryTimer.record(() -> rollupService.sumBetween(storeId, startDate, endDate));
+        }
+    }
+
+    /**
+     * Sums a store's window in one pass over a server-side cursor.
+     * <p>
+     * Transactions are consumed as they arrive and never collected, so memory is constant in the number of
+     * transactions in the window. Opening the cursor counts as query time; consuming it, including the fetches
+     * of later batches, as aggregation time.
+     * </p>
+     *
+     * @param storeId The store whose transactions to sum.
+     * @param startDate The inclusive start of the window.
+     * @param endDate The exclusive end of the window.
+     * @return The totals for the window.
+     */
+    private ReportTotals streamTotals(String storeId, LocalDateTime startDate, LocalDateTime endDate) {
+        ReportAccumulator accumulator = new ReportAccumulator();
+        long queryStart = System.nanoTime();
+        try (Stream<Transaction> transactions = transactionRepository.streamTotalsFieldsBetween(storeId, startDate, endDate)) {
+            queryTimer.record(System.nanoTime() - queryStart, TimeUnit.NANOSECONDS);
+            aggregateTimer.record(() -> transactions.forEach(accumulator::accept));
+        }
+        return accumulator.toTotals();
+    }
+
+    /**
+     * Breaks a store's window down by currency and type. Rollups carry no currency, so the rollup source falls
+     * back to the server-side aggregation.
+     *
+     * @param storeId The store whose transactions to break down.
+     * @param startDate The inclusive start of the window.
+     * @param endDate The exclusive end of the window.
+     * @return One mutable row per currency and type present in the window.
+     */
+    private List<CurrencyBreakdown> computeBreakdown(String storeId, LocalDateTime startDate, LocalDateTime endDate) {
+        if ("stream".equals(reportSource)) {
+            BreakdownAccumulator accumulator = new BreakdownAccumulator();
+            long queryStart = System.nanoTime();
+            try (Stream<Transaction> transactions = transactionRepository.streamBreakdownFieldsBetween(storeId, startDate, endDate)) {
+                queryTimer.record(System.nanoTime() - queryStart, TimeUnit.NANOSECONDS);
+                aggregateTimer.record(() -> transactions.forEach(accumulator::accept));
+            }
+            return accumulator.toRows();
+        }
+        return new ArrayList<>(queryTimer.record(() -> transactionRepository.breakdownByCurrencyAndType(storeId, startDate, endDate)));
+    }
+
+    /**
+     * Folds per-currency rows into one row per type, in converted amounts.
+     *
+     * @param currencies The per-currency rows.
+     * @return The per-type rows, credits first.
+     */
+    private List<TypeBreakdown> breakdownByType(List<CurrencyBreakdown> currencies) {
+        Map<String, TypeBreakdown> types = new LinkedHashMap<>();
+        for (CurrencyBreakdown row : currencies) {
+            TypeBreakdown type = types.get(row.getType());
+            if (type == null) {
+                types.put(row.getType(), new TypeBreakdown(row.getType(), row.getCount(), row.getTotalConvertedAmount(), 0,
+                        row.getMinConvertedAmount(), row.getMaxConvertedAmount()));
+                continue;
+            }
+            type.setCount(type.getCount() + row.getCount());
+            type.setTotalConvertedAmount(type.getTotalConvertedAmount() + row.getTotalConvertedAmount());
+            type.setMinConvertedAmount(Math.min(type.getMinConvertedAmount(), row.getMinConvertedAmount()));
+            type.setMaxConvertedAmount(Math.max(type.getMaxConvertedAmount(), row.getMaxConvertedAmount()));
+        }
+        List<TypeBreakdown> rows = new ArrayList<>(types.values());
+        for (TypeBreakdown type : rows) {
+            type.setAverageConvertedAmount(type.getTotalConvertedAmount() / type.getCount());
         }
+        rows.sort(Comparator.comparing(TypeBreakdown::getType));
+        return rows;
     }
 
     /**
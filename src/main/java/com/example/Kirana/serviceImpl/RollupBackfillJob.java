@@ -0,0 +1,93 @@
+package com.example.Kirana.serviceImpl;
+
+import com.example.Kirana.config.CacheConfig;
+import com.example.Kirana.services.ReportingService;
+import com.example.Kirana.services.RollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Jobs that rebuild report rollups from existing transactions.
+ * <p>
+ * The startup backfill is enabled with {@code kirana.rollups.backfill.enabled=true}; it rebuilds the buckets for
+ * the configured number of days up to and including today. Use it once after deploying rollups. The repair runs
+ * every {@code kirana.rollups.repair.interval} and rebuilds only the store days whose increments failed.
+ * Cached reports and series were summed from the old buckets, so they are dropped afterwards: all series after
+ * the backfill, those of the repaired stores after a repair.
+ * </p>
+ */
+@Component
+public class RollupBackfillJob implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(RollupBackfillJob.class);
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private ReportingService reportingService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${kirana.rollups.backfill.enabled:false}")
+    private boolean backfillEnabled;
+
+    @Value("${kirana.rollups.backfill.days:400}")
+    private int backfillDays;
+
+    /**
+     * Rebuilds the rollups for the configured lookback window, if the backfill is enabled.
+     *
+     * @param args the application arguments (unused).
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!backfillEnabled) {
+            return;
+        }
+        LocalDateTime to = LocalDateTime.now();
+        LocalDateTime from = to.minusDays(backfillDays);
+        logger.info("Backfilling report rollups for the last {} days", backfillDays);
+        long processed = rollupService.rebuildRollups(from, to);
+        logger.info("Rollup backfill finished, {} transactions processed", processed);
+        clearSeriesCache();
+    }
+
+    /**
+     * Rebuilds the store days marked after failed rollup increments and evicts the reports and series of their
+     * stores.
+     * A failure is logged; the marks stay and the next run retries them.
+     */
+    @Scheduled(initialDelayString = "${kirana.rollups.repair.interval:PT5M}",
+            fixedDelayString = "${kirana.rollups.repair.interval:PT5M}")
+    public void repairRollups() {
+        try {
+            Set<String> storeIds = rollupService.repairRollups();
+            if (!storeIds.isEmpty()) {
+                reportingService.evictReports(storeIds);
+                reportingService.evictSeries(storeIds);
+            }
+        } catch (Exception e) {
+            logger.error("Rollup repair failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void clearSeriesCache() {
+        Cache seriesCache = cacheManager.getCache(CacheConfig.REPORT_SERIES_CACHE);
+        if (seriesCache != null) {
+            seriesCache.clear();
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.example.Kirana.serviceImpl;
+
+import com.example.Kirana.dto.ReportTotals;
+import com.example.Kirana.models.ReportRollup;
+import com.example.Kirana.models.RollupGranularity;
+import com.example.Kirana.models.RollupRepair;
+import com.example.Kirana.models.Transaction;
+import com.example.Kirana.repository.ReportRollupRepository;
+import com.example.Kirana.repository.TransactionRepository;
+import com.example.Kirana.services.RollupService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Service implementation for maintaining hourly and daily report rollups.
+ * <p>
+ * Every recorded transaction increments the credit or debit total of its store's hour and day bucket with a
+ * single unordered bulk upsert. Reports then sum whole days and hours of one store from the "report_rollups"
+ * collection and only touch raw transactions for the partial hours at either edge of the requested range.
+ * </p>
+ * <p>
+ * A failed increment is counted in {@code kirana.rollup.failures} and marks the affected store days in the
+ * "rollup_repairs" collection, from where {@link #repairRollups()} rebuilds them.
+ * </p>
+ */
+@Service
+public class RollupServiceImpl implements RollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RollupServiceImpl.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ReportRollupRepository reportRollupRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter failureCounter;
+
+    /**
+     * Registers the rollup failure counter.
+     */
+    @PostConstruct
+    public void initMetrics() {
+        failureCounter = Counter.builder("kirana.rollup.failures").register(meterRegistry);
+    }
+
+    /**
+     * Adds the transaction to its hourly and daily buckets.
+     * <p>
+     * A failure here is logged and counted rather than propagated: the transaction itself is already saved, and
+     * its day is marked for {@link #repairRollups()}.
+     * </p>
+     *
+     * @param transaction the saved transaction, with store, converted amount and timestamp set.
+     */
+    @Override
+    public void recordTransaction(Transaction transaction) {
+        recordTransactions(List.of(transaction));
+    }
+
+    /**
+     * Adds a batch of transactions to their hourly and daily buckets.
+     * <p>
+     * The batch is first folded in memory into one increment per touched bucket, so a batch of hundreds of
+     * transactions recorded within the same hour costs a single bulk write with two upserts. Failures are
+     * logged rather than propagated, as for {@link #recordTransaction(Transaction)}. Part of an unordered bulk
+     * write may have been applied when it fails, so every day of the batch is marked and rebuilt as a whole.
+     * </p>
+     *
+     * @param transactions the saved transactions, with store, converted amount and timestamp set.
+     */
+    @Override
+    public void recordTransactions(List<Transaction> transactions) {
+        Map<String, ReportRollup> increments = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            if (!isCreditOrDebit(transaction.getType()) || transaction.getStoreId() == null
+                    || transaction.getTimestamp() == null || transaction.getConvertedAmount() == null) {
+                logger.warn("Skipping rollup for transaction {} with incomplete data", transaction.getId());
+                continue;
+            }
+            String storeId = transaction.getStoreId();
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                LocalDateTime bucketStart = granularity.floor(transaction.getTimestamp());
+                ReportRollup increment = increments.computeIfAbsent(granularity.bucketId(storeId, bucketStart),
+                        id -> toRollup(storeId, granularity, bucketStart, new ReportAccumulator()));
+                if ("credit".equals(transaction.getType())) {
+                    increment.setTotalCredits(increment.getTotalCredits() + transaction.getConvertedAmount());
+                } else {
+                    increment.setTotalDebits(increment.getTotalDebits() + transaction.getConvertedAmount());
+                }
+                increment.setTransactionCount(increment.getTransactionCount() + 1);
+            }
+        }
+        if (increments.isEmpty()) {
+            return;
+        }
+
+        try {
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ReportRollup.class);
+            for (ReportRollup increment : increments.values()) {
+                Update update = new Update()
+                        .inc("totalCredits", increment.getTotalCredits())
+                        .inc("totalDebits", increment.getTotalDebits())
+                        .inc("transactionCount", increment.getTransactionCount());
+                // Filtering on the whole (storeId, granularity, bucketStart) key lets a sharded cluster route the upsert.
+                bulkOps.upsert(Query.query(Criteria.where("_id").is(increment.getId())
+                        .and("storeId").is(increment.getStoreId())
+                        .and("granularity").is(increment.getGranularity())
+                        .and("bucketStart").is(increment.getBucketStart())), update);
+            }
+            bulkOps.execute();
+        } catch (Exception e) {
+            failureCounter.increment();
+            logger.error("Error updating rollups for {} transactions: {}", transactions.size(), e.getMessage(), e);
+            markForRepair(increments.values());
+        }
+    }
+
+    /**
+     * Rebuilds the store days marked after failed increments, then removes each mark unless the day failed again
+     * while it was being rebuilt. A day that cannot be rebuilt keeps its mark for the next repair. As with the
+     * backfill, increments that land on a day while it is rebuilt can be overwritten, which mostly concerns today.
+     *
+     * @return the stores whose buckets were rebuilt.
+     */
+    @Override
+    public Set<String> repairRollups() {
+        Set<String> storeIds = new LinkedHashSet<>();
+        for (RollupRepair repair : mongoTemplate.findAll(RollupRepair.class)) {
+            try {
+                long processed = rebuildStoreRollups(repair.getStoreId(), repair.getDay(),
+                        RollupGranularity.DAY.next(repair.getDay()));
+                mongoTemplate.remove(Query.query(Criteria.where("_id").is(repair.getId())
+                        .and("markedAt").is(repair.getMarkedAt())), RollupRepair.class);
+                storeIds.add(repair.getStoreId());
+                logger.info("Repaired rollups of store {} for {} covering {} transactions", repair.getStoreId(), repair.getDay(), processed);
+            } catch (Exception e) {
+                logger.error("Error repairing rollups of store {} for {}: {}", repair.getStoreId(), repair.getDay(), e.getMessage(), e);
+            }
+        }
+        return storeIds;
+    }
+
+    /**
+     * Sums a store's credits and debits for the half-open range [start, end).
+     * <p>
+     * The range is split into a raw leading edge up to the first full hour, hourly buckets up to the first
+     * full day, daily buckets, hourly buckets after the last full day, and a raw trailing edge after the last
+     * full hour. A yearly report therefore reads roughly 365 daily and at most 46 hourly buckets, plus the
+     * transactions of two partial hours.
+     * </p>
+     *
+     * @param storeId the store whose transactions to sum.
+     * @param start the inclusive start of the range.
+     * @param end the exclusive end of the range.
+     * @return the totals for the range.
+     */
+    @Override
+    public ReportTotals sumBetween(String storeId, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime firstHour = RollupGranularity.HOUR.ceil(start);
+        LocalDateTime lastHour = RollupGranularity.HOUR.floor(end);
+        if (!firstHour.isBefore(lastHour)) {
+            return sumRaw(storeId, start, end);
+        }
+
+        ReportTotals totals = sumRaw(storeId, start, firstHour);
+        LocalDateTime firstDay = RollupGranularity.DAY.ceil(firstHour);
+        LocalDateTime lastDay = RollupGranularity.DAY.floor(lastHour);
+        if (firstDay.isBefore(lastDay)) {
+            totals.add(sumBuckets(storeId, RollupGranularity.HOUR, firstHour, firstDay));
+            totals.add(sumBuckets(storeId, RollupGranularity.DAY, firstDay, lastDay));
+            totals.add(sumBuckets(storeId, RollupGranularity.HOUR, lastDay, lastHour));
+        } else {
+            totals.add(sumBuckets(storeId, RollupGranularity.HOUR, firstHour, lastHour));
+        }
+        return totals.add(sumRaw(storeId, lastHour, end));
+    }
+
+    /**
+     * Recomputes the rollup buckets of every store for the given range.
+     * <p>
+     * The stores are read with a distinct scan of the leading {@code storeId} key of the transaction indexes, and
+     * each store is rebuilt on its own, so the work per store scales with that store's volume only.
+     * </p>
+     *
+     * @param from the start of the range, aligned down to a day boundary.
+     * @param to the end of the range, aligned up to a day boundary.
+     * @return the number of transactions processed.
+     */
+    @Override
+    public long rebuildRollups(LocalDateTime from, LocalDateTime to) {
+        List<String> storeIds = mongoTemplate.findDistinct(new Query(), "storeId", Transaction.class, String.class);
+        long processed = 0;
+        for (String storeId : storeIds) {
+            processed += rebuildStoreRollups(storeId, from, to);
+        }
+        logger.info("Rebuilt rollups of {} stores from {} to {} covering {} transactions", storeIds.size(), from, to, processed);
+        return processed;
+    }
+
+    /**
+     * Recomputes one store's rollup buckets for the given range one day at a time.
+     * <p>
+     * Each day's transactions are streamed from a cursor with only the fields needed for the totals and folded
+     * into at most 24 hourly accumulators and one daily accumulator, so memory stays constant however busy the
+     * day was. The results are written over the existing buckets. Increments from transactions recorded for a
+     * day while it is being rebuilt can be overwritten, so the job should run for past days or in a quiet window.
+     * </p>
+     *
+     * @param storeId the store whose buckets to rebuild.
+     * @param from the start of the range, aligned down to a day boundary.
+     * @param to the end of the range, aligned up to a day boundary.
+     * @return the number of transactions processed.
+     */
+    private long rebuildStoreRollups(String storeId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime day = RollupGranularity.DAY.floor(from);
+        LocalDateTime end = RollupGranularity.DAY.ceil(to);
+        long processed = 0;
+
+        while (day.isBefore(end)) {
+            LocalDateTime nextDay = RollupGranularity.DAY.next(day);
+            Map<LocalDateTime, ReportAccumulator> hours = new TreeMap<>();
+            ReportAccumulator daily = new ReportAccumulator();
+
+            try (Stream<Transaction> transactions = transactionRepository.streamTotalsFieldsBetween(storeId, day, nextDay)) {
+                Iterator<Transaction> iterator = transactions.iterator();
+                while (iterator.hasNext()) {
+                    Transaction transaction = iterator.next();
+                    if (!isCreditOrDebit(transaction.getType()) || transaction.getConvertedAmount() == null) {
+                        continue;
+                    }
+                    LocalDateTime hour = RollupGranularity.HOUR.floor(transaction.getTimestamp());
+                    hours.computeIfAbsent(hour, h -> new ReportAccumulator()).accept(transaction);
+                    daily.accept(transaction);
+                }
+            }
+
+            reportRollupRepository.deleteBuckets(storeId, day, nextDay);
+            if (daily.count() > 0) {
+                List<ReportRollup> rollups = new ArrayList<>(hours.size() + 1);
+                hours.forEach((hour, accumulator) -> rollups.add(toRollup(storeId, RollupGranularity.HOUR, hour, accumulator)));
+                rollups.add(toRollup(storeId, RollupGranularity.DAY, day, daily));
+                reportRollupRepository.saveAll(rollups);
+            }
+            processed += daily.count();
+            day = nextDay;
+        }
+
+        logger.debug("Rebuilt rollups of store {} from {} to {} covering {} transactions", storeId, from, to, processed);
+        return processed;
+    }
+
+    /**
+     * Sums a store's buckets of one granularity whose start lies in [start, end).
+     *
+     * @param storeId the store whose buckets to sum.
+     * @param granularity the bucket granularity.
+     * @param start the inclusive start of the range.
+     * @param end the exclusive end of the range.
+     * @return the summed totals.
+     */
+    private ReportTotals sumBuckets(String storeId, RollupGranularity granularity, LocalDateTime start, LocalDateTime end) {
+        ReportTotals totals = new ReportTotals();
+        if (!start.isBefore(end)) {
+            return totals;
+        }
+        for (ReportRollup rollup : reportRollupRepository.findBuckets(storeId, granularity, start, end)) {
+            totals.setTotalCredits(totals.getTotalCredits() + rollup.getTotalCredits());
+            totals.setTotalDebits(totals.getTotalDebits() + rollup.getTotalDebits());
+            totals.setTransactionCount(totals.getTransactionCount() + rollup.getTransactionCount());
+        }
+        return totals;
+    }
+
+    /**
+     * Sums a store's raw transactions whose timestamp lies in [start, end) with a server-side aggregation.
+     *
+     * @param storeId the store whose transactions to sum.
+     * @param start the inclusive start of the range.
+     * @param end the exclusive end of the range.
+     * @return the summed totals.
+     */
+    private ReportTotals sumRaw(String storeId, LocalDateTime start, LocalDateTime end) {
+        if (!start.isBefore(end)) {
+            return new ReportTotals();
+        }
+        return ReportTotals.fromTypeTotals(transactionRepository.sumConvertedAmountByType(storeId, start, end));
+    }
+
+    /**
+     * Marks the days of the given increments for {@link #repairRollups()}. If even that fails, the days are only
+     * logged and must be rebuilt with the backfill.
+     *
+     * @param increments the increments of a failed bulk write.
+     */
+    private void markForRepair(Iterable<ReportRollup> increments) {
+        LocalDateTime now = LocalDateTime.now();
+        for (ReportRollup increment : increments) {
+            if (increment.getGranularity() != RollupGranularity.DAY) {
+                continue;
+            }
+            try {
+                mongoTemplate.upsert(Query.query(Criteria.where("_id").is(increment.getId())),
+                        new Update()
+                                .set("markedAt", now)
+                                .setOnInsert("storeId", increment.getStoreId())
+                                .setOnInsert("day", increment.getBucketStart()),
+                        RollupRepair.class);
+            } catch (Exception e) {
+                logger.error("Could not mark rollups of store {} for {} for repair: {}",
+                        increment.getStoreId(), increment.getBucketStart(), e.getMessage());
+            }
+        }
+    }
+
+    private static ReportRollup toRollup(String storeId, RollupGranularity granularity, LocalDateTime bucketStart,
+                                         ReportAccumulator accumulator) {
+        ReportRollup rollup = new ReportRollup();
+        rollup.setId(granularity.bucketId(storeId, bucketStart));
+        rollup.setStoreId(storeId);
+        rollup.setGranularity(granularity);
+        rollup.setBucketStart(bucketStart);
+        rollup.setTotalCredits(accumulator.totalCredits());
+        rollup.setTotalDebits(accumulator.totalDebits());
+        rollup.setTransactionCount(accumulator.count());
+        return rollup;
+    }
+
+    private static boolean isCreditOrDebit(String type) {
+        return "credit".equals(type) || "debit".equals(type);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.Kirana.serviceImpl;
+
+import com.example.Kirana.exceptions.TransactionProcessingException;
+import com.example.Kirana.services.RateSource;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * {@link RateSource} that reads rates from a JSON file in the FX API response format.
+ * <p>
+ * Meant for shops without a reliable connection and for tests. The file is re-read on every refresh, so an
+ * operator can drop in updated rates without a restart. Defaults to the snapshot bundled with the application.
+ * </p>
+ */
+@Service
+@ConditionalOnProperty(name = "kirana.fx.source", havingValue = "file")
+public class SnapshotRateSource implements RateSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotRateSource.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${kirana.fx.snapshot-location:classpath:fx/rates-snapshot.json}")
+    private Resource snapshot;
+
+    /**
+     * Reads the rates from the snapshot file.
+     *
+     * @return the rates keyed by currency code.
+     * @throws TransactionProcessingException if the file cannot be read or has no rates.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> fetchRates() {
+        try (InputStream in = snapshot.getInputStream()) {
+            Map<String, Object> content = objectMapper.readValue(in, new TypeReference<Map<String, Object>>() {});
+            if (content.get("rates") instanceof Map) {
+                return (Map<String, Object>) content.get("rates");
+            }
+            throw new TransactionProcessingException("Rate snapshot has no rates: " + snapshot);
+        } catch (TransactionProcessingException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error reading rate snapshot {}: {}", snapshot, e.getMessage(), e);
+            throw new TransactionProcessingException("Error reading rate snapshot", e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.Kirana.serviceImpl;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of in-process locks selected by key hash.
+ * <p>
+ * Used to serialize concurrent writes of the same transaction on a single-node deployment without a network
+ * round trip. Unrelated keys may share a stripe, which only costs some contention, never correctness.
+ * </p>
+ */
+public final class StripedLocks {
+
+    private final ReentrantLock[] locks;
+
+    /**
+     * Creates the given number of stripes.
+     *
+     * @param stripes the number of locks; more stripes mean less false sharing between keys.
+     */
+    public StripedLocks(int stripes) {
+        locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Returns the lock guarding the given key.
+     *
+     * @param key the key to lock.
+     * @return the stripe for the key.
+     */
+    public ReentrantLock lockFor(String key) {
+        return locks[(key.hashCode() & Integer.MAX_VALUE) % locks.length];
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.Kirana.serviceImpl;
+
+import com.example.Kirana.CustomExceptions.ChangeFeedExpiredException;
+import com.example.Kirana.dto.TransactionChange;
+import com.example.Kirana.dto.TransactionChangeBatch;
+import com.example.Kirana.models.Transaction;
+import com.example.Kirana.services.TransactionChangeFeed;
+import com.example.Kirana.services.TransactionChangeService;
+import com.mongodb.MongoServerException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Service implementation of the transaction change feed on top of MongoDB change streams.
+ * <p>
+ * Each feed is a change stream on the "transactions" collection, filtered on the server to inserts and
+ * replacements of one store's documents, so consumers receive every stored transaction in commit order without
+ * scanning the collection. Resume tokens are the opaque {@code _data} strings of the change stream; a consumer
+ * that passes back the last token it processed resumes exactly after it, on any node, for as long as the token is
+ * inside the oplog window. Empty batches carry the post-batch resume token, so idle consumers keep advancing.
+ * </p>
+ * <p>
+ * Change streams require MongoDB to run as a replica set or sharded cluster.
+ * </p>
+ */
+@Service
+public class TransactionChangeServiceImpl implements TransactionChangeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionChangeServiceImpl.class);
+
+    private static final Pattern TOKEN = Pattern.compile("[0-9A-Fa-f]+");
+
+    private static final int INVALID_RESUME_TOKEN = 260;
+    private static final int CHANGE_STREAM_FATAL_ERROR = 280;
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${kirana.changes.poll-interval:PT1S}")
+    private Duration pollInterval;
+
+    /**
+     * Opens a change stream of one store's stored transactions.
+     *
+     * @param storeId The store whose transactions to follow.
+     * @param after The resume token of the last change the consumer processed, or null to start from now.
+     * @return The open feed.
+     * @throws IllegalArgumentException if the token is malformed or was not issued by this feed.
+     * @throws ChangeFeedExpiredException if the token is no longer in the oplog.
+     */
+    @Override
+    public TransactionChangeFeed openFeed(String storeId, String after) {
+        ChangeStreamIterable<Document> stream = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Transaction.class))
+                .watch(pipeline(storeId))
+                .maxAwaitTime(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        if (after != null) {
+            stream = stream.resumeAfter(resumeToken(after));
+        }
+        try {
+            return new Feed(stream.cursor(), after);
+        } catch (MongoServerException e) {
+            throw translate(storeId, e);
+        }
+    }
+
+    /**
+     * Builds the change stream pipeline of one store's stored transactions. Shared with
+     * {@link ReactiveTransactionChangeServiceImpl}.
+     *
+     * @param storeId The store whose transactions to follow.
+     * @return The pipeline.
+     */
+    static List<Bson> pipeline(String storeId) {
+        return List.of(Aggregates.match(Filters.and(
+                Filters.in("operationType", "insert", "replace"),
+                Filters.eq("fullDocument.storeId", storeId))));
+    }
+
+    /**
+     * Parses a resume token issued by a feed.
+     *
+     * @param after The token as passed by the consumer.
+     * @return The resume token document.
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    static BsonDocument resumeToken(String after) {
+        if (!TOKEN.matcher(after).matches()) {
+            throw new IllegalArgumentException("Invalid resume token.");
+        }
+        return new BsonDocument("_data", new BsonString(after));
+    }
+
+    /**
+     * Maps the server's refusal to resume a change stream to the feed's exceptions.
+     *
+     * @param storeId The store whose feed failed.
+     * @param e The server error.
+     * @return A {@link ChangeFeedExpiredException} if the token left the oplog, an IllegalArgumentException if the
+     *         server rejected it, or the error itself.
+     */
+    static RuntimeException translate(String storeId, MongoServerException e) {
+        if (e.getCode() == CHANGE_STREAM_HISTORY_LOST || e.getCode() == CHANGE_STREAM_FATAL_ERROR) {
+            logger.info("Change feed of store {} cannot resume: {}", storeId, e.getMessage());
+            return new ChangeFeedExpiredException("The resume token is too old; resynchronize with an export and start a new feed.", e);
+        }
+        if (e.getCode() == INVALID_RESUME_TOKEN) {
+            return new IllegalArgumentException("Invalid resume token.");
+        }
+        return e;
+    }
+
+    /**
+     * Returns the string form of a resume token, as handed to consumers.
+     *
+     * @param resumeToken The resume token document, or null.
+     * @return The token's {@code _data} string, or null.
+     */
+    static String tokenOf(BsonDocument resumeToken) {
+        return resumeToken == null ? null : resumeToken.getString("_data").getValue();
+    }
+
+    /**
+     * A change feed reading from one change stream cursor.
+     */
+    private final class Feed implements TransactionChangeFeed {
+
+        private final MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor;
+        private String lastToken;
+
+        Feed(MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor, String after) {
+            this.cursor = cursor;
+            this.lastToken = after;
+        }
+
+        /**
+         * Collects changes until the limit is reached, or until no more arrive once at least one was collected,
+         * or until the wait is over. Each empty fetch waits on the server for up to
+         * {@code kirana.changes.poll-interval}.
+         *
+         * @param limit The maximum number of changes in the batch.
+         * @param wait How long to wait for the first change.
+         * @return The batch, with the token to resume after it.
+         */
+        @Override
+        public TransactionChangeBatch nextBatch(int limit, Duration wait) {
+            List<TransactionChange> changes = new ArrayList<>();
+            long deadline = System.nanoTime() + wait.toNanos();
+            while (changes.size() < limit) {
+                ChangeStreamDocument<Document> event = cursor.tryNext();
+                if (event == null) {
+                    if (!changes.isEmpty() || System.nanoTime() >= deadline) {
+                        break;
+                    }
+                    continue;
+                }
+                Transaction transaction = mongoTemplate.getConverter().read(Transaction.class, event.getFullDocument());
+                changes.add(new TransactionChange(tokenOf(event.getResumeToken()), event.getOperationTypeString(), transaction));
+            }
+            String token = tokenOf(cursor.getResumeToken());
+            if (token != null) {
+                lastToken = token;
+            }
+            return new TransactionChangeBatch(changes, lastToken);
+        }
+
+        @Override
+        public void close() {
+            cursor.close();
+        }
+    }
+}
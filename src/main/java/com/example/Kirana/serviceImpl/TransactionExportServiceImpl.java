@@ -0,0 +1,134 @@
+package com.example.Kirana.serviceImpl;
+
+import com.example.Kirana.models.Transaction;
+import com.example.Kirana.repository.TransactionRepository;
+import com.example.Kirana.services.TransactionExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service implementation for exporting transactions as CSV or newline-delimited JSON.
+ * <p>
+ * Transactions are read from a server-side cursor and written one at a time through a fixed-size buffer, so
+ * memory use does not depend on the size of the range. Output is flushed every {@value #FLUSH_EVERY} rows so
+ * that clients start receiving data immediately.
+ * </p>
+ */
+@Service
+public class TransactionExportServiceImpl implements TransactionExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionExportServiceImpl.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FLUSH_EVERY = 10_000;
+    private static final String CSV_HEADER = "id,storeId,amount,type,currency,convertedAmount,timestamp,idempotencyKey,customerId\n";
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Writes every transaction of a store in the range to the output.
+     *
+     * @param storeId The store whose transactions to export.
+     * @param from The inclusive start of the range.
+     * @param to The exclusive end of the range.
+     * @param format The output format, "csv" or "ndjson".
+     * @param out The stream to write to; flushed but not closed.
+     * @return The number of transactions written.
+     * @throws IOException if writing to the output fails, e.g. because the client disconnected.
+     * @throws IllegalArgumentException if the format is not supported.
+     */
+    @Override
+    public long exportTransactions(String storeId, LocalDateTime from, LocalDateTime to, String format, OutputStream out) throws IOException {
+        if (!"csv".equals(format) && !"ndjson".equals(format)) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        long count = 0;
+        try (Stream<Transaction> transactions = transactionRepository.streamAllBetween(storeId, from, to)) {
+            Iterator<Transaction> iterator = transactions.iterator();
+            if ("csv".equals(format)) {
+                writer.write(CSV_HEADER);
+                while (iterator.hasNext()) {
+                    writeCsvRow(writer, iterator.next());
+                    if (++count % FLUSH_EVERY == 0) {
+                        writer.flush();
+                    }
+                }
+            } else {
+                SequenceWriter json = objectMapper.writer()
+                        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                        .withRootValueSeparator("\n")
+                        .writeValues(writer);
+                while (iterator.hasNext()) {
+                    json.write(iterator.next());
+                    if (++count % FLUSH_EVERY == 0) {
+                        json.flush();
+                    }
+                }
+                json.close();
+                if (count > 0) {
+                    writer.write('\n');
+                }
+            }
+        }
+        writer.flush();
+        logger.info("Exported {} transactions of store {} between {} and {} as {}", count, storeId, from, to, format);
+        return count;
+    }
+
+    private static void writeCsvRow(Writer writer, Transaction transaction) throws IOException {
+        writeCsvField(writer, transaction.getId());
+        writer.write(',');
+        writeCsvField(writer, transaction.getStoreId());
+        writer.write(',');
+        writer.write(transaction.getAmount() == null ? "" : transaction.getAmount().toString());
+        writer.write(',');
+        writeCsvField(writer, transaction.getType());
+        writer.write(',');
+        writeCsvField(writer, transaction.getCurrency());
+        writer.write(',');
+        writer.write(transaction.getConvertedAmount() == null ? "" : transaction.getConvertedAmount().toString());
+        writer.write(',');
+        writer.write(transaction.getTimestamp() == null ? "" : transaction.getTimestamp().toString());
+        writer.write(',');
+        writeCsvField(writer, transaction.getIdempotencyKey());
+        writer.write(',');
+        writeCsvField(writer, transaction.getCustomerId());
+        writer.write('\n');
+    }
+
+    /**
+     * Writes a text field, quoting it as RFC 4180 requires when it contains a separator, quote or line break.
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.Kirana.serviceImpl;
+
+import com.example.Kirana.dto.TransactionPage;
+import com.example.Kirana.models.Transaction;
+import com.example.Kirana.services.TransactionQueryService;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Service implementation for the keyset-paginated transaction listing.
+ * <p>
+ * Pages are ordered by {@code (timestamp, _id)} descending, and the cursor carries the sort key of the last
+ * transaction of a page. The next page seeks directly past that key on the listing indexes declared on
+ * {@link Transaction}, so every page costs the same however deep the client scrolls, unlike skip/offset paging.
+ * One extra transaction is read per page to tell whether another page follows.
+ * </p>
+ * <p>
+ * Ids are stored as ObjectIds when they are 24 hex digits, which includes every server-generated id, and as
+ * strings otherwise. MongoDB sorts strings before ObjectIds, so among transactions sharing a timestamp the
+ * client-supplied string ids come after the ObjectIds in descending order. Range operators only match values of
+ * their own BSON type, so seeking past an ObjectId also explicitly admits every string id.
+ * </p>
+ */
+@Service
+public class TransactionQueryServiceImpl implements TransactionQueryService {
+
+    private static final String CURSOR_SEPARATOR = "|";
+
+    private static final int BSON_STRING_TYPE = 2;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Lists a store's transactions newest first, one page at a time.
+     *
+     * @param storeId The store whose transactions to list.
+     * @param type Only transactions of this type, or null for all types.
+     * @param currency Only transactions in this currency, or null for all currencies.
+     * @param after The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of transactions on the page.
+     * @return The page and the cursor of the next page, which is null on the last page.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    @Override
+    public TransactionPage listTransactions(String storeId, String type, String currency, String after, int limit) {
+        List<Criteria> filters = new ArrayList<>();
+        filters.add(Criteria.where("storeId").is(storeId));
+        if (type != null) {
+            filters.add(Criteria.where("type").is(type));
+        }
+        if (currency != null) {
+            filters.add(Criteria.where("currency").is(currency));
+        }
+        if (after != null) {
+            String[] key = decodeCursor(after);
+            filters.add(seekPast(LocalDateTime.parse(key[0]), key[1]));
+        }
+
+        Query query = new Query(new Criteria().andOperator(filters));
+        query.with(Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("_id"))).limit(limit + 1);
+
+        List<Transaction> items = mongoTemplate.find(query, Transaction.class);
+        String nextCursor = null;
+        if (items.size() > limit) {
+            items = new ArrayList<>(items.subList(0, limit));
+            nextCursor = encodeCursor(items.get(limit - 1));
+        }
+        return new TransactionPage(items, nextCursor);
+    }
+
+    /**
+     * Builds the filter for the transactions that follow a sort key in {@code (timestamp, _id)} descending order.
+     *
+     * @param timestamp The timestamp of the last transaction of the previous page.
+     * @param id The id of the last transaction of the previous page.
+     * @return The seek criteria.
+     */
+    static Criteria seekPast(LocalDateTime timestamp, String id) {
+        Criteria sameTimestampAfter = ObjectId.isValid(id)
+                ? new Criteria().orOperator(
+                        Criteria.where("_id").lt(new ObjectId(id)),
+                        Criteria.where("_id").type(BSON_STRING_TYPE))
+                : Criteria.where("_id").lt(id);
+        return new Criteria().orOperator(
+                Criteria.where("timestamp").lt(timestamp),
+                new Criteria().andOperator(Criteria.where("timestamp").is(timestamp), sameTimestampAfter));
+    }
+
+    /**
+     * Encodes the sort key of a page's last transaction as an opaque, URL-safe cursor.
+     *
+     * @param last The last transaction of the page.
+     * @return The cursor.
+     */
+    static String encodeCursor(Transaction last) {
+        String key = last.getTimestamp() + CURSOR_SEPARATOR + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor into its timestamp and id.
+     *
+     * @param cursor The cursor returned with a previous page.
+     * @return The timestamp and the id, in that order.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    static String[] decodeCursor(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.indexOf(CURSOR_SEPARATOR);
+            if (separator <= 0 || separator == key.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            String[] parts = {key.substring(0, separator), key.substring(separator + 1)};
+            LocalDateTime.parse(parts[0]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -1,25 +1,59 @@
 package com.example.Kirana.serviceImpl;
 
-import com.example.Kirana.dto.Report;
+import com.example.Kirana.CustomExceptions.TransactionConflictException;
+import com.example.Kirana.dto.BatchItemResult;
 import com.example.Kirana.exceptions.TransactionProcessingException;
+import com.example.Kirana.models.RateSnapshot;
 import com.example.Kirana.models.Transaction;
 import com.example.Kirana.repository.TransactionRepository;
+import com.example.Kirana.services.AnalyticsService;
+import com.example.Kirana.services.CurrencyRateProvider;
+import com.example.Kirana.services.ReportingService;
+import com.example.Kirana.services.RollupService;
 import com.example.Kirana.services.TransactionService;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 /**
  * Service implementation class for managing transactions.
- * Handles the recording of transactions with currency conversion and caching using Redis for concurrency control.
+ * Handles the recording of transactions with currency conversion and concurrency control.
  * This class interacts with the TransactionRepository and provides functionalities like recording a transaction
- * with Redis locks to prevent race conditions, fetching currency rates from an external API, and caching currency rates.
+ * with locks or idempotency keys to prevent duplicates, and converting amounts with the in-memory rate snapshot
+ * kept by {@link CurrencyRateProvider}. Every stored transaction is added to the rollups and the analytics sketches
+ * and evicts its store's cached reports.
+ * <p>
+ * Each stage of the write path is timed: {@code kirana.transaction.lock.acquire} and
+ * {@code kirana.transaction.lock.release} (tagged with the dedup mode), {@code kirana.transaction.rates.lookup}
+ * and {@code kirana.transaction.save} (tagged with the MongoDB operation). Lock conflicts are counted in
+ * {@code kirana.transaction.lock.contended}.
+ * </p>
  */
 
 @Service
@@ -27,83 +61,428 @@ public class TransactionServiceImpl implements TransactionService {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionServiceImpl.class);
 
+    private static final int DUPLICATE_KEY_ERROR_CODE = 11000;
+
+    /**
+     * Deletes a transaction lock only if it still holds the caller's token, so a request that outlived
+     * {@code kirana.transactions.lock-ttl} cannot release the lock of the request that took it over.
+     * Shared with {@link ReactiveTransactionServiceImpl}.
+     */
+    static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0",
+            Long.class);
+
     @Autowired
     private TransactionRepository transactionRepository;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CurrencyRateProvider currencyRateProvider;
 
     @Autowired
     private RedisTemplate<String, String> redisTemplate;
 
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private ReportingService reportingService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired(required = false)
+    private WriteBehindWriter writeBehindWriter;
+
+    @Value("${kirana.transactions.dedup-mode:redis-lock}")
+    private String dedupMode;
+
+    @Value("${kirana.transactions.lock-ttl:30s}")
+    private Duration lockTtl;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final StripedLocks localLocks = new StripedLocks(256);
+
+    private Timer lockAcquireTimer;
+    private Timer lockReleaseTimer;
+    private Counter lockContendedCounter;
+    private Timer rateLookupTimer;
+    private Timer insertTimer;
+    private Timer bulkInsertTimer;
+
+    /**
+     * Registers the meters of the write path. The dedup mode is fixed at startup, so lock meters carry it as a tag.
+     */
+    @PostConstruct
+    public void initMetrics() {
+        lockAcquireTimer = Timer.builder("kirana.transaction.lock.acquire").tag("mode", dedupMode).register(meterRegistry);
+        lockReleaseTimer = Timer.builder("kirana.transaction.lock.release").tag("mode", dedupMode).register(meterRegistry);
+        lockContendedCounter = Counter.builder("kirana.transaction.lock.contended").tag("mode", dedupMode).register(meterRegistry);
+        rateLookupTimer = Timer.builder("kirana.transaction.rates.lookup").register(meterRegistry);
+        insertTimer = Timer.builder("kirana.transaction.save").tag("operation", "insert").register(meterRegistry);
+        bulkInsertTimer = Timer.builder("kirana.transaction.save").tag("operation", "bulk-insert").register(meterRegistry);
+    }
+
     /**
-     * Fetches the latest currency rates from an external API and caches them.
-     * The rates are cached with the key "latestRates".
+     * Returns the latest currency rates from the in-memory snapshot kept by {@link CurrencyRateProvider}.
+     * The snapshot is refreshed in the background, so this never calls the external API.
      *
      * @return a map containing currency rates where the key is the currency code and the value is the rate.
-     * @throws TransactionProcessingException if the external API fails to provide valid currency rates.
+     * @throws TransactionProcessingException if no current rates are available.
      */
     @Override
-    @Cacheable(value = "currencyRates", key = "'latestRates'")
     public Map<String, Object> fetchAndCacheCurrencyRates() {
-        String url = "https://api.fxratesapi.com/latest";
-        try {
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-            if (response != null && response.containsKey("rates")) {
-                return (Map<String, Object>) response.get("rates");
-            } else {
-                throw new TransactionProcessingException("Failed to fetch valid currency rates from API.");
-            }
-        } catch (Exception e) {
-            logger.error("Error fetching currency rates: {}", e.getMessage(), e);
-            throw new TransactionProcessingException("Error fetching currency rates", e);
-        }
+        return currencyRateProvider.currentRates().toMap();
     }
 
     /**
-     * Records a transaction with concurrency control using Redis locks.
-     * The transaction is processed only if the lock is successfully acquired.
-     * After processing, the Redis lock is released.
+     * Records a transaction with concurrency control.
+     * <p>
+     * The strategy is chosen with {@code kirana.transactions.dedup-mode}:
+     * </p>
+     * <ul>
+     *     <li>{@code redis-lock} (default): a Redis lock on the transaction id, held for at most
+     *     {@code kirana.transactions.lock-ttl} so a crashed node cannot block an id forever. The lock holds a
+     *     per-request token and is only released by its owner.</li>
+     *     <li>{@code idempotency-key}: no lock; the transaction is inserted and duplicates are rejected by the
+     *     unique indexes on {@code _id} and {@code (storeId, idempotencyKey)}, in which case the stored transaction is
+     *     returned. Redis is not touched on the write path.</li>
+     *     <li>{@code local-lock}: an in-process striped lock on the transaction id, for single-node deployments.</li>
+     * </ul>
+     * <p>
+     * Every mode inserts rather than upserts, and ids are global: a store resubmitting one of its ids gets its
+     * stored transaction back, while an id taken by another store is rejected with
+     * {@link TransactionConflictException}.
+     * </p>
+     * <p>
+     * With {@code kirana.transactions.write-mode=write-behind} none of these apply: the transaction is converted,
+     * appended to the write-ahead log of {@link WriteBehindWriter} and returned once the log is on disk.
+     * Duplicates are rejected by the unique indexes when the transaction is flushed.
+     * </p>
      *
      * @param transaction The transaction to be recorded, including amount and currency details.
      * @return The saved transaction object with updated fields including converted amount and timestamp.
      * @throws TransactionProcessingException if the transaction is already being processed or currency rate is not available.
+     * @throws TransactionConflictException if the id is already used by another store's transaction.
      */
     @Override
     public Transaction recordTransactionWithConcurrencyControl(Transaction transaction) {
+        if (writeBehindWriter != null) {
+            applyConversion(transaction, currentRates(), LocalDateTime.now());
+            writeBehindWriter.accept(List.of(transaction));
+            return transaction;
+        }
+        switch (dedupMode) {
+            case "idempotency-key":
+                return recordIdempotently(transaction);
+            case "local-lock":
+                return recordWithLocalLock(transaction);
+            default:
+                return recordWithRedisLock(transaction);
+        }
+    }
+
+    /**
+     * Records a transaction while holding a Redis lock on its id.
+     * <p>
+     * The lock value is a random token of this request, and the lock is released with
+     * {@link #RELEASE_LOCK_SCRIPT}: if saving outlasted {@code kirana.transactions.lock-ttl} and another request
+     * has taken the lock since, that request's lock is left alone. A failed release is logged; the lock then
+     * expires on its own. The transaction is inserted as in {@link #recordIdempotently}, so a resubmitted id
+     * returns the stored transaction rather than replacing it. Transactions without an id cannot collide and are
+     * saved without locking, rather than all contending for one shared key.
+     * </p>
+     *
+     * @param transaction The transaction to be recorded.
+     * @return The saved transaction, or the previously stored one for a duplicate submission.
+     * @throws TransactionProcessingException if another request holds the lock.
+     * @throws TransactionConflictException if the id is already used by another store's transaction.
+     */
+    private Transaction recordWithRedisLock(Transaction transaction) {
+        if (transaction.getId() == null) {
+            return recordIdempotently(transaction);
+        }
         String lockKey = "lock::transaction::" + transaction.getId();
-        Boolean lockAcquired = redisTemplate.opsForValue().setIfAbsent(lockKey, "locked");
+        String lockToken = UUID.randomUUID().toString();
+        long acquireStart = System.nanoTime();
+        Boolean lockAcquired = redisTemplate.opsForValue().setIfAbsent(lockKey, lockToken, lockTtl);
+        lockAcquireTimer.record(System.nanoTime() - acquireStart, TimeUnit.NANOSECONDS);
 
         if (Boolean.TRUE.equals(lockAcquired)) {
             try {
-                // Fetch currency rates
-                Map<String, Object> currencyRates = fetchAndCacheCurrencyRates();
-                Object rateObj = currencyRates.get(transaction.getCurrency());
-
-                if (rateObj == null) {
-                    throw new TransactionProcessingException("Currency rate not found for: " + transaction.getCurrency());
+                return recordIdempotently(transaction);
+            } finally {
+                long releaseStart = System.nanoTime();
+                try {
+                    Long released = redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(lockKey), lockToken);
+                    if (released == null || released == 0) {
+                        logger.warn("Lock of transaction {} expired before it was released", transaction.getId());
+                    }
+                } catch (Exception e) {
+                    logger.warn("Error releasing lock of transaction {}: {}", transaction.getId(), e.getMessage());
                 }
+                lockReleaseTimer.record(System.nanoTime() - releaseStart, TimeUnit.NANOSECONDS);
+            }
+        } else {
+            lockContendedCounter.increment();
+            logger.warn("Transaction with ID {} is already being processed. Retry later.", transaction.getId());
+            throw new TransactionProcessingException("Transaction is already being processed. Try again.");
+        }
+    }
+
+    /**
+     * Records a transaction while holding the in-process lock stripe of its id.
+     * Transactions without an id cannot collide and are saved without locking. Like the Redis lock mode, it
+     * inserts as in {@link #recordIdempotently}.
+     *
+     * @param transaction The transaction to be recorded.
+     * @return The saved transaction, or the previously stored one for a duplicate submission.
+     * @throws TransactionConflictException if the id is already used by another store's transaction.
+     */
+    private Transaction recordWithLocalLock(Transaction transaction) {
+        if (transaction.getId() == null) {
+            return recordIdempotently(transaction);
+        }
+        ReentrantLock lock = localLocks.lockFor(transaction.getId());
+        long acquireStart = System.nanoTime();
+        if (!lock.tryLock()) {
+            lockContendedCounter.increment();
+            lock.lock();
+        }
+        lockAcquireTimer.record(System.nanoTime() - acquireStart, TimeUnit.NANOSECONDS);
+        try {
+            return recordIdempotently(transaction);
+        } finally {
+            long releaseStart = System.nanoTime();
+            lock.unlock();
+            lockReleaseTimer.record(System.nanoTime() - releaseStart, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Records a transaction by inserting it and relying on the unique indexes to reject duplicates.
+     * <p>
+     * A duplicate submission, identified by its idempotency key or, failing that, by its id, returns the
+     * transaction that was stored first instead of failing, so clients can safely retry.
+     * </p>
+     *
+     * @param transaction The transaction to be recorded.
+     * @return The saved transaction, or the previously stored one for a duplicate submission.
+     * @throws TransactionConflictException if the id is already used by another store's transaction.
+     * @throws TransactionProcessingException if the duplicate cannot be found, e.g. it was deleted meanwhile.
+     */
+    private Transaction recordIdempotently(Transaction transaction) {
+        try {
+            return convertAndSave(transaction);
+        } catch (DuplicateKeyException e) {
+            logger.info("Duplicate submission for transaction {} / key {}", transaction.getId(), transaction.getIdempotencyKey());
+            return findDuplicate(transaction);
+        }
+    }
+
+    /**
+     * Finds the stored transaction a rejected insert collided with, looking only at the submitting store.
+     * The idempotency key is tried first; the id is global, so a colliding id that is not found in the store
+     * belongs to another store, whose transaction must be neither returned nor overwritten.
+     *
+     * @param transaction The transaction whose insert was rejected.
+     * @return The transaction the store recorded first.
+     * @throws TransactionConflictException if the id is already used by another store's transaction.
+     * @throws TransactionProcessingException if the duplicate cannot be found, e.g. it was deleted meanwhile.
+     */
+    private Transaction findDuplicate(Transaction transaction) {
+        Optional<Transaction> existing = Optional.empty();
+        if (transaction.getIdempotencyKey() != null) {
+            existing = transactionRepository.findByStoreIdAndIdempotencyKey(transaction.getStoreId(), transaction.getIdempotencyKey());
+        }
+        if (existing.isEmpty() && transaction.getId() != null) {
+            existing = transactionRepository.findByIdAndStoreId(transaction.getId(), transaction.getStoreId());
+            if (existing.isEmpty() && transactionRepository.existsById(transaction.getId())) {
+                logger.warn("Transaction id {} is already used by another store", transaction.getId());
+                throw new TransactionConflictException("Transaction id is already in use.");
+            }
+        }
+        return existing.orElseThrow(() -> new TransactionProcessingException("Transaction is already being processed. Try again."));
+    }
 
-                // Convert rateObj to Double if it is an Integer
-                Double conversionRate = rateObj instanceof Number ? ((Number) rateObj).doubleValue() : null;
+    /**
+     * Converts the amount using the latest currency rates, inserts the transaction, adds it to the rollups and the
+     * analytics sketches and evicts the store's cached reports. The insert never replaces a stored transaction:
+     * a transaction whose id is already taken is rejected by the unique {@code _id} index.
+     *
+     * @param transaction The transaction to be recorded.
+     * @return The saved transaction.
+     * @throws DuplicateKeyException if the id or the idempotency key is already stored.
+     */
+    private Transaction convertAndSave(Transaction transaction) {
+        applyConversion(transaction, currentRates(), LocalDateTime.now());
+        Transaction savedTransaction = insertTimer.record(() -> transactionRepository.insert(transaction));
+        rollupService.recordTransaction(savedTransaction);
+        analyticsService.recordTransactions(List.of(savedTransaction));
+        evictReports(reportingService, List.of(savedTransaction));
+        return savedTransaction;
+    }
+
+    /**
+     * Records a batch of transactions against a single currency rate snapshot.
+     * <p>
+     * Rates are fetched once for the whole batch, every item is converted and timestamped in memory, and all
+     * valid items are inserted with one unordered bulk write. Items are inserted rather than upserted, so an item
+     * whose id already exists (or repeats within the batch) is rejected by the unique {@code _id} index instead
+     * of needing a Redis lock; other items in the batch are unaffected. Stored items are then added to the report
+     * rollups in one bulk write and to the analytics sketches, and the cached reports of their stores are evicted once per batch.
+     * In write-behind mode the converted items are instead appended to the write-ahead log together.
+     * </p>
+     *
+     * @param transactions The transactions to be recorded.
+     * @return One {@link BatchItemResult} per submitted transaction, in submission order.
+     * @throws TransactionProcessingException if the currency rates cannot be fetched.
+     */
+    @Override
+    public List<BatchItemResult> recordTransactionBatch(List<Transaction> transactions) {
+        RateSnapshot currencyRates = currentRates();
+        LocalDateTime timestamp = LocalDateTime.now();
 
-                if (conversionRate == null) {
-                    throw new TransactionProcessingException("Invalid rate value for currency: " + transaction.getCurrency());
+        List<BatchItemResult> results = new ArrayList<>(transactions.size());
+        List<Transaction> accepted = new ArrayList<>(transactions.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(transactions.size());
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            try {
+                applyConversion(transaction, currencyRates, timestamp);
+                if (transaction.getId() == null) {
+                    transaction.setId(new ObjectId().toHexString());
                 }
+                accepted.add(transaction);
+                acceptedIndexes.add(i);
+                results.add(new BatchItemResult(i, transaction.getId(), true, null));
+            } catch (TransactionProcessingException e) {
+                results.add(new BatchItemResult(i, transaction.getId(), false, e.getMessage()));
+            }
+        }
+        if (accepted.isEmpty()) {
+            return results;
+        }
+        if (writeBehindWriter != null) {
+            return acceptWriteBehind(accepted, acceptedIndexes, results);
+        }
 
-                // Set converted amount and timestamp
-                transaction.setConvertedAmount(transaction.getAmount() / conversionRate);
-                transaction.setTimestamp(LocalDateTime.now());
+        Set<Integer> failedPositions = new HashSet<>();
+        try {
+            bulkInsertTimer.record(() -> mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Transaction.class)
+                    .insert(accepted)
+                    .execute());
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failedPositions.add(error.getIndex());
+                BatchItemResult result = results.get(acceptedIndexes.get(error.getIndex()));
+                result.setSuccess(false);
+                result.setErrorMessage(error.getCode() == DUPLICATE_KEY_ERROR_CODE
+                        ? "Transaction with this id or idempotency key already exists."
+                        : "Error storing transaction.");
+            }
+            logger.warn("Batch insert rejected {} of {} transactions", failedPositions.size(), accepted.size());
+        }
 
-                // Save the transaction
-                return transactionRepository.save(transaction);
+        List<Transaction> stored = new ArrayList<>(accepted.size() - failedPositions.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            if (!failedPositions.contains(i)) {
+                stored.add(accepted.get(i));
+            }
+        }
+        rollupService.recordTransactions(stored);
+        analyticsService.recordTransactions(stored);
+        evictReports(reportingService, stored);
+        return results;
+    }
 
-            } finally {
-                redisTemplate.delete(lockKey); // Ensure lock is released after processing
+    /**
+     * Hands the converted items of a batch to the write-behind writer with one log append. If the writer rejects
+     * them, every one of them is reported as failed.
+     *
+     * @param accepted The converted items.
+     * @param acceptedIndexes The submission index of each converted item.
+     * @param results The per-item results, updated in place.
+     * @return The per-item results.
+     */
+    private List<BatchItemResult> acceptWriteBehind(List<Transaction> accepted, List<Integer> acceptedIndexes,
+                                                    List<BatchItemResult> results) {
+        try {
+            writeBehindWriter.accept(accepted);
+        } catch (TransactionProcessingException e) {
+            for (int index : acceptedIndexes) {
+                results.get(index).setSuccess(false);
+                results.get(index).setErrorMessage(e.getMessage());
             }
-        } else {
-            logger.warn("Transaction with ID {} is already being processed. Retry later.", transaction.getId());
-            throw new TransactionProcessingException("Transaction is already being processed. Try again.");
         }
+        return results;
+    }
+
+    /**
+     * Evicts the cached reports of every store that recorded one of the transactions, and the cached series of
+     * those stores whose transactions are timestamped inside buckets a series may already have cached as closed,
+     * as happens after write-behind retries or a log replay. Shared with {@link ReactiveTransactionServiceImpl}
+     * and {@link WriteBehindWriter}; call it once the transactions are rolled up.
+     *
+     * @param reportingService The reporting service owning the report caches.
+     * @param stored The stored transactions.
+     */
+    static void evictReports(ReportingService reportingService, List<Transaction> stored) {
+        Set<String> storeIds = new HashSet<>();
+        Set<String> lateStoreIds = new HashSet<>();
+        LocalDateTime closedSeriesEnd = reportingService.closedSeriesEnd();
+        for (Transaction transaction : stored) {
+            storeIds.add(transaction.getStoreId());
+            if (transaction.getTimestamp() != null && transaction.getTimestamp().isBefore(closedSeriesEnd)) {
+                lateStoreIds.add(transaction.getStoreId());
+            }
+        }
+        if (!storeIds.isEmpty()) {
+            reportingService.evictReports(storeIds);
+        }
+        if (!lateStoreIds.isEmpty()) {
+            reportingService.evictSeries(lateStoreIds);
+        }
+    }
+
+    /**
+     * Returns the current rate snapshot, timing the lookup.
+     *
+     * @return The current rates.
+     * @throws TransactionProcessingException if no current rates are available.
+     */
+    private RateSnapshot currentRates() {
+        return rateLookupTimer.record(currencyRateProvider::currentRates);
+    }
+
+    /**
+     * Converts the transaction amount with the given rates and stamps the transaction.
+     * Shared with {@link ReactiveTransactionServiceImpl}, so both stacks convert identically.
+     *
+     * @param transaction The transaction to convert.
+     * @param currencyRates The rate snapshot to convert with.
+     * @param timestamp The timestamp to record on the transaction.
+     * @throws TransactionProcessingException if the amount is missing or no valid rate exists for the currency.
+     */
+    static void applyConversion(Transaction transaction, RateSnapshot currencyRates, LocalDateTime timestamp) {
+        if (transaction.getAmount() == null) {
+            throw new TransactionProcessingException("Amount is required.");
+        }
+        double conversionRate = currencyRates.rate(transaction.getCurrency());
+
+        if (Double.isNaN(conversionRate)) {
+            throw new TransactionProcessingException("Currency rate not found for: " + transaction.getCurrency());
+        }
+        if (conversionRate <= 0) {
+            throw new TransactionProcessingException("Invalid rate value for currency: " + transaction.getCurrency());
+        }
+
+        // Set converted amount and timestamp
+        transaction.setConvertedAmount(transaction.getAmount() / conversionRate);
+        transaction.setTimestamp(timestamp);
     }
 }
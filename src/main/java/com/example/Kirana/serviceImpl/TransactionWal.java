@@ -0,0 +1,437 @@
+package com.example.Kirana.serviceImpl;
+
+import com.example.Kirana.models.Transaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Local append-only write-ahead log of accepted transactions for the write-behind mode.
+ * <p>
+ * Transactions are appended as JSON lines to segment files named after the log offset of their first byte.
+ * Appends only wait for their own bytes to reach the disk, and fsyncs are shared: the first waiting appender
+ * forces everything written so far while later appenders wait for it, so under load one fsync covers many
+ * transactions. Appended entries are handed to a sink in log order while the append lock is held, so a consumer
+ * that processes them in order can {@link #checkpoint(long)} the log up to the last entry it finished, which
+ * deletes the segments that lie entirely before it. Entries reach the sink before their fsync completes; the
+ * consumer must call {@link Entry#awaitCommitted()} before acting on one, and skip it if the fsync failed.
+ * </p>
+ * <p>
+ * On {@link #open(Path, long, ObjectMapper)} the entries of existing segments are read back for replay and a new
+ * segment is started. A torn line at the end of a segment was never acknowledged and is skipped. A write that
+ * fails partway is cut off again before the error is returned, so later entries never follow torn bytes.
+ * </p>
+ */
+public final class TransactionWal implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionWal.class);
+
+    private static final String SUFFIX = ".wal";
+
+    private final Path directory;
+    private final long segmentSize;
+    private final ObjectMapper objectMapper;
+    private final SegmentOpener segmentOpener;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private FileChannel channel;
+    private long written;
+
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition syncDone = syncLock.newCondition();
+    private long durable;
+    private boolean syncing;
+
+    private final List<Entry> replayed = new ArrayList<>();
+
+    private TransactionWal(Path directory, long segmentSize, ObjectMapper objectMapper, SegmentOpener segmentOpener) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.objectMapper = objectMapper;
+        this.segmentOpener = segmentOpener;
+    }
+
+    /**
+     * Opens the log in a directory, reading back the entries of existing segments and starting a new segment.
+     *
+     * @param directory the directory holding the segments; created if missing.
+     * @param segmentSize the size after which appends start a new segment.
+     * @param objectMapper the mapper used to write and read transactions.
+     * @return the open log.
+     * @throws IOException if the directory or a segment cannot be read, or the new segment cannot be created.
+     */
+    public static TransactionWal open(Path directory, long segmentSize, ObjectMapper objectMapper) throws IOException {
+        return open(directory, segmentSize, objectMapper,
+                file -> FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * Opens the log with the given way of creating segment channels.
+     */
+    static TransactionWal open(Path directory, long segmentSize, ObjectMapper objectMapper,
+                               SegmentOpener segmentOpener) throws IOException {
+        Files.createDirectories(directory);
+        TransactionWal wal = new TransactionWal(directory, segmentSize, objectMapper, segmentOpener);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        long next = 0;
+        for (Path file : files) {
+            long start = Long.parseLong(file.getFileName().toString().replace(SUFFIX, ""));
+            long size = wal.readSegment(file, start);
+            if (size == 0) {
+                Files.delete(file);
+                continue;
+            }
+            wal.segments.addLast(new Segment(start, file));
+            next = start + size;
+        }
+        wal.written = next;
+        wal.durable = next;
+        wal.startSegment();
+        return wal;
+    }
+
+    /**
+     * Returns the entries read back from the segments that existed when the log was opened, in log order.
+     *
+     * @return the entries to replay.
+     */
+    public List<Entry> replayed() {
+        return replayed;
+    }
+
+    /**
+     * Appends transactions with a single write and waits until they are on disk.
+     * <p>
+     * The entries are passed to the sink in log order before the fsync, while the append lock is held; the sink
+     * must therefore be cheap and must not block. Once the fsync completes the entries are committed, or aborted
+     * if it failed. If the write itself fails, the sink receives nothing, and the bytes written so far are
+     * truncated away; if even that fails, the log continues in a new segment and the torn bytes are skipped on
+     * replay.
+     * </p>
+     *
+     * @param transactions the transactions to append.
+     * @param sink receives one entry per transaction.
+     * @throws IOException if the write or the fsync fails.
+     */
+    public void append(List<Transaction> transactions, Consumer<Entry> sink) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 * transactions.size());
+        long[] ends = new long[transactions.size()];
+        for (int i = 0; i < transactions.size(); i++) {
+            objectMapper.writeValue(bytes, transactions.get(i));
+            bytes.write('\n');
+            ends[i] = bytes.size();
+        }
+
+        Commit commit = new Commit();
+        long end;
+        appendLock.lock();
+        try {
+            if (!channel.isOpen()) {
+                restartSegment();
+            } else if (channel.position() > 0 && channel.position() + bytes.size() > segmentSize) {
+                channel.force(false);
+                channel.close();
+                startSegment();
+            }
+            long position = channel.position();
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                discardPartialWrite(position, e);
+                throw e;
+            }
+            long start = written;
+            written += bytes.size();
+            end = written;
+            for (int i = 0; i < transactions.size(); i++) {
+                sink.accept(new Entry(transactions.get(i), start + ends[i], commit));
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        boolean durable = false;
+        try {
+            awaitDurable(end);
+            durable = true;
+        } finally {
+            commit.complete(durable);
+        }
+    }
+
+    /**
+     * Deletes the segments whose entries all end at or before the given offset. The current segment is kept.
+     *
+     * @param offset the end of the last entry that no longer needs the log.
+     */
+    public void checkpoint(long offset) {
+        appendLock.lock();
+        try {
+            while (segments.size() > 1) {
+                Segment oldest = segments.pollFirst();
+                if (segments.peekFirst().start > offset) {
+                    segments.addFirst(oldest);
+                    return;
+                }
+                try {
+                    Files.deleteIfExists(oldest.path);
+                } catch (IOException e) {
+                    logger.warn("Could not delete write-ahead log segment {}: {}", oldest.path, e.getMessage());
+                }
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Forces and closes the current segment.
+     *
+     * @throws IOException if the segment cannot be forced.
+     */
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            channel.force(false);
+            channel.close();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the log is durable up to the given offset, forcing it if no other appender is doing so.
+     */
+    private void awaitDurable(long end) throws IOException {
+        syncLock.lock();
+        try {
+            while (durable < end) {
+                if (syncing) {
+                    syncDone.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                syncLock.unlock();
+                long target = -1;
+                try {
+                    FileChannel toSync;
+                    appendLock.lock();
+                    try {
+                        target = written;
+                        toSync = channel;
+                    } finally {
+                        appendLock.unlock();
+                    }
+                    try {
+                        toSync.force(false);
+                    } catch (ClosedChannelException e) {
+                        // The segment was rolled meanwhile, which forced it before closing it.
+                    }
+                } catch (IOException e) {
+                    target = -1;
+                    throw e;
+                } finally {
+                    syncLock.lock();
+                    syncing = false;
+                    durable = Math.max(durable, target);
+                    syncDone.signalAll();
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Cuts the current segment back to where a failed write started. If that fails too, the segment is closed
+     * and the log continues in a new one at the same offset; if no new segment can be created either, the next
+     * append tries again. Must be called with the append lock held.
+     *
+     * @param position the position of the segment before the write.
+     * @param failure the error of the write, to which errors of the cleanup are added.
+     */
+    private void discardPartialWrite(long position, IOException failure) {
+        try {
+            channel.truncate(position);
+            channel.position(position);
+            return;
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+        logger.warn("Could not truncate a failed write in {}, starting a new segment", segments.peekLast().path);
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+        try {
+            channel.close();
+            restartSegment();
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Starts a new segment after the current one was closed on a failure. A current segment that holds no
+     * complete entry starts at the same offset as the new one, so it is deleted first. Must be called with the
+     * append lock held.
+     */
+    private void restartSegment() throws IOException {
+        Segment current = segments.peekLast();
+        if (current != null && current.start == written) {
+            Files.deleteIfExists(current.path);
+            segments.pollLast();
+        }
+        startSegment();
+    }
+
+    /**
+     * Starts a new segment at the current end of the log. Must be called with the append lock held.
+     */
+    private void startSegment() throws IOException {
+        Path file = directory.resolve(String.format("%020d%s", written, SUFFIX));
+        channel = segmentOpener.open(file);
+        segments.addLast(new Segment(written, file));
+    }
+
+    /**
+     * Reads the entries of a segment into {@link #replayed}, skipping a torn last line and unreadable lines.
+     *
+     * @return the size of the segment.
+     */
+    private long readSegment(Path file, long start) throws IOException {
+        byte[] content = Files.readAllBytes(file);
+        int lineStart = 0;
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] != '\n') {
+                continue;
+            }
+            try {
+                Transaction transaction = objectMapper.readValue(content, lineStart, i - lineStart, Transaction.class);
+                replayed.add(new Entry(transaction, start + i + 1, Commit.COMMITTED));
+            } catch (IOException e) {
+                logger.warn("Skipping unreadable entry at offset {} of {}: {}", lineStart, file, e.getMessage());
+            }
+            lineStart = i + 1;
+        }
+        if (lineStart < content.length) {
+            logger.warn("Skipping torn entry at the end of {} ({} bytes)", file, content.length - lineStart);
+        }
+        return content.length;
+    }
+
+    /**
+     * A transaction in the log, with the log offset just past its line.
+     */
+    public static final class Entry {
+
+        private final Transaction transaction;
+        private final long end;
+        private final Commit commit;
+
+        Entry(Transaction transaction, long end, Commit commit) {
+            this.transaction = transaction;
+            this.end = end;
+            this.commit = commit;
+        }
+
+        /**
+         * Returns the logged transaction.
+         *
+         * @return the transaction.
+         */
+        public Transaction getTransaction() {
+            return transaction;
+        }
+
+        /**
+         * Returns the log offset just past the entry, to pass to {@link #checkpoint(long)}.
+         *
+         * @return the end offset.
+         */
+        public long getEnd() {
+            return end;
+        }
+
+        /**
+         * Waits until the fsync covering the entry has completed. Replayed entries are committed already.
+         *
+         * @return true if the entry is on disk, false if the fsync failed and the appender was given an error.
+         * @throws InterruptedException if interrupted while waiting.
+         */
+        public boolean awaitCommitted() throws InterruptedException {
+            return commit.await();
+        }
+    }
+
+    /**
+     * The outcome of one append, shared by its entries.
+     */
+    private static final class Commit {
+
+        private static final Commit COMMITTED = new Commit();
+
+        static {
+            COMMITTED.complete(true);
+        }
+
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile boolean durable;
+
+        void complete(boolean durable) {
+            this.durable = durable;
+            done.countDown();
+        }
+
+        boolean await() throws InterruptedException {
+            done.await();
+            return durable;
+        }
+    }
+
+    /**
+     * Creates the channel of a new segment file.
+     */
+    @FunctionalInterface
+    interface SegmentOpener {
+
+        FileChannel open(Path file) throws IOException;
+    }
+
+    private static final class Segment {
+
+        private final long start;
+        private final Path path;
+
+        Segment(long start, Path path) {
+            this.start = start;
+            this.path = path;
+        }
+    }
+}
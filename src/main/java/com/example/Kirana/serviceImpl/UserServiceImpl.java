@@ -3,19 +3,25 @@ package com.example.Kirana.serviceImpl;
 import com.example.Kirana.dto.AuthenticationRequest;
 import com.example.Kirana.dto.AuthenticationResponse;
 import com.example.Kirana.dto.UserRegistrationRequest;
+import com.example.Kirana.CustomExceptions.PasswordHashingRejectedException;
 import com.example.Kirana.CustomExceptions.UserAuthenticationException;
+import com.example.Kirana.CustomExceptions.UserNotFoundException;
+import com.example.Kirana.jwtConfig.TokenPrincipalCache;
 import com.example.Kirana.models.Users;
 import com.example.Kirana.repository.UserRepository;
 import com.example.Kirana.services.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Set;
+
 /**
  * Service implementation for handling user-related operations such as registration and authentication.
  * <p>
@@ -28,6 +34,10 @@ public class UserServiceImpl implements UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
 
+    private static final String DEFAULT_ROLE = "ROLE_USER";
+
+    private static final Set<String> ROLES = Set.of("ROLE_USER", "ROLE_ADMIN");
+
     @Autowired
     private UserRepository userRepository;
 
@@ -37,17 +47,31 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private AuthenticationManager authenticationManager;
 
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(12);
+    @Autowired
+    private MyUserDetailsService userDetailsService;
+
+    @Autowired
+    private TokenPrincipalCache tokenPrincipalCache;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
 
     /**
      * Registers a new user with the provided registration details.
      * <p>
-     * The password is encoded using BCrypt, and a default role ("ROLE_USER") is assigned if not provided.
+     * The password is encoded with the shared BCrypt encoder. Registration is open to anyone, so every new user
+     * gets the "ROLE_USER" role; other roles are only granted by an administrator through
+     * {@link #updateUserRole(String, String)}. The user is inserted rather than saved, so registering an existing
+     * username fails instead of overwriting that user's password and role.
+     * The user starts out as the only member of a store named after the username; staff of an existing store
+     * are moved into it with {@link #updateUserStore(String, String)}.
      * </p>
      *
-     * @param request The user registration details containing username, password, and optional role.
+     * @param request The user registration details containing username and password.
      * @return The registered user object with encoded password and assigned role.
+     * @throws DuplicateKeyException if the username is already taken.
      * @throws UserAuthenticationException if there is an error during registration.
+     * @throws PasswordHashingRejectedException if the password hashing queue is full.
      */
     @Override
     public Users registerUser(UserRegistrationRequest request) {
@@ -55,15 +79,74 @@ public class UserServiceImpl implements UserService {
             Users user = new Users();
             user.setUsername(request.getUsername());
             user.setPassword(passwordEncoder.encode(request.getPassword()));
-            user.setRole(request.getRole() != null ? request.getRole() : "ROLE_USER"); // Default role
+            user.setRole(DEFAULT_ROLE);
+            user.setStoreId(request.getUsername());
 
-            return userRepository.save(user);
+            Users savedUser = userRepository.insert(user);
+            invalidateCachedUser(savedUser.getUsername());
+            return savedUser;
+        } catch (PasswordHashingRejectedException | DuplicateKeyException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error registering user: {}", e.getMessage(), e);
             throw new UserAuthenticationException("Error registering user", e);
         }
     }
 
+    /**
+     * Changes the role of an existing user.
+     * <p>
+     * The user's cached details and cached tokens are dropped so that the new role applies from the next request
+     * on this node, and on other nodes once their cache entries expire.
+     * </p>
+     *
+     * @param username The username of the user to update.
+     * @param role The new role, "ROLE_USER" or "ROLE_ADMIN".
+     * @return The updated user.
+     * @throws IllegalArgumentException if the role is unknown.
+     * @throws UserNotFoundException if no user exists with the given username.
+     */
+    @Override
+    public Users updateUserRole(String username, String role) {
+        if (!ROLES.contains(role)) {
+            throw new IllegalArgumentException("Unknown role: " + role);
+        }
+        Users user = userRepository.findById(username)
+                .orElseThrow(() -> new UserNotFoundException("User not found with username: " + username));
+        user.setRole(role);
+        Users savedUser = userRepository.save(user);
+        invalidateCachedUser(username);
+        logger.info("Role of user {} changed to {}", username, role);
+        return savedUser;
+    }
+
+    /**
+     * Moves an existing user to another store.
+     * <p>
+     * As for role changes, the user's cached details and tokens are dropped, so transactions recorded from the next
+     * request on this node belong to the new store.
+     * </p>
+     *
+     * @param username The username of the user to update.
+     * @param storeId The id of the store the user now works for.
+     * @return The updated user.
+     * @throws IllegalArgumentException if the store id is blank.
+     * @throws UserNotFoundException if no user exists with the given username.
+     */
+    @Override
+    public Users updateUserStore(String username, String storeId) {
+        if (storeId == null || storeId.isBlank()) {
+            throw new IllegalArgumentException("storeId must not be blank.");
+        }
+        Users user = userRepository.findById(username)
+                .orElseThrow(() -> new UserNotFoundException("User not found with username: " + username));
+        user.setStoreId(storeId);
+        Users savedUser = userRepository.save(user);
+        invalidateCachedUser(username);
+        logger.info("User {} moved to store {}", username, storeId);
+        return savedUser;
+    }
+
     /**
      * Authenticates a user and generates a JWT token if authentication is successful.
      * <p>
@@ -75,6 +158,7 @@ public class UserServiceImpl implements UserService {
      * @return An {@link AuthenticationResponse} containing the username and token if authentication is successful,
      *         or an error message if authentication fails.
      * @throws UserAuthenticationException if authentication fails or an error occurs during authentication.
+     * @throws PasswordHashingRejectedException if the password hashing queue is full.
      */
     public AuthenticationResponse authenticateUser(AuthenticationRequest request) {
         try {
@@ -93,8 +177,38 @@ public class UserServiceImpl implements UserService {
                 throw new UserAuthenticationException("Invalid username or password");
             }
         } catch (Exception e) {
+            PasswordHashingRejectedException rejected = findHashingRejection(e);
+            if (rejected != null) {
+                throw rejected;
+            }
             logger.error("Error authenticating user: {}", e.getMessage(), e);
             throw new UserAuthenticationException("Authentication failed", e);
         }
     }
+
+    /**
+     * Finds a hashing rejection in the cause chain. The authentication provider wraps failures raised while loading
+     * the user (including its timing-attack mitigation hash) in an InternalAuthenticationServiceException.
+     *
+     * @param e The exception raised during authentication.
+     * @return The rejection, or null if the failure had another cause.
+     */
+    private PasswordHashingRejectedException findHashingRejection(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PasswordHashingRejectedException) {
+                return (PasswordHashingRejectedException) cause;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Drops the cached details and verified tokens of a user after the user record changed.
+     *
+     * @param username The username of the changed user.
+     */
+    private void invalidateCachedUser(String username) {
+        userDetailsService.evictUser(username);
+        tokenPrincipalCache.invalidateUser(username);
+    }
 }
@@ -0,0 +1,378 @@
+package com.example.Kirana.serviceImpl;
+
+import com.example.Kirana.exceptions.TransactionProcessingException;
+import com.example.Kirana.models.Transaction;
+import com.example.Kirana.services.AnalyticsService;
+import com.example.Kirana.services.ReportingService;
+import com.example.Kirana.services.RollupService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind persistence of transactions, enabled with {@code kirana.transactions.write-mode=write-behind}.
+ * <p>
+ * Accepted transactions are appended to the local {@link TransactionWal} and queued in memory; the write path
+ * returns as soon as the log is on disk. A single flusher thread drains the queue in log order, inserts up to
+ * {@code kirana.transactions.write-behind.batch-size} transactions per unordered bulk write, adds the stored ones
+ * to the rollups and the analytics sketches, evicts their stores' cached reports, and checkpoints the log. On
+ * startup the entries left in the log are queued again; those already stored are rejected by the unique
+ * {@code _id} index and skipped, so replay never stores a transaction twice.
+ * </p>
+ * <p>
+ * At most {@code kirana.transactions.write-behind.queue-capacity} transactions wait at once; beyond that writes
+ * are rejected until the flusher catches up. Duplicates by id or idempotency key are only detected when flushed
+ * and are dropped then, after the client was already acknowledged. Reads, reports and exports see a transaction
+ * once it is flushed.
+ * </p>
+ * <p>
+ * A transaction the database rejects for any other reason is retried up to
+ * {@code kirana.transactions.write-behind.max-attempts} times and then moved to {@code dead-letter.jsonl} in the
+ * log directory, so one poison entry cannot stall the flusher and fill the queue. Failures of a whole bulk write,
+ * such as an unreachable database, are retried until they succeed. If the fsync of an append fails, the client
+ * gets an error and the flusher skips the entries of that append; they may still be read back on restart, so such
+ * a client should retry with the same id or idempotency key.
+ * </p>
+ * <p>
+ * The queue depth is published as {@code kirana.transaction.write-behind.queue}, the log append as
+ * {@code kirana.transaction.save} with operation {@code wal-append}, each flush with operation
+ * {@code write-behind-flush}, and dead-lettered transactions as {@code kirana.transaction.write-behind.dead-lettered}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "kirana.transactions.write-mode", havingValue = "write-behind")
+public class WriteBehindWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindWriter.class);
+
+    private static final int DUPLICATE_KEY_ERROR_CODE = 11000;
+
+    private static final String DEAD_LETTER_FILE = "dead-letter.jsonl";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private ReportingService reportingService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${kirana.transactions.write-behind.wal-directory:wal}")
+    private String walDirectory;
+
+    @Value("${kirana.transactions.write-behind.segment-size:64MB}")
+    private DataSize segmentSize;
+
+    @Value("${kirana.transactions.write-behind.queue-capacity:100000}")
+    private int queueCapacity;
+
+    @Value("${kirana.transactions.write-behind.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${kirana.transactions.write-behind.retry-backoff:PT1S}")
+    private Duration retryBackoff;
+
+    @Value("${kirana.transactions.write-behind.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${kirana.transactions.write-behind.shutdown-timeout:PT30S}")
+    private Duration shutdownTimeout;
+
+    private final BlockingQueue<TransactionWal.Entry> queue = new LinkedBlockingQueue<>();
+
+    private TransactionWal wal;
+    private Semaphore capacity;
+    private int replayOverflow;
+    private Thread flusher;
+    private volatile boolean running;
+
+    private Timer appendTimer;
+    private Timer flushTimer;
+    private Counter deadLetterCounter;
+
+    /**
+     * Opens the write-ahead log, queues its entries for replay and starts the flusher.
+     * <p>
+     * Replayed entries take queue capacity like new writes. If more were replayed than the capacity, for example
+     * after the capacity was lowered, the semaphore starts at zero and the flusher keeps back the permits of the
+     * excess entries, so writes are accepted again once the queue is below capacity.
+     * </p>
+     *
+     * @throws IOException if the log cannot be opened.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        wal = TransactionWal.open(Path.of(walDirectory), segmentSize.toBytes(), objectMapper);
+        List<TransactionWal.Entry> replayed = wal.replayed();
+        queue.addAll(replayed);
+        capacity = new Semaphore(Math.max(0, queueCapacity - replayed.size()));
+        replayOverflow = Math.max(0, replayed.size() - queueCapacity);
+        if (!replayed.isEmpty()) {
+            logger.info("Replaying {} transactions from the write-ahead log in {}", replayed.size(), walDirectory);
+        }
+
+        appendTimer = Timer.builder("kirana.transaction.save").tag("operation", "wal-append").register(meterRegistry);
+        flushTimer = Timer.builder("kirana.transaction.save").tag("operation", "write-behind-flush").register(meterRegistry);
+        Gauge.builder("kirana.transaction.write-behind.queue", queue, BlockingQueue::size).register(meterRegistry);
+        deadLetterCounter = Counter.builder("kirana.transaction.write-behind.dead-lettered").register(meterRegistry);
+
+        running = true;
+        flusher = new Thread(this::runFlusher, "write-behind-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Appends converted transactions to the write-ahead log and queues them for the flusher. Transactions
+     * without an id are given one first, so a replayed entry is recognised if it was already stored.
+     * <p>
+     * The capacity taken for the transactions is returned here if the write fails before they are queued, and by
+     * the flusher once they are dequeued otherwise, including entries whose fsync failed.
+     * </p>
+     *
+     * @param transactions The converted and timestamped transactions.
+     * @throws TransactionProcessingException if the queue is full or the log cannot be written.
+     */
+    public void accept(List<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            if (transaction.getId() == null) {
+                transaction.setId(new ObjectId().toHexString());
+            }
+        }
+        if (!capacity.tryAcquire(transactions.size())) {
+            throw new TransactionProcessingException("Too many transactions waiting to be stored. Try again shortly.");
+        }
+        long appendStart = System.nanoTime();
+        int[] queued = {0};
+        try {
+            wal.append(transactions, entry -> {
+                queue.add(entry);
+                queued[0]++;
+            });
+        } catch (IOException e) {
+            capacity.release(transactions.size() - queued[0]);
+            logger.error("Error appending to the write-ahead log: {}", e.getMessage(), e);
+            throw new TransactionProcessingException("Error recording transaction.");
+        } finally {
+            appendTimer.record(System.nanoTime() - appendStart, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Stops the flusher once the queue is drained, or after {@code kirana.transactions.write-behind.shutdown-timeout},
+     * and closes the log. Entries not flushed by then are replayed on the next start.
+     *
+     * @throws IOException if the log cannot be closed.
+     */
+    @PreDestroy
+    public void stop() throws IOException {
+        running = false;
+        try {
+            flusher.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive()) {
+            logger.warn("Write-behind flusher did not drain {} transactions in time; they will be replayed on restart", queue.size());
+            flusher.interrupt();
+        }
+        wal.close();
+    }
+
+    /**
+     * Drains the queue in batches until stopped and empty. Entries whose append failed to reach the disk are
+     * skipped, but still count towards the checkpoint and the released capacity.
+     */
+    private void runFlusher() {
+        List<TransactionWal.Entry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                TransactionWal.Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                List<Transaction> committed = new ArrayList<>(batch.size());
+                for (TransactionWal.Entry entry : batch) {
+                    if (entry.awaitCommitted()) {
+                        committed.add(entry.getTransaction());
+                    }
+                }
+                if (committed.size() < batch.size()) {
+                    logger.warn("Write-behind flush skipped {} transactions whose log append failed", batch.size() - committed.size());
+                }
+                if (!committed.isEmpty() && !flushTimer.record(() -> flushBatch(committed))) {
+                    return;
+                }
+                releaseCapacity(batch.size());
+                wal.checkpoint(batch.get(batch.size() - 1).getEnd());
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns capacity for dequeued entries, first keeping back the permits of replayed entries beyond the capacity.
+     */
+    private void releaseCapacity(int entries) {
+        int keptBack = Math.min(replayOverflow, entries);
+        replayOverflow -= keptBack;
+        capacity.release(entries - keptBack);
+    }
+
+    /**
+     * Stores a batch, retrying failures other than duplicates until they succeed or the writer stops. A transaction
+     * rejected {@code kirana.transactions.write-behind.max-attempts} times is dead-lettered instead.
+     *
+     * @param batch The transactions to store, in log order.
+     * @return true if the batch is done, false if the writer stopped before it could be stored.
+     */
+    private boolean flushBatch(List<Transaction> batch) {
+        List<Transaction> pending = batch;
+        Map<Transaction, Integer> rejections = new IdentityHashMap<>();
+        while (true) {
+            List<Transaction> retry = new ArrayList<>();
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Transaction.class)
+                        .insert(pending)
+                        .execute();
+                recordStored(pending);
+                return true;
+            } catch (BulkOperationException e) {
+                Set<Integer> failed = new HashSet<>();
+                int deadLettered = 0;
+                for (BulkWriteError error : e.getErrors()) {
+                    failed.add(error.getIndex());
+                    if (error.getCode() == DUPLICATE_KEY_ERROR_CODE) {
+                        continue;
+                    }
+                    Transaction transaction = pending.get(error.getIndex());
+                    if (rejections.merge(transaction, 1, Integer::sum) >= maxAttempts && deadLetter(transaction, error)) {
+                        deadLettered++;
+                    } else {
+                        retry.add(transaction);
+                    }
+                }
+                List<Transaction> stored = new ArrayList<>(pending.size() - failed.size());
+                for (int i = 0; i < pending.size(); i++) {
+                    if (!failed.contains(i)) {
+                        stored.add(pending.get(i));
+                    }
+                }
+                recordStored(stored);
+                int duplicates = failed.size() - retry.size() - deadLettered;
+                if (deadLettered > 0) {
+                    logger.error("Write-behind flush moved {} transactions to {} after {} attempts", deadLettered, DEAD_LETTER_FILE, maxAttempts);
+                }
+                if (duplicates > 0) {
+                    logger.info("Write-behind flush skipped {} transactions that were already stored", duplicates);
+                }
+                if (retry.isEmpty()) {
+                    return true;
+                }
+                logger.warn("Write-behind flush failed for {} of {} transactions; retrying", retry.size(), pending.size());
+            } catch (Exception e) {
+                logger.warn("Write-behind flush of {} transactions failed: {}; retrying", pending.size(), e.getMessage());
+                retry = pending;
+            }
+            if (!running) {
+                return false;
+            }
+            pending = retry;
+            try {
+                Thread.sleep(retryBackoff.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Appends a transaction the database keeps rejecting to the dead-letter file, with the error, and forces it to
+     * disk, so it can be inspected and resubmitted once the log entry is checkpointed away.
+     *
+     * @return true if the transaction was written, false if it must stay in the batch.
+     */
+    private boolean deadLetter(Transaction transaction, BulkWriteError error) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("code", error.getCode());
+        record.put("error", error.getMessage());
+        record.put("transaction", transaction);
+        try (FileChannel channel = FileChannel.open(Path.of(walDirectory, DEAD_LETTER_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap((objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            logger.error("Error dead-lettering transaction {}: {}", transaction.getId(), e.getMessage());
+            return false;
+        }
+        deadLetterCounter.increment();
+        logger.error("Dead-lettered transaction {} rejected with code {}: {}", transaction.getId(), error.getCode(), error.getMessage());
+        return true;
+    }
+
+    /**
+     * Adds stored transactions to the rollups and the analytics sketches and evicts their stores' cached reports.
+     */
+    private void recordStored(List<Transaction> stored) {
+        if (stored.isEmpty()) {
+            return;
+        }
+        rollupService.recordTransactions(stored);
+        analyticsService.recordTransactions(stored);
+        TransactionServiceImpl.evictReports(reportingService, stored);
+    }
+}
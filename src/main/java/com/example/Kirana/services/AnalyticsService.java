@@ -0,0 +1,36 @@
+package com.example.Kirana.services;
+
+import com.example.Kirana.dto.AnalyticsSummary;
+import com.example.Kirana.models.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service interface for approximate percentile and distinct-count analytics over recorded transactions.
+ */
+public interface AnalyticsService {
+
+    /**
+     * Adds recorded transactions to the in-memory sketches of their store and of the fleet.
+     *
+     * @param transactions the saved transactions, with store, converted amount and timestamp set
+     */
+    void recordTransactions(List<Transaction> transactions);
+
+    /**
+     * Writes the in-memory sketches that changed since the last flush to MongoDB.
+     */
+    void flush();
+
+    /**
+     * Summarizes one store's transactions, or the whole fleet's, over a range of days.
+     *
+     * @param storeId the store to summarize, or null for the whole fleet
+     * @param from the start of the range, aligned down to a day
+     * @param to the end of the range, aligned up to a day
+     * @return the approximate percentiles and distinct counts for the range
+     * @throws IllegalArgumentException if the range is empty or spans too many days
+     */
+    AnalyticsSummary summarize(String storeId, LocalDateTime from, LocalDateTime to);
+}
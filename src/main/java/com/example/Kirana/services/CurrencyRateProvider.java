@@ -0,0 +1,21 @@
+package com.example.Kirana.services;
+
+import com.example.Kirana.models.RateSnapshot;
+
+/**
+ * Service interface for providing currency rates to the transaction path without blocking on the FX API.
+ */
+public interface CurrencyRateProvider {
+
+    /**
+     * Returns the current in-memory rate snapshot. Never performs I/O.
+     *
+     * @return the current {@link RateSnapshot}
+     */
+    RateSnapshot currentRates();
+
+    /**
+     * Refreshes the in-memory snapshot from the shared Redis tier or, if that is stale, from the {@link RateSource}.
+     */
+    void refresh();
+}
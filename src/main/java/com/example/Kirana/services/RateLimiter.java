@@ -0,0 +1,16 @@
+package com.example.Kirana.services;
+
+/**
+ * Service interface for per-user request rate limiting.
+ */
+public interface RateLimiter {
+
+    /**
+     * Attempts to take one request from the given user's allowance.
+     *
+     * @param key the rate limit key, normally the authenticated username
+     * @param role the user's role, which selects the allowance tier
+     * @return true if the request is allowed, false if the allowance is exhausted
+     */
+    boolean tryConsume(String key, String role);
+}
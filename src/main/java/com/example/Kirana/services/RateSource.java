@@ -0,0 +1,17 @@
+package com.example.Kirana.services;
+
+import java.util.Map;
+
+/**
+ * Source of currency rates used by the {@link CurrencyRateProvider} refresh task.
+ * Selected with {@code kirana.fx.source}.
+ */
+public interface RateSource {
+
+    /**
+     * Loads the latest currency rates.
+     *
+     * @return a map of currency codes to rates relative to the base currency
+     */
+    Map<String, Object> fetchRates();
+}
@@ -0,0 +1,21 @@
+package com.example.Kirana.services;
+
+import com.example.Kirana.dto.TransactionChange;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking counterpart of {@link TransactionChangeService}, used when the application runs on WebFlux.
+ */
+public interface ReactiveTransactionChangeService {
+
+    /**
+     * Follows one store's stored transactions until the subscriber cancels.
+     *
+     * @param storeId the store whose transactions to follow
+     * @param after the resume token of the last change the consumer processed, or null to start from now
+     * @return the changes in commit order; fails with an IllegalArgumentException if the token is malformed, or
+     *         with a {@link com.example.Kirana.CustomExceptions.ChangeFeedExpiredException} if it is no longer in
+     *         the oplog
+     */
+    Flux<TransactionChange> followChanges(String storeId, String after);
+}
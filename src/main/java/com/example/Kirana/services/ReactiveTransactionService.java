@@ -0,0 +1,29 @@
+package com.example.Kirana.services;
+
+import com.example.Kirana.dto.BatchItemResult;
+import com.example.Kirana.models.Transaction;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link TransactionService}, used when the application runs on WebFlux.
+ */
+public interface ReactiveTransactionService {
+
+    /**
+     * Records a transaction with concurrency control to ensure no duplicate processing.
+     *
+     * @param transaction the transaction details to be recorded, with the store of the authenticated user set
+     * @return the recorded transaction, including the converted amount and timestamp
+     */
+    Mono<Transaction> recordTransaction(Transaction transaction);
+
+    /**
+     * Records a batch of transactions against a single currency rate snapshot with one bulk write.
+     *
+     * @param transactions the transactions to be recorded, each with the store of the authenticated user set
+     * @return one result per submitted transaction, in submission order
+     */
+    Mono<List<BatchItemResult>> recordTransactionBatch(List<Transaction> transactions);
+}
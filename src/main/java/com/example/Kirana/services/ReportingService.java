@@ -1,6 +1,12 @@
 package com.example.Kirana.services;
 
+import com.example.Kirana.dto.BreakdownReport;
 import com.example.Kirana.dto.Report;
+import com.example.Kirana.dto.ReportSeries;
+import com.example.Kirana.models.ReportGranularity;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 
 /**
  * Service interface for generating financial reports based on transaction data.
@@ -8,32 +14,57 @@ import com.example.Kirana.dto.Report;
 public interface ReportingService {
 
     /**
-     * Generates a financial report for a given period.
+     * Generates a financial report of one store for a given period.
      *
+     * @param storeId the store whose transactions the report covers
      * @param period the period for which the report is generated (e.g., "weekly", "monthly", "yearly")
      * @return a {@link Report} object containing the total credits, total debits, net flow, and the specified period
      */
-    Report generateReport(String period);
-}
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
+    Report generateReport(String storeId, String period);
 
+    /**
+     * Generates a breakdown of one store's credits and debits for a given period, per original currency and type
+     * and per type across currencies, with count, total, average, minimum and maximum amounts.
+     *
+     * @param storeId the store whose transactions the report covers
+     * @param period the period for which the report is generated (e.g., "weekly", "monthly", "yearly")
+     * @return a {@link BreakdownReport} for the specified period
+     */
+    BreakdownReport generateBreakdown(String storeId, String period);
 
+    /**
+     * Generates a time series of one store's credits, debits and net flow, one bucket per hour, day, week or month.
+     *
+     * @param storeId the store whose transactions the series covers
+     * @param from the start of the range, aligned down to a bucket boundary
+     * @param to the end of the range, aligned up to a bucket boundary
+     * @param granularity the bucket granularity
+     * @return the series, with a bucket for every period of the range
+     * @throws IllegalArgumentException if the range is empty or has too many buckets
+     */
+    ReportSeries generateSeries(String storeId, LocalDateTime from, LocalDateTime to, ReportGranularity granularity);
 
+    /**
+     * Drops the cached reports of stores, after they recorded transactions that fall inside their windows.
+     * The eviction may complete after this method returns.
+     *
+     * @param storeIds the stores whose reports are now out of date
+     */
+    void evictReports(Collection<String> storeIds);
 
+    /**
+     * Returns the end of the latest bucket a time series may have cached as closed. Transactions timestamped
+     * before it that reach the rollups only now make the cached series of their store stale.
+     *
+     * @return the end of the closed buckets, at the current time
+     */
+    LocalDateTime closedSeriesEnd();
 
+    /**
+     * Drops the cached closed buckets of the time series of stores, after their rollups changed in the past.
+     * The eviction may complete after this method returns.
+     *
+     * @param storeIds the stores whose cached series are now out of date
+     */
+    void evictSeries(Collection<String> storeIds);
+}
@@ -0,0 +1,54 @@
+package com.example.Kirana.services;
+
+import com.example.Kirana.dto.ReportTotals;
+import com.example.Kirana.models.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Service interface for maintaining and querying pre-aggregated report rollups.
+ */
+public interface RollupService {
+
+    /**
+     * Adds a recorded transaction to its store's hourly and daily rollup buckets.
+     *
+     * @param transaction the saved transaction, with store, converted amount and timestamp set
+     */
+    void recordTransaction(Transaction transaction);
+
+    /**
+     * Adds a batch of recorded transactions to their rollup buckets with a single bulk write.
+     *
+     * @param transactions the saved transactions, with store, converted amount and timestamp set
+     */
+    void recordTransactions(List<Transaction> transactions);
+
+    /**
+     * Sums a store's credits and debits for the half-open range [start, end) using rollups where possible.
+     *
+     * @param storeId the store whose transactions to sum
+     * @param start the inclusive start of the range
+     * @param end the exclusive end of the range
+     * @return the totals for the range
+     */
+    ReportTotals sumBetween(String storeId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Recomputes the rollup buckets of every store for the given range from the raw transactions.
+     *
+     * @param from the start of the range, aligned down to a day boundary
+     * @param to the end of the range, aligned up to a day boundary
+     * @return the number of transactions processed
+     */
+    long rebuildRollups(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Rebuilds the store days whose rollup increments failed, from the raw transactions.
+     *
+     * @return the stores whose buckets were rebuilt
+     */
+    Set<String> repairRollups();
+}
@@ -0,0 +1,27 @@
+package com.example.Kirana.services;
+
+import com.example.Kirana.dto.TransactionChangeBatch;
+
+import java.time.Duration;
+
+/**
+ * An open change feed of one store's transactions, read batch by batch. Feeds hold a server-side cursor and
+ * must be closed.
+ */
+public interface TransactionChangeFeed extends AutoCloseable {
+
+    /**
+     * Waits for changes and returns them as a batch.
+     *
+     * @param limit the maximum number of changes in the batch
+     * @param wait how long to wait for the first change; the batch is returned empty if none arrives
+     * @return the batch, with the token to resume after it
+     */
+    TransactionChangeBatch nextBatch(int limit, Duration wait);
+
+    /**
+     * Closes the server-side cursor.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,18 @@
+package com.example.Kirana.services;
+
+/**
+ * Service interface for following stored transactions through MongoDB change streams.
+ */
+public interface TransactionChangeService {
+
+    /**
+     * Opens a change feed of one store's stored transactions.
+     *
+     * @param storeId the store whose transactions to follow
+     * @param after the resume token of the last change the consumer processed, or null to start from now
+     * @return the open feed
+     * @throws IllegalArgumentException if the token is malformed
+     * @throws com.example.Kirana.CustomExceptions.ChangeFeedExpiredException if the token is no longer in the oplog
+     */
+    TransactionChangeFeed openFeed(String storeId, String after);
+}
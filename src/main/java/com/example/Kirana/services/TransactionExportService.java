@@ -0,0 +1,24 @@
+package com.example.Kirana.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+/**
+ * Service interface for exporting full transaction ledgers.
+ */
+public interface TransactionExportService {
+
+    /**
+     * Writes every transaction of a store in the half-open range [from, to) to the output, in timestamp order.
+     *
+     * @param storeId the store whose transactions to export
+     * @param from the inclusive start of the range
+     * @param to the exclusive end of the range
+     * @param format the output format, "csv" or "ndjson"
+     * @param out the stream to write to; flushed but not closed
+     * @return the number of transactions written
+     * @throws IOException if writing to the output fails
+     */
+    long exportTransactions(String storeId, LocalDateTime from, LocalDateTime to, String format, OutputStream out) throws IOException;
+}
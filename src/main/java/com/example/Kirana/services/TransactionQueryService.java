@@ -0,0 +1,22 @@
+package com.example.Kirana.services;
+
+import com.example.Kirana.dto.TransactionPage;
+
+/**
+ * Service interface for reading transactions back page by page.
+ */
+public interface TransactionQueryService {
+
+    /**
+     * Lists a store's transactions newest first, one page at a time.
+     *
+     * @param storeId the store whose transactions to list
+     * @param type only transactions of this type ("credit" or "debit"), or null for all types
+     * @param currency only transactions in this currency, or null for all currencies
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the maximum number of transactions on the page
+     * @return the page and the cursor of the next page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    TransactionPage listTransactions(String storeId, String type, String currency, String after, int limit);
+}
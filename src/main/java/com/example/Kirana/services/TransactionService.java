@@ -1,7 +1,9 @@
 package com.example.Kirana.services;
 
+import com.example.Kirana.dto.BatchItemResult;
 import com.example.Kirana.models.Transaction;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -10,7 +12,7 @@ import java.util.Map;
 public interface TransactionService {
 
     /**
-     * Fetches currency rates from an external API and caches the results.
+     * Returns the current currency rates from the locally cached snapshot.
      *
      * @return a map containing currency codes and their corresponding rates
      */
@@ -19,8 +21,16 @@ public interface TransactionService {
     /**
      * Records a transaction with concurrency control to ensure no duplicate processing.
      *
-     * @param transaction the transaction details to be recorded
+     * @param transaction the transaction details to be recorded, with the store of the authenticated user set
      * @return the recorded transaction, including any additional data or status
      */
     Transaction recordTransactionWithConcurrencyControl(Transaction transaction);
+
+    /**
+     * Records a batch of transactions against a single currency rate snapshot with one bulk write.
+     *
+     * @param transactions the transactions to be recorded, each with the store of the authenticated user set
+     * @return one result per submitted transaction, in submission order
+     */
+    List<BatchItemResult> recordTransactionBatch(List<Transaction> transactions);
 }
@@ -11,13 +11,31 @@ import com.example.Kirana.models.Users;
 public interface UserService {
 
     /**
-     * Registers a new user with the given registration request details.
+     * Registers a new user with the given registration request details. New users always get the "ROLE_USER" role.
      *
-     * @param request the user registration request containing username, password, and optional role
+     * @param request the user registration request containing username and password
      * @return the registered user
      */
     Users registerUser(UserRegistrationRequest request);
 
+    /**
+     * Changes the role of an existing user and invalidates any cached copies of the user.
+     *
+     * @param username the username of the user to update
+     * @param role the new role, "ROLE_USER" or "ROLE_ADMIN"
+     * @return the updated user
+     */
+    Users updateUserRole(String username, String role);
+
+    /**
+     * Moves an existing user to another store and invalidates any cached copies of the user.
+     *
+     * @param username the username of the user to update
+     * @param storeId the id of the store the user now works for
+     * @return the updated user
+     */
+    Users updateUserStore(String username, String storeId);
+
     /**
      * Authenticates a user based on the provided authentication request.
      *
@@ -0,0 +1,27 @@
+package com.example.Kirana.controllers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionControllerTest {
+
+	@Test
+	void acceptsGzipWithAPositiveQuality() {
+		assertTrue(TransactionController.acceptsGzip("gzip"));
+		assertTrue(TransactionController.acceptsGzip("deflate, gzip;q=0.5"));
+		assertTrue(TransactionController.acceptsGzip("br, X-GZIP"));
+		assertTrue(TransactionController.acceptsGzip("*"));
+	}
+
+	@Test
+	void refusesGzipWithAZeroQualityOrWhenNotListed() {
+		assertFalse(TransactionController.acceptsGzip(null));
+		assertFalse(TransactionController.acceptsGzip("identity"));
+		assertFalse(TransactionController.acceptsGzip("gzip;q=0"));
+		assertFalse(TransactionController.acceptsGzip("gzip; q=0.000, deflate"));
+		assertFalse(TransactionController.acceptsGzip("gzip;q=0, *"));
+		assertFalse(TransactionController.acceptsGzip("*;q=0"));
+	}
+}
@@ -0,0 +1,78 @@
+package com.example.Kirana.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReportGranularityTest {
+
+	// A Sunday, so weekly buckets start in the previous month
+	private static final LocalDateTime SUNDAY_EVENING = LocalDateTime.of(2024, 3, 3, 18, 45, 12, 500_000_000);
+
+	@Test
+	void floorsToTheStartOfTheEnclosingBucket() {
+		assertEquals(LocalDateTime.of(2024, 3, 3, 18, 0), ReportGranularity.HOUR.floor(SUNDAY_EVENING));
+		assertEquals(LocalDateTime.of(2024, 3, 3, 0, 0), ReportGranularity.DAY.floor(SUNDAY_EVENING));
+		assertEquals(LocalDateTime.of(2024, 2, 26, 0, 0), ReportGranularity.WEEK.floor(SUNDAY_EVENING));
+		assertEquals(LocalDateTime.of(2024, 3, 1, 0, 0), ReportGranularity.MONTH.floor(SUNDAY_EVENING));
+	}
+
+	@Test
+	void weeksStartOnMonday() {
+		LocalDateTime monday = LocalDateTime.of(2024, 3, 4, 0, 0);
+		assertEquals(DayOfWeek.MONDAY, monday.getDayOfWeek());
+
+		assertEquals(monday, ReportGranularity.WEEK.floor(monday));
+		assertEquals(monday, ReportGranularity.WEEK.floor(monday.plusDays(6).withHour(23)));
+		assertEquals(monday, ReportGranularity.WEEK.next(ReportGranularity.WEEK.floor(SUNDAY_EVENING)));
+	}
+
+	@Test
+	void ceilKeepsBoundariesAndRoundsEverythingElseUp() {
+		for (ReportGranularity granularity : ReportGranularity.values()) {
+			LocalDateTime boundary = granularity.floor(SUNDAY_EVENING);
+			assertEquals(boundary, granularity.ceil(boundary), granularity.name());
+			assertEquals(granularity.next(boundary), granularity.ceil(boundary.plusNanos(1)), granularity.name());
+			assertEquals(granularity.next(boundary), granularity.ceil(SUNDAY_EVENING), granularity.name());
+		}
+	}
+
+	@Test
+	void bucketsTileTheTimelineWithoutGaps() {
+		for (ReportGranularity granularity : ReportGranularity.values()) {
+			LocalDateTime bucket = granularity.floor(LocalDateTime.of(2023, 12, 30, 7, 0));
+			for (int i = 0; i < 100; i++) {
+				LocalDateTime next = granularity.next(bucket);
+				assertEquals(bucket, granularity.floor(next.minusNanos(1)), granularity.name());
+				assertEquals(next, granularity.floor(next), granularity.name());
+				bucket = next;
+			}
+		}
+	}
+
+	@Test
+	void monthsFollowTheCalendar() {
+		assertEquals(LocalDateTime.of(2024, 3, 1, 0, 0), ReportGranularity.MONTH.next(LocalDateTime.of(2024, 2, 1, 0, 0)));
+		assertEquals(LocalDateTime.of(2024, 2, 1, 0, 0), ReportGranularity.MONTH.floor(LocalDateTime.of(2024, 2, 29, 23, 59)));
+		assertEquals(LocalDateTime.of(2025, 1, 1, 0, 0), ReportGranularity.MONTH.next(LocalDateTime.of(2024, 12, 1, 0, 0)));
+	}
+
+	@Test
+	void hourlySeriesReadHourlyRollupsAndOthersDailyRollups() {
+		assertEquals(RollupGranularity.HOUR, ReportGranularity.HOUR.rollup());
+		assertEquals(RollupGranularity.DAY, ReportGranularity.DAY.rollup());
+		assertEquals(RollupGranularity.DAY, ReportGranularity.WEEK.rollup());
+		assertEquals(RollupGranularity.DAY, ReportGranularity.MONTH.rollup());
+	}
+
+	@Test
+	void parsesNamesInAnyCase() {
+		assertEquals(ReportGranularity.WEEK, ReportGranularity.parse("week"));
+		assertEquals(ReportGranularity.MONTH, ReportGranularity.parse("Month"));
+		assertThrows(IllegalArgumentException.class, () -> ReportGranularity.parse("fortnight"));
+	}
+}
@@ -0,0 +1,124 @@
+package com.example.Kirana.serviceImpl;
+
+import com.example.Kirana.dto.CurrencyBreakdown;
+import com.example.Kirana.models.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BreakdownAccumulatorTest {
+
+	@Test
+	void groupsByCurrencyAndType() {
+		BreakdownAccumulator accumulator = new BreakdownAccumulator();
+		accumulator.accept(transaction("USD", "credit", 10.0, 830.0));
+		accumulator.accept(transaction("USD", "credit", 30.0, 2490.0));
+		accumulator.accept(transaction("USD", "debit", 5.0, 415.0));
+		accumulator.accept(transaction("INR", "credit", 100.0, 100.0));
+
+		Map<String, CurrencyBreakdown> rows = byKey(accumulator.toRows());
+		assertEquals(3, rows.size());
+
+		CurrencyBreakdown usdCredits = rows.get("USD:credit");
+		assertEquals(2, usdCredits.getCount());
+		assertEquals(40.0, usdCredits.getTotalAmount());
+		assertEquals(20.0, usdCredits.getAverageAmount());
+		assertEquals(10.0, usdCredits.getMinAmount());
+		assertEquals(30.0, usdCredits.getMaxAmount());
+		assertEquals(3320.0, usdCredits.getTotalConvertedAmount());
+		assertEquals(830.0, usdCredits.getMinConvertedAmount());
+		assertEquals(2490.0, usdCredits.getMaxConvertedAmount());
+
+		assertEquals(1, rows.get("USD:debit").getCount());
+		assertEquals(100.0, rows.get("INR:credit").getTotalConvertedAmount());
+	}
+
+	@Test
+	void skipsWhatTheAggregationMatchExcludes() {
+		BreakdownAccumulator accumulator = new BreakdownAccumulator();
+		accumulator.accept(transaction("EUR", "debit", 1.0, 90.0));
+		accumulator.accept(transaction("EUR", "refund", 1.0, 90.0));
+		accumulator.accept(transaction("eur", "debit", 1.0, 90.0));
+		accumulator.accept(transaction("EURO", "debit", 1.0, 90.0));
+		accumulator.accept(transaction(null, "debit", 1.0, 90.0));
+		accumulator.accept(transaction("EUR", "debit", null, 90.0));
+		accumulator.accept(transaction("EUR", "debit", 1.0, null));
+
+		List<CurrencyBreakdown> rows = accumulator.toRows();
+		assertEquals(1, rows.size());
+		assertEquals("EUR", rows.get(0).getCurrency());
+		assertEquals(1, rows.get(0).getCount());
+	}
+
+	@Test
+	void keepsNegativeExtremes() {
+		BreakdownAccumulator accumulator = new BreakdownAccumulator();
+		accumulator.accept("GBP", "debit", -3.0, -300.0);
+		accumulator.accept("GBP", "debit", -7.0, -700.0);
+
+		CurrencyBreakdown row = accumulator.toRows().get(0);
+		assertEquals(-7.0, row.getMinAmount());
+		assertEquals(-3.0, row.getMaxAmount());
+		assertEquals(-700.0, row.getMinConvertedAmount());
+		assertEquals(-300.0, row.getMaxConvertedAmount());
+	}
+
+	@Test
+	void growsPastItsInitialCapacity() {
+		BreakdownAccumulator accumulator = new BreakdownAccumulator();
+		for (char first = 'A'; first <= 'Z'; first++) {
+			for (char second = 'A'; second <= 'E'; second++) {
+				String currency = "" + first + second + "X";
+				accumulator.accept(currency, "credit", 1.0, 2.0);
+				accumulator.accept(currency, "debit", 3.0, 4.0);
+				accumulator.accept(currency, "credit", 5.0, 6.0);
+			}
+		}
+
+		Map<String, CurrencyBreakdown> rows = byKey(accumulator.toRows());
+		assertEquals(26 * 5 * 2, rows.size());
+		for (CurrencyBreakdown row : rows.values()) {
+			assertEquals("credit".equals(row.getType()) ? 2 : 1, row.getCount(), row.getCurrency());
+		}
+		CurrencyBreakdown zex = rows.get("ZEX:credit");
+		assertNotNull(zex);
+		assertEquals(6.0, zex.getTotalAmount());
+		assertEquals(8.0, zex.getTotalConvertedAmount());
+	}
+
+	@Test
+	void compensatesRoundingErrors() {
+		BreakdownAccumulator accumulator = new BreakdownAccumulator();
+		for (int i = 0; i < 1_000_000; i++) {
+			accumulator.accept("INR", "credit", 0.1, 0.1);
+		}
+
+		CurrencyBreakdown row = accumulator.toRows().get(0);
+		assertEquals(100_000.0, row.getTotalAmount(), 1e-9);
+		assertEquals(100_000.0, row.getTotalConvertedAmount(), 1e-9);
+		assertTrue(Math.abs(row.getAverageAmount() - 0.1) < 1e-15);
+	}
+
+	private static Map<String, CurrencyBreakdown> byKey(List<CurrencyBreakdown> rows) {
+		Map<String, CurrencyBreakdown> byKey = new HashMap<>();
+		for (CurrencyBreakdown row : rows) {
+			byKey.put(row.getCurrency() + ":" + row.getType(), row);
+		}
+		return byKey;
+	}
+
+	private static Transaction transaction(String currency, String type, Double amount, Double convertedAmount) {
+		Transaction transaction = new Transaction();
+		transaction.setCurrency(currency);
+		transaction.setType(type);
+		transaction.setAmount(amount);
+		transaction.setConvertedAmount(convertedAmount);
+		return transaction;
+	}
+}
@@ -0,0 +1,110 @@
+package com.example.Kirana.serviceImpl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+	@Test
+	void staysWithinThreeStandardErrorsAtPrecision12() {
+		// The standard error at precision p is 1.04 / sqrt(2^p), about 1.6% at 12
+		double tolerance = 3 * 1.04 / Math.sqrt(1 << 12);
+		for (int cardinality : new int[]{1_000, 10_000, 100_000, 1_000_000}) {
+			HyperLogLog sketch = new HyperLogLog(12);
+			for (int i = 0; i < cardinality; i++) {
+				sketch.add("customer-" + i);
+			}
+
+			double error = Math.abs(sketch.estimate() - cardinality) / (double) cardinality;
+			assertTrue(error <= tolerance, cardinality + " values estimated as " + sketch.estimate());
+		}
+	}
+
+	@Test
+	void countsSmallSetsAlmostExactly() {
+		HyperLogLog sketch = new HyperLogLog(12);
+		for (int i = 0; i < 50; i++) {
+			sketch.add("store-" + i);
+		}
+
+		assertEquals(50, sketch.estimate(), 1);
+		assertEquals(0, new HyperLogLog(12).estimate());
+	}
+
+	@Test
+	void ignoresRepeatsAndNulls() {
+		HyperLogLog sketch = new HyperLogLog(12);
+		for (int i = 0; i < 10_000; i++) {
+			sketch.add("customer-" + i % 100);
+			sketch.add(null);
+		}
+
+		assertEquals(100, sketch.estimate(), 2);
+	}
+
+	@Test
+	void mergeEstimatesTheUnion() {
+		HyperLogLog monday = new HyperLogLog(12);
+		HyperLogLog tuesday = new HyperLogLog(12);
+		HyperLogLog both = new HyperLogLog(12);
+		for (int i = 0; i < 30_000; i++) {
+			monday.add("customer-" + i);
+			both.add("customer-" + i);
+		}
+		for (int i = 20_000; i < 50_000; i++) {
+			tuesday.add("customer-" + i);
+			both.add("customer-" + i);
+		}
+
+		monday.merge(tuesday);
+
+		assertArrayEquals(both.toBytes(), monday.toBytes());
+		assertEquals(50_000, monday.estimate(), 50_000 * 3 * 1.04 / 64);
+	}
+
+	@Test
+	void rejectsMergingDifferentPrecisions() {
+		assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(12).merge(new HyperLogLog(10)));
+	}
+
+	@Test
+	void reduceMatchesASketchBuiltAtTheLowerPrecision() {
+		HyperLogLog fine = new HyperLogLog(14);
+		HyperLogLog coarse = new HyperLogLog(10);
+		for (int i = 0; i < 20_000; i++) {
+			fine.add("customer-" + i);
+			coarse.add("customer-" + i);
+		}
+
+		assertArrayEquals(coarse.toBytes(), fine.reduce(10).toBytes());
+		assertSame(fine, fine.reduce(14));
+		assertThrows(IllegalArgumentException.class, () -> coarse.reduce(12));
+	}
+
+	@Test
+	void roundTripsThroughBytes() {
+		HyperLogLog sketch = new HyperLogLog(8);
+		for (int i = 0; i < 1_000; i++) {
+			sketch.add("store-" + i);
+		}
+
+		HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+		assertEquals(8, restored.getPrecision());
+		assertEquals(sketch.estimate(), restored.estimate());
+		assertArrayEquals(sketch.toBytes(), restored.toBytes());
+	}
+
+	@Test
+	void rejectsMalformedInput() {
+		assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+		assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(17));
+		assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[0]));
+		assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[]{12, 0, 0}));
+		assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[]{2, 0, 0, 0, 0}));
+	}
+}
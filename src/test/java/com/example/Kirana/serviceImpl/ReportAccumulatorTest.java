@@ -0,0 +1,68 @@
+package com.example.Kirana.serviceImpl;
+
+import com.example.Kirana.dto.ReportTotals;
+import com.example.Kirana.models.Transaction;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReportAccumulatorTest {
+
+	@Test
+	void sumsCreditsAndDebitsSeparately() {
+		ReportAccumulator accumulator = new ReportAccumulator();
+		accumulator.accept(transaction("credit", 100.0));
+		accumulator.accept(transaction("credit", 25.5));
+		accumulator.accept(transaction("debit", 40.25));
+
+		ReportTotals totals = accumulator.toTotals();
+		assertEquals(125.5, totals.getTotalCredits());
+		assertEquals(40.25, totals.getTotalDebits());
+		assertEquals(3, totals.getTransactionCount());
+	}
+
+	@Test
+	void skipsWhatTheAggregationMatchExcludes() {
+		ReportAccumulator accumulator = new ReportAccumulator();
+		accumulator.accept(transaction("credit", 10.0));
+		accumulator.accept(transaction("credit", null));
+		accumulator.accept(transaction("refund", 99.0));
+		accumulator.accept(transaction(null, 99.0));
+		accumulator.accept("transfer", 99.0);
+
+		assertEquals(10.0, accumulator.totalCredits());
+		assertEquals(0.0, accumulator.totalDebits());
+		assertEquals(1, accumulator.count());
+	}
+
+	@Test
+	void compensatesRoundingErrors() {
+		ReportAccumulator accumulator = new ReportAccumulator();
+		double naive = 0;
+		for (int i = 0; i < 1_000_000; i++) {
+			accumulator.accept("credit", 0.1);
+			naive += 0.1;
+		}
+
+		assertEquals(100_000.0, accumulator.totalCredits(), 1e-9);
+		assertTrue(Math.abs(naive - 100_000.0) > 1e-9, "a plain double sum drifts");
+	}
+
+	@Test
+	void keepsSmallAmountsNextToLargeOnes() {
+		ReportAccumulator accumulator = new ReportAccumulator();
+		accumulator.accept("debit", 1e16);
+		accumulator.accept("debit", 1.0);
+		accumulator.accept("debit", -1e16);
+
+		assertEquals(1.0, accumulator.totalDebits());
+	}
+
+	private static Transaction transaction(String type, Double convertedAmount) {
+		Transaction transaction = new Transaction();
+		transaction.setType(type);
+		transaction.setConvertedAmount(convertedAmount);
+		return transaction;
+	}
+}
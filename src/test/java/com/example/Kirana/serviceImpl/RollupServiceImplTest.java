@@ -0,0 +1,202 @@
+package com.example.Kirana.serviceImpl;
+
+import com.example.Kirana.dto.ReportTotals;
+import com.example.Kirana.dto.TypeTotal;
+import com.example.Kirana.models.ReportRollup;
+import com.example.Kirana.models.RollupGranularity;
+import com.example.Kirana.models.RollupRepair;
+import com.example.Kirana.models.Transaction;
+import com.example.Kirana.repository.ReportRollupRepository;
+import com.example.Kirana.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class RollupServiceImplTest {
+
+	private static final String STORE = "store-17";
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	@Mock
+	private ReportRollupRepository reportRollupRepository;
+
+	@Mock
+	private TransactionRepository transactionRepository;
+
+	@Spy
+	private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@InjectMocks
+	private RollupServiceImpl rollupService;
+
+	private AutoCloseable mocks;
+
+	@BeforeEach
+	void openMocks() {
+		mocks = MockitoAnnotations.openMocks(this);
+		rollupService.initMetrics();
+	}
+
+	@AfterEach
+	void closeMocks() throws Exception {
+		mocks.close();
+	}
+
+	@Test
+	void sumsRawTransactionsInsideASingleHour() {
+		LocalDateTime start = at(1, 10, 15);
+		LocalDateTime end = at(1, 10, 45);
+		when(transactionRepository.sumConvertedAmountByType(STORE, start, end)).thenReturn(List.of(typeTotal("credit", 12.5, 2)));
+
+		ReportTotals totals = rollupService.sumBetween(STORE, start, end);
+
+		assertEquals(12.5, totals.getTotalCredits());
+		assertEquals(2, totals.getTransactionCount());
+		verify(reportRollupRepository, never()).findBuckets(any(), any(), any(), any());
+	}
+
+	@Test
+	void splitsARangeIntoRawEdgesHoursAndDays() {
+		LocalDateTime start = at(1, 10, 15);
+		LocalDateTime end = at(4, 8, 30);
+		when(transactionRepository.sumConvertedAmountByType(STORE, start, at(1, 11, 0)))
+				.thenReturn(List.of(typeTotal("credit", 1.0, 1)));
+		when(reportRollupRepository.findBuckets(STORE, RollupGranularity.HOUR, at(1, 11, 0), at(2, 0, 0)))
+				.thenReturn(List.of(rollup(10.0, 0.0, 2), rollup(0.0, 5.0, 1)));
+		when(reportRollupRepository.findBuckets(STORE, RollupGranularity.DAY, at(2, 0, 0), at(4, 0, 0)))
+				.thenReturn(List.of(rollup(100.0, 40.0, 7), rollup(200.0, 60.0, 9)));
+		when(reportRollupRepository.findBuckets(STORE, RollupGranularity.HOUR, at(4, 0, 0), at(4, 8, 0)))
+				.thenReturn(List.of(rollup(20.0, 0.0, 1)));
+		when(transactionRepository.sumConvertedAmountByType(STORE, at(4, 8, 0), end))
+				.thenReturn(List.of(typeTotal("debit", 2.0, 1)));
+
+		ReportTotals totals = rollupService.sumBetween(STORE, start, end);
+
+		assertEquals(331.0, totals.getTotalCredits());
+		assertEquals(107.0, totals.getTotalDebits());
+		assertEquals(22, totals.getTransactionCount());
+		verify(reportRollupRepository).findBuckets(STORE, RollupGranularity.HOUR, at(1, 11, 0), at(2, 0, 0));
+		verify(reportRollupRepository).findBuckets(STORE, RollupGranularity.DAY, at(2, 0, 0), at(4, 0, 0));
+		verify(reportRollupRepository).findBuckets(STORE, RollupGranularity.HOUR, at(4, 0, 0), at(4, 8, 0));
+		verifyNoMoreInteractions(reportRollupRepository);
+	}
+
+	@Test
+	void usesOnlyHourlyBucketsWhenNoFullDayIsCovered() {
+		LocalDateTime start = at(1, 10, 15);
+		LocalDateTime end = at(1, 13, 30);
+		when(reportRollupRepository.findBuckets(STORE, RollupGranularity.HOUR, at(1, 11, 0), at(1, 13, 0)))
+				.thenReturn(List.of(rollup(3.0, 1.0, 2)));
+
+		ReportTotals totals = rollupService.sumBetween(STORE, start, end);
+
+		assertEquals(3.0, totals.getTotalCredits());
+		assertEquals(1.0, totals.getTotalDebits());
+		verify(transactionRepository).sumConvertedAmountByType(STORE, start, at(1, 11, 0));
+		verify(transactionRepository).sumConvertedAmountByType(STORE, at(1, 13, 0), end);
+		verify(reportRollupRepository, never()).findBuckets(eq(STORE), eq(RollupGranularity.DAY), any(), any());
+	}
+
+	@Test
+	void readsNoRawTransactionsForAlignedRanges() {
+		LocalDateTime start = at(1, 0, 0);
+		LocalDateTime end = at(3, 0, 0);
+		when(reportRollupRepository.findBuckets(STORE, RollupGranularity.DAY, start, end))
+				.thenReturn(List.of(rollup(50.0, 25.0, 4)));
+
+		ReportTotals totals = rollupService.sumBetween(STORE, start, end);
+
+		assertEquals(50.0, totals.getTotalCredits());
+		assertEquals(25.0, totals.getTotalDebits());
+		assertEquals(4, totals.getTransactionCount());
+		verify(transactionRepository, never()).sumConvertedAmountByType(any(), any(), any());
+		verify(reportRollupRepository, never()).findBuckets(eq(STORE), eq(RollupGranularity.HOUR), any(), any());
+	}
+
+	@Test
+	void countsFailedIncrementsAndMarksTheirDaysForRepair() {
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ReportRollup.class))
+				.thenThrow(new DataAccessResourceFailureException("down"));
+
+		rollupService.recordTransactions(List.of(
+				transaction("credit", at(1, 10, 5)), transaction("debit", at(1, 14, 0)), transaction("credit", at(2, 9, 0))));
+
+		assertEquals(1.0, meterRegistry.counter("kirana.rollup.failures").count());
+		verify(mongoTemplate, times(2)).upsert(any(Query.class), any(Update.class), eq(RollupRepair.class));
+	}
+
+	@Test
+	void repairsMarkedDaysAndRemovesTheirMarks() {
+		RollupRepair repair = new RollupRepair();
+		repair.setId(RollupGranularity.DAY.bucketId(STORE, at(1, 0, 0)));
+		repair.setStoreId(STORE);
+		repair.setDay(at(1, 0, 0));
+		repair.setMarkedAt(at(1, 10, 6));
+		when(mongoTemplate.findAll(RollupRepair.class)).thenReturn(List.of(repair));
+		when(transactionRepository.streamTotalsFieldsBetween(STORE, at(1, 0, 0), at(2, 0, 0)))
+				.thenReturn(Stream.of(transaction("credit", at(1, 10, 5))));
+
+		Set<String> repaired = rollupService.repairRollups();
+
+		assertEquals(Set.of(STORE), repaired);
+		verify(reportRollupRepository).deleteBuckets(STORE, at(1, 0, 0), at(2, 0, 0));
+		verify(reportRollupRepository).saveAll(any());
+		verify(mongoTemplate).remove(any(Query.class), eq(RollupRepair.class));
+	}
+
+	private static LocalDateTime at(int day, int hour, int minute) {
+		return LocalDateTime.of(2024, 3, day, hour, minute);
+	}
+
+	private static ReportRollup rollup(double credits, double debits, long count) {
+		ReportRollup rollup = new ReportRollup();
+		rollup.setTotalCredits(credits);
+		rollup.setTotalDebits(debits);
+		rollup.setTransactionCount(count);
+		return rollup;
+	}
+
+	private static Transaction transaction(String type, LocalDateTime timestamp) {
+		Transaction transaction = new Transaction();
+		transaction.setStoreId(STORE);
+		transaction.setType(type);
+		transaction.setConvertedAmount(10.0);
+		transaction.setTimestamp(timestamp);
+		return transaction;
+	}
+
+	private static TypeTotal typeTotal(String type, double total, long count) {
+		TypeTotal typeTotal = new TypeTotal();
+		typeTotal.setType(type);
+		typeTotal.setTotal(total);
+		typeTotal.setCount(count);
+		return typeTotal;
+	}
+}
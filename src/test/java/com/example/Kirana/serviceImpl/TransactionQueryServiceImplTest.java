@@ -0,0 +1,105 @@
+package com.example.Kirana.serviceImpl;
+
+import com.example.Kirana.models.Transaction;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransactionQueryServiceImplTest {
+
+	private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2024, 4, 30, 18, 30, 0, 123_000_000);
+
+	@Test
+	void cursorRoundTripsTimestampAndId() {
+		String id = new ObjectId().toHexString();
+		String cursor = TransactionQueryServiceImpl.encodeCursor(transaction(TIMESTAMP, id));
+
+		String[] key = TransactionQueryServiceImpl.decodeCursor(cursor);
+		assertEquals(TIMESTAMP, LocalDateTime.parse(key[0]));
+		assertEquals(id, key[1]);
+	}
+
+	@Test
+	void cursorKeepsSeparatorsInsideClientIds() {
+		String cursor = TransactionQueryServiceImpl.encodeCursor(transaction(TIMESTAMP, "till-3|2024|0042"));
+
+		assertEquals("till-3|2024|0042", TransactionQueryServiceImpl.decodeCursor(cursor)[1]);
+	}
+
+	@Test
+	void cursorIsUrlSafe() {
+		String cursor = TransactionQueryServiceImpl.encodeCursor(transaction(TIMESTAMP, "??>>id"));
+
+		assertEquals(-1, indexOfAny(cursor, "+/="));
+	}
+
+	@Test
+	void rejectsMalformedCursors() {
+		for (String cursor : List.of("not base64!", encode("no-separator"), encode("|id"), encode("2024-04-30T18:30|"),
+				encode("yesterday|id"))) {
+			assertThrows(IllegalArgumentException.class, () -> TransactionQueryServiceImpl.decodeCursor(cursor), cursor);
+		}
+	}
+
+	@Test
+	void seekPastObjectIdAlsoAdmitsStringIdsOfTheSameTimestamp() {
+		ObjectId id = new ObjectId();
+		Document sameTimestamp = sameTimestampClause(TransactionQueryServiceImpl.seekPast(TIMESTAMP, id.toHexString()).getCriteriaObject());
+
+		List<?> idAlternatives = (List<?>) sameTimestamp.get("$or");
+		assertEquals(new Document("_id", new Document("$lt", id)), idAlternatives.get(0));
+		assertEquals(new Document("_id", new Document("$type", 2)), idAlternatives.get(1));
+	}
+
+	@Test
+	void seekPastStringIdOnlyComparesStrings() {
+		Document sameTimestamp = sameTimestampClause(TransactionQueryServiceImpl.seekPast(TIMESTAMP, "till-3-0042").getCriteriaObject());
+
+		assertEquals(new Document("_id", new Document("$lt", "till-3-0042")), sameTimestamp);
+	}
+
+	@Test
+	void seekPastIncludesEveryOlderTimestamp() {
+		Document criteria = TransactionQueryServiceImpl.seekPast(TIMESTAMP, "till-3-0042").getCriteriaObject();
+
+		assertEquals(new Document("timestamp", new Document("$lt", TIMESTAMP)), ((List<?>) criteria.get("$or")).get(0));
+	}
+
+	/**
+	 * Returns the id clause that applies to transactions sharing the cursor's timestamp.
+	 */
+	private static Document sameTimestampClause(Document criteria) {
+		Document tie = (Document) ((List<?>) criteria.get("$or")).get(1);
+		List<?> conditions = (List<?>) tie.get("$and");
+		assertEquals(new Document("timestamp", TIMESTAMP), conditions.get(0));
+		return (Document) conditions.get(1);
+	}
+
+	private static Transaction transaction(LocalDateTime timestamp, String id) {
+		Transaction transaction = new Transaction();
+		transaction.setTimestamp(timestamp);
+		transaction.setId(id);
+		return transaction;
+	}
+
+	private static String encode(String key) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static int indexOfAny(String value, String characters) {
+		for (int i = 0; i < value.length(); i++) {
+			if (characters.indexOf(value.charAt(i)) >= 0) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
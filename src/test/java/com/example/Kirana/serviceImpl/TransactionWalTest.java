@@ -0,0 +1,322 @@
+package com.example.Kirana.serviceImpl;
+
+import com.example.Kirana.models.Transaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionWalTest {
+
+	private static final long LARGE_SEGMENT = 64 * 1024 * 1024;
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void replaysAppendedEntriesAfterReopen() throws Exception {
+		List<TransactionWal.Entry> appended = new ArrayList<>();
+		try (TransactionWal wal = TransactionWal.open(directory, LARGE_SEGMENT, objectMapper)) {
+			assertTrue(wal.replayed().isEmpty());
+			wal.append(List.of(transaction("t-1"), transaction("t-2")), appended::add);
+			wal.append(List.of(transaction("t-3")), appended::add);
+		}
+		for (TransactionWal.Entry entry : appended) {
+			assertTrue(entry.awaitCommitted());
+		}
+
+		try (TransactionWal wal = TransactionWal.open(directory, LARGE_SEGMENT, objectMapper)) {
+			List<TransactionWal.Entry> replayed = wal.replayed();
+			assertEquals(List.of("t-1", "t-2", "t-3"), ids(replayed));
+			for (int i = 0; i < replayed.size(); i++) {
+				assertEquals(appended.get(i).getEnd(), replayed.get(i).getEnd());
+				assertEquals(125.5, replayed.get(i).getTransaction().getConvertedAmount());
+				assertEquals(LocalDateTime.of(2024, 4, 30, 18, 30), replayed.get(i).getTransaction().getTimestamp());
+				assertTrue(replayed.get(i).awaitCommitted());
+			}
+		}
+	}
+
+	@Test
+	void skipsATornLastLine() throws Exception {
+		try (TransactionWal wal = TransactionWal.open(directory, LARGE_SEGMENT, objectMapper)) {
+			wal.append(List.of(transaction("t-1")), entry -> { });
+		}
+		Files.write(segments().get(0), "{\"id\":\"t-2\",\"amo".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+		try (TransactionWal wal = TransactionWal.open(directory, LARGE_SEGMENT, objectMapper)) {
+			assertEquals(List.of("t-1"), ids(wal.replayed()));
+		}
+	}
+
+	@Test
+	void skipsUnreadableLines() throws Exception {
+		String segment = objectMapper.writeValueAsString(transaction("t-1")) + "\n"
+				+ "not a transaction\n"
+				+ objectMapper.writeValueAsString(transaction("t-3")) + "\n";
+		Files.writeString(directory.resolve(String.format("%020d.wal", 0)), segment);
+
+		try (TransactionWal wal = TransactionWal.open(directory, LARGE_SEGMENT, objectMapper)) {
+			assertEquals(List.of("t-1", "t-3"), ids(wal.replayed()));
+			assertEquals(segment.length(), wal.replayed().get(1).getEnd());
+		}
+	}
+
+	@Test
+	void rollsSegmentsAtTheConfiguredSize() throws Exception {
+		long lineSize = objectMapper.writeValueAsBytes(transaction("t-0")).length + 1;
+		try (TransactionWal wal = TransactionWal.open(directory, 2 * lineSize, objectMapper)) {
+			for (int i = 0; i < 6; i++) {
+				wal.append(List.of(transaction("t-" + i)), entry -> { });
+			}
+		}
+		assertEquals(3, segments().size());
+		assertEquals(String.format("%020d.wal", 2 * lineSize), segments().get(1).getFileName().toString());
+
+		try (TransactionWal wal = TransactionWal.open(directory, 2 * lineSize, objectMapper)) {
+			assertEquals(List.of("t-0", "t-1", "t-2", "t-3", "t-4", "t-5"), ids(wal.replayed()));
+		}
+	}
+
+	@Test
+	void checkpointDeletesOnlyWholeSegments() throws Exception {
+		long lineSize = objectMapper.writeValueAsBytes(transaction("t-0")).length + 1;
+		List<TransactionWal.Entry> appended = new ArrayList<>();
+		try (TransactionWal wal = TransactionWal.open(directory, 2 * lineSize, objectMapper)) {
+			for (int i = 0; i < 6; i++) {
+				wal.append(List.of(transaction("t-" + i)), appended::add);
+			}
+			List<Path> before = segments();
+
+			// t-2 is the first entry of the second segment, so only the first segment is fully checkpointed
+			wal.checkpoint(appended.get(2).getEnd());
+			assertEquals(before.subList(1, 3), segments());
+
+			wal.checkpoint(appended.get(5).getEnd());
+			assertEquals(before.subList(2, 3), segments(), "the current segment is kept");
+		}
+
+		try (TransactionWal wal = TransactionWal.open(directory, 2 * lineSize, objectMapper)) {
+			assertEquals(List.of("t-4", "t-5"), ids(wal.replayed()));
+		}
+	}
+
+	@Test
+	void dropsEmptySegmentsOnOpen() throws Exception {
+		try (TransactionWal wal = TransactionWal.open(directory, LARGE_SEGMENT, objectMapper)) {
+			assertEquals(1, segments().size());
+		}
+		try (TransactionWal wal = TransactionWal.open(directory, LARGE_SEGMENT, objectMapper)) {
+			assertTrue(wal.replayed().isEmpty());
+			assertEquals(List.of(directory.resolve(String.format("%020d.wal", 0))), segments());
+		}
+	}
+
+	@Test
+	void truncatesAPartialWriteBeforeFailing() throws Exception {
+		List<FailingChannel> channels = new ArrayList<>();
+		List<TransactionWal.Entry> appended = new ArrayList<>();
+		try (TransactionWal wal = TransactionWal.open(directory, LARGE_SEGMENT, objectMapper, file -> {
+			FailingChannel channel = new FailingChannel(FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+					StandardOpenOption.WRITE, StandardOpenOption.READ));
+			channels.add(channel);
+			return channel;
+		})) {
+			wal.append(List.of(transaction("t-1")), appended::add);
+			channels.get(0).failNextWriteAfter = 10;
+			assertThrows(IOException.class, () -> wal.append(List.of(transaction("t-2")), appended::add));
+			wal.append(List.of(transaction("t-3")), appended::add);
+		}
+
+		assertEquals(1, channels.size(), "the segment was truncated in place");
+		try (TransactionWal wal = TransactionWal.open(directory, LARGE_SEGMENT, objectMapper)) {
+			assertEquals(List.of("t-1", "t-3"), ids(wal.replayed()));
+			assertEquals(appended.get(1).getEnd(), wal.replayed().get(1).getEnd());
+		}
+	}
+
+	@Test
+	void startsANewSegmentIfAPartialWriteCannotBeTruncated() throws Exception {
+		List<FailingChannel> channels = new ArrayList<>();
+		List<TransactionWal.Entry> appended = new ArrayList<>();
+		try (TransactionWal wal = TransactionWal.open(directory, LARGE_SEGMENT, objectMapper, file -> {
+			FailingChannel channel = new FailingChannel(FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+					StandardOpenOption.WRITE, StandardOpenOption.READ));
+			channels.add(channel);
+			return channel;
+		})) {
+			wal.append(List.of(transaction("t-1")), appended::add);
+			channels.get(0).failNextWriteAfter = 10;
+			channels.get(0).failTruncate = true;
+			assertThrows(IOException.class, () -> wal.append(List.of(transaction("t-2")), appended::add));
+			wal.append(List.of(transaction("t-3")), appended::add);
+		}
+
+		assertEquals(2, channels.size());
+		assertEquals(List.of(directory.resolve(String.format("%020d.wal", 0)),
+				directory.resolve(String.format("%020d.wal", appended.get(0).getEnd()))), segments());
+		try (TransactionWal wal = TransactionWal.open(directory, LARGE_SEGMENT, objectMapper)) {
+			assertEquals(List.of("t-1", "t-3"), ids(wal.replayed()));
+			assertEquals(appended.get(1).getEnd(), wal.replayed().get(1).getEnd());
+		}
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> listing = Files.list(directory)) {
+			return listing.filter(path -> path.toString().endsWith(".wal")).sorted().toList();
+		}
+	}
+
+	private static List<String> ids(List<TransactionWal.Entry> entries) {
+		List<String> ids = new ArrayList<>(entries.size());
+		for (TransactionWal.Entry entry : entries) {
+			ids.add(entry.getTransaction().getId());
+		}
+		return ids;
+	}
+
+	private static Transaction transaction(String id) {
+		Transaction transaction = new Transaction();
+		transaction.setId(id);
+		transaction.setStoreId("store-17");
+		transaction.setType("credit");
+		transaction.setCurrency("INR");
+		transaction.setAmount(125.5);
+		transaction.setConvertedAmount(125.5);
+		transaction.setTimestamp(LocalDateTime.of(2024, 4, 30, 18, 30));
+		return transaction;
+	}
+
+	/**
+	 * A file channel whose next write can be made to fail after writing part of its buffer, and whose truncate
+	 * can be made to fail.
+	 */
+	private static final class FailingChannel extends FileChannel {
+
+		private final FileChannel delegate;
+		private int failNextWriteAfter = -1;
+		private boolean failTruncate;
+
+		FailingChannel(FileChannel delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public int write(ByteBuffer src) throws IOException {
+			if (failNextWriteAfter < 0) {
+				return delegate.write(src);
+			}
+			ByteBuffer part = src.duplicate();
+			part.limit(part.position() + failNextWriteAfter);
+			delegate.write(part);
+			failNextWriteAfter = -1;
+			throw new IOException("No space left on device");
+		}
+
+		@Override
+		public FileChannel truncate(long size) throws IOException {
+			if (failTruncate) {
+				throw new IOException("Input/output error");
+			}
+			delegate.truncate(size);
+			return this;
+		}
+
+		@Override
+		public int read(ByteBuffer dst) throws IOException {
+			return delegate.read(dst);
+		}
+
+		@Override
+		public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+			return delegate.read(dsts, offset, length);
+		}
+
+		@Override
+		public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+			return delegate.write(srcs, offset, length);
+		}
+
+		@Override
+		public long position() throws IOException {
+			return delegate.position();
+		}
+
+		@Override
+		public FileChannel position(long newPosition) throws IOException {
+			delegate.position(newPosition);
+			return this;
+		}
+
+		@Override
+		public long size() throws IOException {
+			return delegate.size();
+		}
+
+		@Override
+		public void force(boolean metaData) throws IOException {
+			delegate.force(metaData);
+		}
+
+		@Override
+		public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+			return delegate.transferTo(position, count, target);
+		}
+
+		@Override
+		public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+			return delegate.transferFrom(src, position, count);
+		}
+
+		@Override
+		public int read(ByteBuffer dst, long position) throws IOException {
+			return delegate.read(dst, position);
+		}
+
+		@Override
+		public int write(ByteBuffer src, long position) throws IOException {
+			return delegate.write(src, position);
+		}
+
+		@Override
+		public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+			return delegate.map(mode, position, size);
+		}
+
+		@Override
+		public FileLock lock(long position, long size, boolean shared) throws IOException {
+			return delegate.lock(position, size, shared);
+		}
+
+		@Override
+		public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+			return delegate.tryLock(position, size, shared);
+		}
+
+		@Override
+		protected void implCloseChannel() throws IOException {
+			delegate.close();
+		}
+	}
+}